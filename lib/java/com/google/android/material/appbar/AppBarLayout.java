@@ -59,6 +59,7 @@ import android.widget.LinearLayout;
 import android.widget.ListView;
 import android.widget.ScrollView;
 import androidx.coordinatorlayout.widget.CoordinatorLayout;
+import androidx.recyclerview.widget.RecyclerView;
 import com.google.android.material.animation.AnimationUtils;
 import com.google.android.material.internal.ThemeEnforcement;
 import com.google.android.material.shape.MaterialShapeDrawable;
@@ -173,6 +174,21 @@ public class AppBarLayout extends LinearLayout {
 
   private List<BaseOnOffsetChangedListener> listeners;
 
+  // Whether listeners have to be notified on the next offset change, even if it is unchanged.
+  private boolean offsetDispatchDirty = true;
+  private int lastDispatchedOffset;
+
+  private boolean offsetChangeCoalescingEnabled;
+  private boolean offsetChangePending;
+
+  private final Runnable dispatchPendingOffsetChangeRunnable =
+      new Runnable() {
+        @Override
+        public void run() {
+          dispatchPendingOffsetChange();
+        }
+      };
+
   private boolean liftableOverride;
   private boolean liftable;
   private boolean lifted;
@@ -180,6 +196,22 @@ public class AppBarLayout extends LinearLayout {
   private boolean liftOnScroll;
   @IdRes private int liftOnScrollTargetViewId;
   @Nullable private WeakReference<View> liftOnScrollTargetView;
+  // Whether looking up liftOnScrollTargetViewId failed since the last layout of the parent.
+  private boolean liftOnScrollTargetViewMissing;
+  @Nullable private WeakReference<RecyclerView> liftOnScrollRecyclerView;
+  @Nullable private RecyclerView.OnScrollListener liftOnScrollListener;
+
+  private final View.OnAttachStateChangeListener liftOnScrollTargetAttachListener =
+      new View.OnAttachStateChangeListener() {
+        @Override
+        public void onViewAttachedToWindow(View view) {}
+
+        @Override
+        public void onViewDetachedFromWindow(View view) {
+          // The target was removed from the hierarchy, so look it up again on the next scroll
+          clearLiftOnScrollTargetView();
+        }
+      };
   @Nullable private ValueAnimator elevationOverlayAnimator;
 
   private int[] tmpStatesArray;
@@ -282,6 +314,8 @@ public class AppBarLayout extends LinearLayout {
     }
     if (listener != null && !listeners.contains(listener)) {
       listeners.add(listener);
+      // Make sure the new listener receives the next offset, even if it hasn't changed
+      offsetDispatchDirty = true;
     }
   }
 
@@ -309,6 +343,35 @@ public class AppBarLayout extends LinearLayout {
     removeOnOffsetChangedListener((BaseOnOffsetChangedListener) listener);
   }
 
+  /**
+   * Sets whether offset changes are dispatched to the {@link BaseOnOffsetChangedListener}s at most
+   * once per animation frame.
+   *
+   * <p>When enabled, the listeners are notified on the next animation frame with the latest offset,
+   * instead of once for every nested scroll or drag event. This reduces the work done when several
+   * events are received within a single frame. Disabled by default.
+   *
+   * @param enabled whether offset changes should be coalesced to one dispatch per frame.
+   * @see #isOffsetChangeCoalescingEnabled()
+   */
+  public void setOffsetChangeCoalescingEnabled(boolean enabled) {
+    if (offsetChangeCoalescingEnabled != enabled) {
+      offsetChangeCoalescingEnabled = enabled;
+      if (!enabled) {
+        dispatchPendingOffsetChange();
+      }
+    }
+  }
+
+  /**
+   * Returns whether offset changes are dispatched at most once per animation frame.
+   *
+   * @see #setOffsetChangeCoalescingEnabled(boolean)
+   */
+  public boolean isOffsetChangeCoalescingEnabled() {
+    return offsetChangeCoalescingEnabled;
+  }
+
   /**
    * Set the drawable to use for the status bar foreground drawable. Providing null will disable the
    * scrim functionality.
@@ -458,6 +521,9 @@ public class AppBarLayout extends LinearLayout {
 
     invalidateScrollRanges();
 
+    // The scroll range may have changed, so listeners need the next offset even if it is unchanged
+    offsetDispatchDirty = true;
+
     haveChildWithInterpolator = false;
     for (int i = 0, z = getChildCount(); i < z; i++) {
       final View child = getChildAt(i);
@@ -588,6 +654,11 @@ public class AppBarLayout extends LinearLayout {
     super.onDetachedFromWindow();
 
     clearLiftOnScrollTargetView();
+
+    if (offsetChangePending) {
+      offsetChangePending = false;
+      removeCallbacks(dispatchPendingOffsetChangeRunnable);
+    }
   }
 
   boolean hasChildWithInterpolator() {
@@ -731,6 +802,32 @@ public class AppBarLayout extends LinearLayout {
       ViewCompat.postInvalidateOnAnimation(this);
     }
 
+    if (offsetChangeCoalescingEnabled && ViewCompat.isAttachedToWindow(this)) {
+      if (!offsetChangePending) {
+        offsetChangePending = true;
+        ViewCompat.postOnAnimation(this, dispatchPendingOffsetChangeRunnable);
+      }
+      return;
+    }
+    dispatchOffsetChanged(offset);
+  }
+
+  private void dispatchPendingOffsetChange() {
+    if (offsetChangePending) {
+      offsetChangePending = false;
+      removeCallbacks(dispatchPendingOffsetChangeRunnable);
+      dispatchOffsetChanged(currentOffset);
+    }
+  }
+
+  private void dispatchOffsetChanged(int offset) {
+    if (!offsetDispatchDirty && offset == lastDispatchedOffset) {
+      // The listeners have already been told about this offset
+      return;
+    }
+    offsetDispatchDirty = false;
+    lastDispatchedOffset = offset;
+
     // Iterate backwards through the list so that most recently added listeners
     // get the first chance to decide
     if (listeners != null) {
@@ -887,8 +984,60 @@ public class AppBarLayout extends LinearLayout {
     return liftOnScrollTargetViewId;
   }
 
+  /**
+   * Binds the lifted state of the {@link AppBarLayout} to the scroll state of the given {@link
+   * RecyclerView}.
+   *
+   * <p>The lifted state is updated whenever the {@link RecyclerView} scrolls, and the {@link
+   * RecyclerView} is used as the lift on scroll target without looking it up in the hierarchy. This
+   * takes precedence over {@link #setLiftOnScrollTargetViewId(int)}. Pass {@code null} to unbind.
+   *
+   * @see #setLiftOnScroll(boolean)
+   */
+  public void setLiftOnScrollRecyclerView(@Nullable RecyclerView recyclerView) {
+    RecyclerView previousRecyclerView = getLiftOnScrollRecyclerView();
+    if (previousRecyclerView == recyclerView) {
+      return;
+    }
+    if (previousRecyclerView != null && liftOnScrollListener != null) {
+      previousRecyclerView.removeOnScrollListener(liftOnScrollListener);
+    }
+    // Only the RecyclerView's scroll listener holds on to this view, not the other way around
+    liftOnScrollRecyclerView = recyclerView != null ? new WeakReference<>(recyclerView) : null;
+    if (recyclerView != null) {
+      if (liftOnScrollListener == null) {
+        liftOnScrollListener =
+            new RecyclerView.OnScrollListener() {
+              @Override
+              public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                if (liftOnScroll) {
+                  setLiftedState(recyclerView.canScrollVertically(-1));
+                }
+              }
+            };
+      }
+      recyclerView.addOnScrollListener(liftOnScrollListener);
+      if (liftOnScroll) {
+        setLiftedState(recyclerView.canScrollVertically(-1));
+      }
+    }
+  }
+
+  /**
+   * Returns the {@link RecyclerView} that the lifted state is bound to, if any.
+   *
+   * @see #setLiftOnScrollRecyclerView(RecyclerView)
+   */
+  @Nullable
+  public RecyclerView getLiftOnScrollRecyclerView() {
+    return liftOnScrollRecyclerView != null ? liftOnScrollRecyclerView.get() : null;
+  }
+
   boolean shouldLift(@Nullable View defaultScrollingView) {
-    View scrollingView = findLiftOnScrollTargetView(defaultScrollingView);
+    View scrollingView = getLiftOnScrollRecyclerView();
+    if (scrollingView == null) {
+      scrollingView = findLiftOnScrollTargetView(defaultScrollingView);
+    }
     if (scrollingView == null) {
       scrollingView = defaultScrollingView;
     }
@@ -898,7 +1047,9 @@ public class AppBarLayout extends LinearLayout {
 
   @Nullable
   private View findLiftOnScrollTargetView(@Nullable View defaultScrollingView) {
-    if (liftOnScrollTargetView == null && liftOnScrollTargetViewId != View.NO_ID) {
+    if (liftOnScrollTargetView == null
+        && liftOnScrollTargetViewId != View.NO_ID
+        && !liftOnScrollTargetViewMissing) {
       View targetView = null;
       if (defaultScrollingView != null) {
         targetView = defaultScrollingView.findViewById(liftOnScrollTargetViewId);
@@ -910,6 +1061,10 @@ public class AppBarLayout extends LinearLayout {
       }
       if (targetView != null) {
         liftOnScrollTargetView = new WeakReference<>(targetView);
+        targetView.addOnAttachStateChangeListener(liftOnScrollTargetAttachListener);
+      } else {
+        // Don't search the hierarchy on every scroll while the target doesn't exist
+        liftOnScrollTargetViewMissing = true;
       }
     }
     return liftOnScrollTargetView != null ? liftOnScrollTargetView.get() : null;
@@ -917,9 +1072,19 @@ public class AppBarLayout extends LinearLayout {
 
   private void clearLiftOnScrollTargetView() {
     if (liftOnScrollTargetView != null) {
+      View targetView = liftOnScrollTargetView.get();
+      if (targetView != null) {
+        targetView.removeOnAttachStateChangeListener(liftOnScrollTargetAttachListener);
+      }
       liftOnScrollTargetView.clear();
     }
     liftOnScrollTargetView = null;
+    liftOnScrollTargetViewMissing = false;
+  }
+
+  // Called when the parent is laid out, as the hierarchy may now contain a missing target.
+  void onParentLayout() {
+    liftOnScrollTargetViewMissing = false;
   }
 
   /**
@@ -1495,6 +1660,8 @@ public class AppBarLayout extends LinearLayout {
         @NonNull CoordinatorLayout parent, @NonNull T abl, int layoutDirection) {
       boolean handled = super.onLayoutChild(parent, abl, layoutDirection);
 
+      abl.onParentLayout();
+
       // The priority for actions here is (first which is true wins):
       // 1. forced pending actions
       // 2. offsets for restorations
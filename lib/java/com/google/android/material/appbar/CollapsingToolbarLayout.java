@@ -133,6 +133,12 @@ public class CollapsingToolbarLayout extends FrameLayout {
   @Nullable Drawable statusBarScrim;
   private int scrimAlpha;
   private boolean scrimsAreShown;
+
+  // When enabled, the content scrim is drawn by its own child view whose alpha is animated instead.
+  private boolean scrimOverlayEnabled;
+  @Nullable private ScrimView contentScrimView;
+
+  private boolean parallaxTranslationEnabled;
   private ValueAnimator scrimAnimator;
   private long scrimAnimationDuration;
   private int scrimVisibleHeightTrigger = -1;
@@ -141,6 +147,11 @@ public class CollapsingToolbarLayout extends FrameLayout {
 
   int currentOffset;
 
+  // The offset that pinned and parallax children were last offset for, and whether a layout has
+  // happened since, which changes the pinned children's maximum offsets.
+  private int appliedChildOffset;
+  private boolean childOffsetsDirty = true;
+
   @Nullable WindowInsetsCompat lastInsets;
 
   public CollapsingToolbarLayout(@NonNull Context context) {
@@ -302,7 +313,7 @@ public class CollapsingToolbarLayout extends FrameLayout {
     // If we don't have a toolbar, the scrim will be not be drawn in drawChild() below.
     // Instead, we draw it here, before our collapsing text.
     ensureToolbar();
-    if (toolbar == null && contentScrim != null && scrimAlpha > 0) {
+    if (toolbar == null && contentScrim != null && contentScrimView == null && scrimAlpha > 0) {
       contentScrim.mutate().setAlpha(scrimAlpha);
       contentScrim.draw(canvas);
     }
@@ -329,7 +340,10 @@ public class CollapsingToolbarLayout extends FrameLayout {
     // but in front of any other children which are behind it. To do this we intercept the
     // drawChild() call, and draw our scrim just before the Toolbar is drawn
     boolean invalidated = false;
-    if (contentScrim != null && scrimAlpha > 0 && isToolbarChild(child)) {
+    if (contentScrim != null
+        && contentScrimView == null
+        && scrimAlpha > 0
+        && isToolbarChild(child)) {
       contentScrim.mutate().setAlpha(scrimAlpha);
       contentScrim.draw(canvas);
       invalidated = true;
@@ -337,10 +351,32 @@ public class CollapsingToolbarLayout extends FrameLayout {
     return super.drawChild(canvas, child, drawingTime) || invalidated;
   }
 
+  @Override
+  protected int getChildDrawingOrder(int childCount, int drawingPosition) {
+    if (contentScrimView == null) {
+      return super.getChildDrawingOrder(childCount, drawingPosition);
+    }
+    // Draw the content scrim view just before the Toolbar, or after all children without one
+    final int scrimIndex = indexOfChild(contentScrimView);
+    int toolbarIndex = childCount;
+    for (int i = 0; i < childCount; i++) {
+      if (isToolbarChild(getChildAt(i))) {
+        toolbarIndex = i;
+        break;
+      }
+    }
+    final int scrimPosition = scrimIndex < toolbarIndex ? toolbarIndex - 1 : toolbarIndex;
+    if (drawingPosition == scrimPosition) {
+      return scrimIndex;
+    }
+    final int position = drawingPosition < scrimPosition ? drawingPosition : drawingPosition - 1;
+    return position < scrimIndex ? position : position + 1;
+  }
+
   @Override
   protected void onSizeChanged(int w, int h, int oldw, int oldh) {
     super.onSizeChanged(w, h, oldw, oldh);
-    if (contentScrim != null) {
+    if (contentScrim != null && contentScrimView == null) {
       contentScrim.setBounds(0, 0, w, h);
     }
   }
@@ -436,11 +472,19 @@ public class CollapsingToolbarLayout extends FrameLayout {
   protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
     super.onLayout(changed, left, top, right, bottom);
 
+    if (contentScrimView != null) {
+      // The scrim view always covers the whole layout, regardless of its measured size
+      contentScrimView.layout(0, 0, right - left, bottom - top);
+    }
+
     if (lastInsets != null) {
       // Shift down any views which are not set to fit system windows
       final int insetTop = lastInsets.getSystemWindowInsetTop();
       for (int i = 0, z = getChildCount(); i < z; i++) {
         final View child = getChildAt(i);
+        if (child == contentScrimView) {
+          continue;
+        }
         if (!ViewCompat.getFitsSystemWindows(child)) {
           if (child.getTop() < insetTop) {
             // If the child isn't set to fit system windows but is drawing within
@@ -453,8 +497,12 @@ public class CollapsingToolbarLayout extends FrameLayout {
 
     // Update our child view offset helpers so that they track the correct layout coordinates
     for (int i = 0, z = getChildCount(); i < z; i++) {
-      getViewOffsetHelper(getChildAt(i)).onViewLayout();
+      final View child = getChildAt(i);
+      if (child != contentScrimView) {
+        getViewOffsetHelper(child).onViewLayout();
+      }
     }
+    childOffsetsDirty = true;
 
     // Update the collapsed bounds by getting its transformed bounds
     if (collapsingTitleEnabled && dummyView != null) {
@@ -505,7 +553,10 @@ public class CollapsingToolbarLayout extends FrameLayout {
 
     // Apply any view offsets, this should be done at the very end of layout
     for (int i = 0, z = getChildCount(); i < z; i++) {
-      getViewOffsetHelper(getChildAt(i)).applyOffsets();
+      final View child = getChildAt(i);
+      if (child != contentScrimView) {
+        getViewOffsetHelper(child).applyOffsets();
+      }
     }
   }
 
@@ -638,15 +689,124 @@ public class CollapsingToolbarLayout extends FrameLayout {
 
   void setScrimAlpha(int alpha) {
     if (alpha != scrimAlpha) {
+      scrimAlpha = alpha;
+      if (contentScrimView != null) {
+        // Only the scrim view's alpha property changes, nothing needs to be redrawn
+        updateContentScrimViewAlpha();
+        if (statusBarScrim != null) {
+          ViewCompat.postInvalidateOnAnimation(CollapsingToolbarLayout.this);
+        }
+        return;
+      }
       final Drawable contentScrim = this.contentScrim;
       if (contentScrim != null && toolbar != null) {
         ViewCompat.postInvalidateOnAnimation(toolbar);
       }
-      scrimAlpha = alpha;
       ViewCompat.postInvalidateOnAnimation(CollapsingToolbarLayout.this);
     }
   }
 
+  /**
+   * Sets whether the content scrim is rendered by a separate overlay view.
+   *
+   * <p>When enabled, showing and hiding the content scrim only changes the alpha of the overlay,
+   * and doesn't require this layout or its {@link Toolbar} to be redrawn. The overlay is added as a
+   * child of this layout while a content scrim is set, so it is included in {@link
+   * #getChildCount()} and {@link #getChildAt(int)}, but it is drawn just before the {@link
+   * Toolbar}, and is never pinned, offset by parallax or shifted down by window insets. It must not
+   * be removed directly. Disabled by default.
+   *
+   * @param enabled whether the content scrim should be rendered by an overlay view.
+   * @see #isScrimOverlayEnabled()
+   */
+  public void setScrimOverlayEnabled(boolean enabled) {
+    if (scrimOverlayEnabled != enabled) {
+      scrimOverlayEnabled = enabled;
+      updateContentScrimView();
+    }
+  }
+
+  /**
+   * Returns whether the content scrim is rendered by a separate overlay view.
+   *
+   * @see #setScrimOverlayEnabled(boolean)
+   */
+  public boolean isScrimOverlayEnabled() {
+    return scrimOverlayEnabled;
+  }
+
+  private void updateContentScrimView() {
+    final boolean useScrimView = scrimOverlayEnabled && contentScrim != null;
+    if (useScrimView) {
+      if (contentScrimView == null) {
+        contentScrimView = new ScrimView(getContext());
+        ViewCompat.setImportantForAccessibility(
+            contentScrimView, ViewCompat.IMPORTANT_FOR_ACCESSIBILITY_NO);
+        addView(
+            contentScrimView,
+            new LayoutParams(LayoutParams.MATCH_PARENT, LayoutParams.MATCH_PARENT));
+        setChildrenDrawingOrderEnabled(true);
+      }
+      contentScrim.setAlpha(0xFF);
+      ViewCompat.setBackground(contentScrimView, contentScrim);
+      updateContentScrimViewAlpha();
+    } else if (contentScrimView != null) {
+      ViewCompat.setBackground(contentScrimView, null);
+      removeView(contentScrimView);
+      contentScrimView = null;
+      setChildrenDrawingOrderEnabled(false);
+      if (contentScrim != null) {
+        contentScrim.setBounds(0, 0, getWidth(), getHeight());
+        contentScrim.setCallback(this);
+        contentScrim.setAlpha(scrimAlpha);
+      }
+      ViewCompat.postInvalidateOnAnimation(this);
+    }
+  }
+
+  private void updateContentScrimViewAlpha() {
+    if (contentScrimView != null) {
+      contentScrimView.setAlpha(scrimAlpha / 255f);
+      contentScrimView.setVisibility(scrimAlpha > 0 ? VISIBLE : INVISIBLE);
+    }
+  }
+
+  /**
+   * Sets whether children with {@link LayoutParams#COLLAPSE_MODE_PARALLAX} are moved using their
+   * translation instead of offsetting their position.
+   *
+   * <p>Changing a child's translation only updates its render properties, so the child doesn't
+   * need to be redrawn while the layout collapses. Disabled by default.
+   *
+   * @param enabled whether parallax children should be moved using their translation.
+   * @see #isParallaxTranslationEnabled()
+   */
+  public void setParallaxTranslationEnabled(boolean enabled) {
+    if (parallaxTranslationEnabled != enabled) {
+      parallaxTranslationEnabled = enabled;
+      for (int i = 0, z = getChildCount(); i < z; i++) {
+        final View child = getChildAt(i);
+        final LayoutParams lp = (LayoutParams) child.getLayoutParams();
+        if (child != contentScrimView && lp.collapseMode == LayoutParams.COLLAPSE_MODE_PARALLAX) {
+          // Undo the previous way of moving the child, the next offset update applies the new one
+          child.setTranslationY(0);
+          getViewOffsetHelper(child).setTopAndBottomOffset(0);
+        }
+      }
+      childOffsetsDirty = true;
+      requestLayout();
+    }
+  }
+
+  /**
+   * Returns whether parallax children are moved using their translation.
+   *
+   * @see #setParallaxTranslationEnabled(boolean)
+   */
+  public boolean isParallaxTranslationEnabled() {
+    return parallaxTranslationEnabled;
+  }
+
   int getScrimAlpha() {
     return scrimAlpha;
   }
@@ -670,6 +830,7 @@ public class CollapsingToolbarLayout extends FrameLayout {
         contentScrim.setCallback(this);
         contentScrim.setAlpha(scrimAlpha);
       }
+      updateContentScrimView();
       ViewCompat.postInvalidateOnAnimation(this);
     }
   }
@@ -1257,21 +1418,35 @@ public class CollapsingToolbarLayout extends FrameLayout {
 
       final int insetTop = lastInsets != null ? lastInsets.getSystemWindowInsetTop() : 0;
 
-      for (int i = 0, z = getChildCount(); i < z; i++) {
-        final View child = getChildAt(i);
-        final LayoutParams lp = (LayoutParams) child.getLayoutParams();
-        final ViewOffsetHelper offsetHelper = getViewOffsetHelper(child);
-
-        switch (lp.collapseMode) {
-          case LayoutParams.COLLAPSE_MODE_PIN:
-            offsetHelper.setTopAndBottomOffset(
-                MathUtils.clamp(-verticalOffset, 0, getMaxOffsetForPinChild(child)));
-            break;
-          case LayoutParams.COLLAPSE_MODE_PARALLAX:
-            offsetHelper.setTopAndBottomOffset(Math.round(-verticalOffset * lp.parallaxMult));
-            break;
-          default:
-            break;
+      // The children's offsets only depend on the vertical offset and their layout, so they don't
+      // need to be recalculated if neither has changed since they were last applied
+      if (childOffsetsDirty || verticalOffset != appliedChildOffset) {
+        childOffsetsDirty = false;
+        appliedChildOffset = verticalOffset;
+        for (int i = 0, z = getChildCount(); i < z; i++) {
+          final View child = getChildAt(i);
+          if (child == contentScrimView) {
+            continue;
+          }
+          final LayoutParams lp = (LayoutParams) child.getLayoutParams();
+
+          switch (lp.collapseMode) {
+            case LayoutParams.COLLAPSE_MODE_PIN:
+              getViewOffsetHelper(child)
+                  .setTopAndBottomOffset(
+                      MathUtils.clamp(-verticalOffset, 0, getMaxOffsetForPinChild(child)));
+              break;
+            case LayoutParams.COLLAPSE_MODE_PARALLAX:
+              if (parallaxTranslationEnabled) {
+                child.setTranslationY(-verticalOffset * lp.parallaxMult);
+              } else {
+                getViewOffsetHelper(child)
+                    .setTopAndBottomOffset(Math.round(-verticalOffset * lp.parallaxMult));
+              }
+              break;
+            default:
+              break;
+          }
         }
       }
 
@@ -1288,4 +1463,17 @@ public class CollapsingToolbarLayout extends FrameLayout {
       collapsingTextHelper.setExpansionFraction(Math.abs(verticalOffset) / (float) expandRange);
     }
   }
+
+  /** Hosts the content scrim when it is rendered as an overlay. */
+  private static class ScrimView extends View {
+    ScrimView(Context context) {
+      super(context);
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+      // Never contribute to the size of the layout, the scrim is laid out to cover it in onLayout()
+      setMeasuredDimension(0, 0);
+    }
+  }
 }
@@ -60,6 +60,7 @@ import com.google.android.material.shape.MaterialShapeDrawable;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.ref.WeakReference;
+import java.util.Locale;
 
 /**
  * BadgeDrawable contains all the layout and draw logic for a badge.
@@ -166,6 +167,18 @@ public class BadgeDrawable extends Drawable implements TextDrawableDelegate {
   private float halfBadgeWidth;
   private float halfBadgeHeight;
 
+  // The formatted badge text and the key it was formatted for
+  @Nullable private String badgeText;
+  private int badgeTextNumber;
+  private int badgeTextMaxBadgeNumber;
+  @Nullable private Locale badgeTextLocale;
+  private final Rect textBounds = new Rect();
+
+  // The number of batch updates in progress; nested batches only end with the outermost one
+  private int batchUpdateDepth;
+  private boolean boundsUpdatePending;
+  private boolean invalidatePending;
+
   // Need to keep a local reference in order to support updating badge gravity.
   @Nullable private WeakReference<View> anchorViewRef;
   @Nullable private WeakReference<ViewGroup> customBadgeParentRef;
@@ -387,8 +400,7 @@ public class BadgeDrawable extends Drawable implements TextDrawableDelegate {
       @NonNull View anchorView, @Nullable ViewGroup customBadgeParent) {
     this.anchorViewRef = new WeakReference<>(anchorView);
     this.customBadgeParentRef = new WeakReference<>(customBadgeParent);
-    updateCenterAndBounds();
-    invalidateSelf();
+    updateCenterAndBoundsAndInvalidate();
   }
 
   /**
@@ -475,9 +487,8 @@ public class BadgeDrawable extends Drawable implements TextDrawableDelegate {
     number = Math.max(0, number);
     if (this.savedState.number != number) {
       this.savedState.number = number;
-      textDrawableHelper.setTextWidthDirty(true);
-      updateCenterAndBounds();
-      invalidateSelf();
+      // The text width is only measured again if the displayed text changes
+      updateCenterAndBoundsAndInvalidate();
     }
   }
 
@@ -487,6 +498,50 @@ public class BadgeDrawable extends Drawable implements TextDrawableDelegate {
     invalidateSelf();
   }
 
+  /**
+   * Starts a batch of changes to this badge. Until the matching {@link #endBatchUpdate()} is
+   * called, changes such as {@link #setNumber(int)}, {@link #setMaxCharacterCount(int)} and {@link
+   * #setVisible(boolean)} don't update the badge's bounds or invalidate it. Batches may be nested.
+   *
+   * @see #endBatchUpdate()
+   */
+  public void beginBatchUpdate() {
+    batchUpdateDepth++;
+  }
+
+  /**
+   * Ends a batch of changes started by {@link #beginBatchUpdate()}. When the outermost batch ends,
+   * the badge's bounds are updated and the badge is invalidated once if any of the changes
+   * required it.
+   */
+  public void endBatchUpdate() {
+    if (batchUpdateDepth == 0) {
+      return;
+    }
+    batchUpdateDepth--;
+    if (batchUpdateDepth > 0) {
+      return;
+    }
+
+    if (boundsUpdatePending) {
+      boundsUpdatePending = false;
+      updateCenterAndBounds();
+    }
+    if (invalidatePending) {
+      invalidatePending = false;
+      invalidateSelf();
+    }
+  }
+
+  @Override
+  public void invalidateSelf() {
+    if (batchUpdateDepth > 0) {
+      invalidatePending = true;
+      return;
+    }
+    super.invalidateSelf();
+  }
+
   /**
    * Returns this badge's max character count.
    *
@@ -507,9 +562,7 @@ public class BadgeDrawable extends Drawable implements TextDrawableDelegate {
     if (this.savedState.maxCharacterCount != maxCharacterCount) {
       this.savedState.maxCharacterCount = maxCharacterCount;
       updateMaxBadgeNumber();
-      textDrawableHelper.setTextWidthDirty(true);
-      updateCenterAndBounds();
-      invalidateSelf();
+      updateCenterAndBoundsAndInvalidate();
     }
   }
 
@@ -651,6 +704,16 @@ public class BadgeDrawable extends Drawable implements TextDrawableDelegate {
     updateCenterAndBounds();
   }
 
+  private void updateCenterAndBoundsAndInvalidate() {
+    if (batchUpdateDepth > 0) {
+      boundsUpdatePending = true;
+      invalidatePending = true;
+      return;
+    }
+    updateCenterAndBounds();
+    invalidateSelf();
+  }
+
   private void updateCenterAndBounds() {
     Context context = contextRef.get();
     View anchorView = anchorViewRef != null ? anchorViewRef.get() : null;
@@ -735,7 +798,6 @@ public class BadgeDrawable extends Drawable implements TextDrawableDelegate {
   }
 
   private void drawText(Canvas canvas) {
-    Rect textBounds = new Rect();
     String badgeText = getBadgeText();
     textDrawableHelper.getTextPaint().getTextBounds(badgeText, 0, badgeText.length(), textBounds);
     canvas.drawText(
@@ -745,8 +807,34 @@ public class BadgeDrawable extends Drawable implements TextDrawableDelegate {
         textDrawableHelper.getTextPaint());
   }
 
+  /**
+   * Returns the text displayed by this badge. The text is only formatted again when the displayed
+   * number, the max badge number or the locale changed, and its width is only measured again when
+   * the text itself changed.
+   */
   @NonNull
   private String getBadgeText() {
+    // All numbers above the max badge number are displayed the same way
+    int displayedNumber = getNumber() > maxBadgeNumber ? maxBadgeNumber + 1 : getNumber();
+    Locale locale = Locale.getDefault();
+    if (badgeText == null
+        || badgeTextNumber != displayedNumber
+        || badgeTextMaxBadgeNumber != maxBadgeNumber
+        || !locale.equals(badgeTextLocale)) {
+      String newBadgeText = formatBadgeText();
+      if (!newBadgeText.equals(badgeText)) {
+        textDrawableHelper.setTextWidthDirty(true);
+      }
+      badgeText = newBadgeText;
+      badgeTextNumber = displayedNumber;
+      badgeTextMaxBadgeNumber = maxBadgeNumber;
+      badgeTextLocale = locale;
+    }
+    return badgeText;
+  }
+
+  @NonNull
+  private String formatBadgeText() {
     // If number exceeds max count, show badgeMaxCount+ instead of the number.
     if (getNumber() <= maxBadgeNumber) {
       return Integer.toString(getNumber());
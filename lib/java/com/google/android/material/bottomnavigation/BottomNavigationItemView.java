@@ -20,6 +20,10 @@ import com.google.android.material.R;
 
 import static androidx.annotation.RestrictTo.Scope.LIBRARY_GROUP;
 
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.animation.ValueAnimator;
+import android.animation.ValueAnimator.AnimatorUpdateListener;
 import android.content.Context;
 import android.content.res.ColorStateList;
 import android.content.res.Resources;
@@ -45,6 +49,7 @@ import android.view.accessibility.AccessibilityNodeInfo;
 import android.widget.FrameLayout;
 import android.widget.ImageView;
 import android.widget.TextView;
+import com.google.android.material.animation.AnimationUtils;
 import com.google.android.material.badge.BadgeDrawable;
 import com.google.android.material.badge.BadgeUtils;
 
@@ -54,6 +59,7 @@ public class BottomNavigationItemView extends FrameLayout implements MenuView.It
   public static final int INVALID_ITEM_POSITION = -1;
 
   private static final int[] CHECKED_STATE_SET = {android.R.attr.state_checked};
+  private static final long CHECKED_STATE_ANIMATION_DURATION_MS = 115L;
 
   private final int defaultMargin;
   private float shiftAmount;
@@ -76,6 +82,14 @@ public class BottomNavigationItemView extends FrameLayout implements MenuView.It
 
   @Nullable private BadgeDrawable badgeDrawable;
 
+  private boolean checkedStateAnimationEnabled;
+  private boolean checkedStateApplied;
+  private boolean appliedChecked;
+  @Nullable private ValueAnimator checkedStateAnimator;
+  private final LabelAnimation smallLabelAnimation;
+  private final LabelAnimation largeLabelAnimation;
+  private float iconStartTranslationY;
+
   public BottomNavigationItemView(@NonNull Context context) {
     this(context, null);
   }
@@ -96,6 +110,8 @@ public class BottomNavigationItemView extends FrameLayout implements MenuView.It
     icon = findViewById(R.id.icon);
     smallLabel = findViewById(R.id.smallLabel);
     largeLabel = findViewById(R.id.largeLabel);
+    smallLabelAnimation = new LabelAnimation(smallLabel);
+    largeLabelAnimation = new LabelAnimation(largeLabel);
     // The labels used aren't always visible, so they are unreliable for accessibility. Instead,
     // the content description of the BottomNavigationItemView should be used for accessibility.
     ViewCompat.setImportantForAccessibility(smallLabel, ViewCompat.IMPORTANT_FOR_ACCESSIBILITY_NO);
@@ -129,9 +145,20 @@ public class BottomNavigationItemView extends FrameLayout implements MenuView.It
 
   @Override
   public void initialize(@NonNull MenuItemImpl itemData, int menuType) {
+    boolean sameItem = this.itemData == itemData;
+    if (!sameItem) {
+      // Only animates changes to the checked state of the same item
+      checkedStateApplied = false;
+    }
     this.itemData = itemData;
     setCheckable(itemData.isCheckable());
-    setChecked(itemData.isChecked());
+    // Lets a running checked state animation of this item finish instead of ending it early
+    if (!sameItem
+        || checkedStateAnimator == null
+        || !checkedStateAnimator.isRunning()
+        || itemData.isChecked() != appliedChecked) {
+      setChecked(itemData.isChecked());
+    }
     setEnabled(itemData.isEnabled());
     setIcon(itemData.getIcon());
     setTitle(itemData.getTitle());
@@ -201,8 +228,34 @@ public class BottomNavigationItemView extends FrameLayout implements MenuView.It
     refreshDrawableState();
   }
 
+  /**
+   * Sets whether changes to the checked state are animated by this item view's own property
+   * animator, rather than by a transition started on the parent.
+   */
+  void setCheckedStateAnimationEnabled(boolean enabled) {
+    checkedStateAnimationEnabled = enabled;
+  }
+
   @Override
   public void setChecked(boolean checked) {
+    if (checkedStateAnimator != null && checkedStateAnimator.isRunning()) {
+      checkedStateAnimator.end();
+    }
+    boolean animate =
+        checkedStateAnimationEnabled
+            && checkedStateApplied
+            && checked != appliedChecked
+            && ViewCompat.isAttachedToWindow(this)
+            && ViewCompat.isLaidOut(this);
+    int iconStartTop = 0;
+    if (animate) {
+      smallLabelAnimation.captureStart();
+      largeLabelAnimation.captureStart();
+      iconStartTop = calculateIconTop();
+    }
+    appliedChecked = checked;
+    checkedStateApplied = true;
+
     largeLabel.setPivotX(largeLabel.getWidth() / 2);
     largeLabel.setPivotY(largeLabel.getBaseline());
     smallLabel.setPivotX(smallLabel.getWidth() / 2);
@@ -272,6 +325,60 @@ public class BottomNavigationItemView extends FrameLayout implements MenuView.It
     // Set the item as selected to send an AccessibilityEvent.TYPE_VIEW_SELECTED from View, so that
     // the item is read out as selected.
     setSelected(checked);
+
+    if (animate) {
+      iconStartTranslationY = iconStartTop - calculateIconTop();
+      smallLabelAnimation.captureEnd();
+      largeLabelAnimation.captureEnd();
+      startCheckedStateAnimation();
+    }
+  }
+
+  /**
+   * Returns the top of the icon once laid out with its current layout params, which is how the
+   * parent {@link FrameLayout} positions it.
+   */
+  private int calculateIconTop() {
+    LayoutParams params = (LayoutParams) icon.getLayoutParams();
+    if ((params.gravity & Gravity.VERTICAL_GRAVITY_MASK) == Gravity.CENTER_VERTICAL) {
+      int parentHeight = getHeight() - getPaddingTop() - getPaddingBottom();
+      return getPaddingTop()
+          + (parentHeight - icon.getHeight()) / 2
+          + params.topMargin
+          - params.bottomMargin;
+    }
+    return getPaddingTop() + params.topMargin;
+  }
+
+  private void startCheckedStateAnimation() {
+    if (checkedStateAnimator == null) {
+      checkedStateAnimator = ValueAnimator.ofFloat(0f, 1f);
+      checkedStateAnimator.setDuration(CHECKED_STATE_ANIMATION_DURATION_MS);
+      checkedStateAnimator.setInterpolator(AnimationUtils.FAST_OUT_SLOW_IN_INTERPOLATOR);
+      checkedStateAnimator.addUpdateListener(
+          new AnimatorUpdateListener() {
+            @Override
+            public void onAnimationUpdate(@NonNull ValueAnimator animation) {
+              float fraction = (float) animation.getAnimatedValue();
+              smallLabelAnimation.update(fraction);
+              largeLabelAnimation.update(fraction);
+              icon.setTranslationY(iconStartTranslationY * (1f - fraction));
+            }
+          });
+      checkedStateAnimator.addListener(
+          new AnimatorListenerAdapter() {
+            @Override
+            public void onAnimationEnd(Animator animation) {
+              smallLabelAnimation.end();
+              largeLabelAnimation.end();
+              icon.setTranslationY(0f);
+            }
+          });
+    }
+    smallLabelAnimation.update(0f);
+    largeLabelAnimation.update(0f);
+    icon.setTranslationY(iconStartTranslationY);
+    checkedStateAnimator.start();
   }
 
   @Override
@@ -473,4 +580,57 @@ public class BottomNavigationItemView extends FrameLayout implements MenuView.It
     // TODO(b/138148581): Support displaying a badge on label-only bottom navigation views.
     return null;
   }
+
+  /**
+   * Animates the scale and the visibility of a label from the values it had before a call to
+   * {@link #setChecked(boolean)} to the values set by that call.
+   */
+  private static final class LabelAnimation {
+    private final View label;
+    private float startScale;
+    private float startAlpha;
+    private float endScale;
+    private float endAlpha;
+    private int endVisibility;
+    private boolean running;
+
+    LabelAnimation(@NonNull View label) {
+      this.label = label;
+    }
+
+    void captureStart() {
+      startScale = label.getScaleX();
+      startAlpha = label.getVisibility() == VISIBLE ? label.getAlpha() : 0f;
+    }
+
+    void captureEnd() {
+      endScale = label.getScaleX();
+      endVisibility = label.getVisibility();
+      endAlpha = endVisibility == VISIBLE ? 1f : 0f;
+      // Labels that are removed from the layout are not animated
+      running = endVisibility != GONE && (startScale != endScale || startAlpha != endAlpha);
+      if (running) {
+        label.setVisibility(VISIBLE);
+      }
+    }
+
+    void update(float fraction) {
+      if (running) {
+        float scale = startScale + (endScale - startScale) * fraction;
+        label.setScaleX(scale);
+        label.setScaleY(scale);
+        label.setAlpha(startAlpha + (endAlpha - startAlpha) * fraction);
+      }
+    }
+
+    void end() {
+      if (running) {
+        running = false;
+        label.setScaleX(endScale);
+        label.setScaleY(endScale);
+        label.setAlpha(1f);
+        label.setVisibility(endVisibility);
+      }
+    }
+  }
 }
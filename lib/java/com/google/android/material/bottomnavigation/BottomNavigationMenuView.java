@@ -37,6 +37,7 @@ import androidx.appcompat.view.menu.MenuItemImpl;
 import androidx.appcompat.view.menu.MenuView;
 import android.util.AttributeSet;
 import android.util.SparseArray;
+import android.util.SparseIntArray;
 import android.util.TypedValue;
 import android.view.Menu;
 import android.view.MenuItem;
@@ -70,6 +71,7 @@ public class BottomNavigationMenuView extends ViewGroup implements MenuView {
       new Pools.SynchronizedPool<>(ITEM_POOL_SIZE);
 
   private boolean itemHorizontalTranslationEnabled;
+  private boolean selectionAnimatorsEnabled;
   @LabelVisibilityMode private int labelVisibilityMode;
 
   @Nullable private BottomNavigationItemView[] buttons;
@@ -86,6 +88,7 @@ public class BottomNavigationMenuView extends ViewGroup implements MenuView {
   private int itemBackgroundRes;
   private int[] tempChildWidths;
   @NonNull private SparseArray<BadgeDrawable> badgeDrawables = new SparseArray<>(ITEM_POOL_SIZE);
+  private int badgeBatchUpdateDepth;
 
   private BottomNavigationPresenter presenter;
   private MenuBuilder menu;
@@ -467,6 +470,31 @@ public class BottomNavigationMenuView extends ViewGroup implements MenuView {
     return itemHorizontalTranslationEnabled;
   }
 
+  /**
+   * Sets whether selection changes are animated by a property animator owned by each item view,
+   * instead of a transition that captures and compares the state of every item view.
+   *
+   * @param selectionAnimatorsEnabled whether the item views animate their own selection changes
+   * @see #isSelectionAnimatorsEnabled()
+   */
+  public void setSelectionAnimatorsEnabled(boolean selectionAnimatorsEnabled) {
+    this.selectionAnimatorsEnabled = selectionAnimatorsEnabled;
+    if (buttons != null) {
+      for (BottomNavigationItemView button : buttons) {
+        button.setCheckedStateAnimationEnabled(selectionAnimatorsEnabled);
+      }
+    }
+  }
+
+  /**
+   * Returns whether selection changes are animated by a property animator owned by each item view.
+   *
+   * @see #setSelectionAnimatorsEnabled(boolean)
+   */
+  public boolean isSelectionAnimatorsEnabled() {
+    return selectionAnimatorsEnabled;
+  }
+
   @Nullable
   public ColorStateList createDefaultColorStateList(int baseColorThemeAttr) {
     final TypedValue value = new TypedValue();
@@ -493,6 +521,14 @@ public class BottomNavigationMenuView extends ViewGroup implements MenuView {
   }
 
   public void buildMenuView() {
+    if (buttons != null && menu.size() != 0) {
+      // The existing item views already have this menu view's styling, so they are kept and only
+      // re-initialized with their new menu items.
+      updateItemViews(menu.size());
+      updateMenuView();
+      return;
+    }
+
     removeAllViews();
     if (buttons != null) {
       for (BottomNavigationItemView item : buttons) {
@@ -519,23 +555,9 @@ public class BottomNavigationMenuView extends ViewGroup implements MenuView {
       presenter.setUpdateSuspended(false);
       BottomNavigationItemView child = getNewItem();
       buttons[i] = child;
-      child.setIconTintList(itemIconTint);
-      child.setIconSize(itemIconSize);
-      // Set the text color the default, then look for another text color in order of precedence.
-      child.setTextColor(itemTextColorDefault);
-      child.setTextAppearanceInactive(itemTextAppearanceInactive);
-      child.setTextAppearanceActive(itemTextAppearanceActive);
-      child.setTextColor(itemTextColorFromUser);
-      if (itemBackground != null) {
-        child.setItemBackground(itemBackground);
-      } else {
-        child.setItemBackground(itemBackgroundRes);
-      }
-      child.setShifting(shifting);
-      child.setLabelVisibilityMode(labelVisibilityMode);
+      setUpItemView(child, shifting);
       child.initialize((MenuItemImpl) menu.getItem(i), 0);
       child.setItemPosition(i);
-      child.setOnClickListener(onClickListener);
       if (selectedItemId != Menu.NONE && menu.getItem(i).getItemId() == selectedItemId) {
         selectedItemPosition = i;
       }
@@ -546,17 +568,84 @@ public class BottomNavigationMenuView extends ViewGroup implements MenuView {
     menu.getItem(selectedItemPosition).setChecked(true);
   }
 
+  /**
+   * Matches the item views to the menu after its items changed. The existing item views are kept
+   * for the positions that still exist, so only the added item views are set up from scratch and
+   * only the removed ones are released. {@link #updateMenuView()} then initializes every item view
+   * with its menu item.
+   */
+  private void updateItemViews(int menuSize) {
+    BottomNavigationItemView[] oldButtons = buttons;
+    int reusedCount = Math.min(oldButtons.length, menuSize);
+    buttons = new BottomNavigationItemView[menuSize];
+    System.arraycopy(oldButtons, 0, buttons, 0, reusedCount);
+
+    for (int i = reusedCount; i < oldButtons.length; i++) {
+      BottomNavigationItemView item = oldButtons[i];
+      removeView(item);
+      item.removeBadge();
+      itemPool.release(item);
+    }
+    removeUnusedBadges();
+
+    boolean shifting = isShifting(labelVisibilityMode, menu.getVisibleItems().size());
+    presenter.setUpdateSuspended(true);
+    for (int i = 0; i < menuSize; i++) {
+      menu.getItem(i).setCheckable(true);
+      if (i >= reusedCount) {
+        BottomNavigationItemView child = getNewItem();
+        buttons[i] = child;
+        setUpItemView(child, shifting);
+        child.setItemPosition(i);
+        addView(child);
+      }
+    }
+
+    // Keeps the selected item checked, or checks the closest one if it was removed
+    int selectedPosition = Math.min(menuSize - 1, selectedItemPosition);
+    for (int i = 0; i < menuSize; i++) {
+      if (selectedItemId != Menu.NONE && menu.getItem(i).getItemId() == selectedItemId) {
+        selectedPosition = i;
+      }
+    }
+    menu.getItem(selectedPosition).setChecked(true);
+    presenter.setUpdateSuspended(false);
+  }
+
+  /** Applies the item styling of this menu view to a new or recycled item view. */
+  private void setUpItemView(@NonNull BottomNavigationItemView child, boolean shifting) {
+    child.setIconTintList(itemIconTint);
+    child.setIconSize(itemIconSize);
+    // Set the text color the default, then look for another text color in order of precedence.
+    child.setTextColor(itemTextColorDefault);
+    child.setTextAppearanceInactive(itemTextAppearanceInactive);
+    child.setTextAppearanceActive(itemTextAppearanceActive);
+    child.setTextColor(itemTextColorFromUser);
+    if (itemBackground != null) {
+      child.setItemBackground(itemBackground);
+    } else {
+      child.setItemBackground(itemBackgroundRes);
+    }
+    child.setShifting(shifting);
+    child.setLabelVisibilityMode(labelVisibilityMode);
+    child.setCheckedStateAnimationEnabled(selectionAnimatorsEnabled);
+    child.setOnClickListener(onClickListener);
+  }
+
   public void updateMenuView() {
     if (menu == null || buttons == null) {
       return;
     }
 
     final int menuSize = menu.size();
-    if (menuSize != buttons.length) {
-      // The size has changed. Rebuild menu view from scratch.
+    if (menuSize == 0) {
       buildMenuView();
       return;
     }
+    if (menuSize != buttons.length) {
+      // The size has changed. Add or remove item views, then update them all below.
+      updateItemViews(menuSize);
+    }
 
     int previousSelectedId = selectedItemId;
 
@@ -567,7 +656,7 @@ public class BottomNavigationMenuView extends ViewGroup implements MenuView {
         selectedItemPosition = i;
       }
     }
-    if (previousSelectedId != selectedItemId) {
+    if (previousSelectedId != selectedItemId && !selectionAnimatorsEnabled) {
       // Note: this has to be called before BottomNavigationItemView#initialize().
       TransitionManager.beginDelayedTransition(this, set);
     }
@@ -575,9 +664,16 @@ public class BottomNavigationMenuView extends ViewGroup implements MenuView {
     boolean shifting = isShifting(labelVisibilityMode, menu.getVisibleItems().size());
     for (int i = 0; i < menuSize; i++) {
       presenter.setUpdateSuspended(true);
-      buttons[i].setLabelVisibilityMode(labelVisibilityMode);
-      buttons[i].setShifting(shifting);
-      buttons[i].initialize((MenuItemImpl) menu.getItem(i), 0);
+      BottomNavigationItemView button = buttons[i];
+      int previousId = button.getId();
+      button.setLabelVisibilityMode(labelVisibilityMode);
+      button.setShifting(shifting);
+      button.initialize((MenuItemImpl) menu.getItem(i), 0);
+      if (button.getId() != previousId) {
+        // The item view now shows another menu item, so it shows that item's badge instead
+        button.removeBadge();
+        setBadgeIfNeeded(button);
+      }
       presenter.setUpdateSuspended(false);
     }
   }
@@ -639,15 +735,63 @@ public class BottomNavigationMenuView extends ViewGroup implements MenuView {
     // Create an instance of BadgeDrawable if none were already initialized for this menu item.
     if (badgeDrawable == null) {
       badgeDrawable = BadgeDrawable.create(getContext());
+      if (badgeBatchUpdateDepth > 0) {
+        badgeDrawable.beginBatchUpdate();
+      }
       badgeDrawables.put(menuItemId, badgeDrawable);
     }
     BottomNavigationItemView itemView = findItemView(menuItemId);
-    if (itemView != null) {
+    // Only attach the badge once, attaching it again would update its bounds again
+    if (itemView != null && itemView.getBadge() != badgeDrawable) {
       itemView.setBadge(badgeDrawable);
     }
     return badgeDrawable;
   }
 
+  /**
+   * Starts a batch of changes to the badges of this menu. Until the matching {@link
+   * #endBadgeBatchUpdate()}, every badge, including the ones created by {@link
+   * #getOrCreateBadge(int)}, defers updating its bounds and invalidating.
+   */
+  void beginBadgeBatchUpdate() {
+    if (badgeBatchUpdateDepth++ > 0) {
+      return;
+    }
+    for (int i = 0; i < badgeDrawables.size(); i++) {
+      badgeDrawables.valueAt(i).beginBatchUpdate();
+    }
+  }
+
+  /**
+   * Ends a batch of changes started by {@link #beginBadgeBatchUpdate()}. When the outermost batch
+   * ends, each changed badge updates its bounds and invalidates its item view once.
+   */
+  void endBadgeBatchUpdate() {
+    if (badgeBatchUpdateDepth == 0) {
+      return;
+    }
+    badgeBatchUpdateDepth--;
+    if (badgeBatchUpdateDepth > 0) {
+      return;
+    }
+    for (int i = 0; i < badgeDrawables.size(); i++) {
+      badgeDrawables.valueAt(i).endBatchUpdate();
+    }
+  }
+
+  /**
+   * Sets the numbers of many badges in one batch, creating the badges if needed.
+   *
+   * @param badgeNumbers The badge numbers, keyed by menu item id.
+   */
+  void setBadgeNumbers(@NonNull SparseIntArray badgeNumbers) {
+    beginBadgeBatchUpdate();
+    for (int i = 0; i < badgeNumbers.size(); i++) {
+      getOrCreateBadge(badgeNumbers.keyAt(i)).setNumber(badgeNumbers.valueAt(i));
+    }
+    endBadgeBatchUpdate();
+  }
+
   void removeBadge(int menuItemId) {
     validateMenuItemId(menuItemId);
     BadgeDrawable badgeDrawable = badgeDrawables.get(menuItemId);
@@ -656,6 +800,10 @@ public class BottomNavigationMenuView extends ViewGroup implements MenuView {
       itemView.removeBadge();
     }
     if (badgeDrawable != null) {
+      if (badgeBatchUpdateDepth > 0) {
+        // The badge leaves the batch, so it must not stay suspended
+        badgeDrawable.endBatchUpdate();
+      }
       badgeDrawables.remove(menuItemId);
     }
   }
@@ -683,6 +831,9 @@ public class BottomNavigationMenuView extends ViewGroup implements MenuView {
     for (int i = 0; i < badgeDrawables.size(); i++) {
       int key = badgeDrawables.keyAt(i);
       if (!activeKeys.contains(key)) {
+        if (badgeBatchUpdateDepth > 0) {
+          badgeDrawables.valueAt(i).endBatchUpdate();
+        }
         badgeDrawables.delete(key);
       }
     }
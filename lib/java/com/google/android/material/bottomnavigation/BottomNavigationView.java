@@ -48,6 +48,7 @@ import androidx.appcompat.view.SupportMenuInflater;
 import androidx.appcompat.view.menu.MenuBuilder;
 import androidx.appcompat.widget.TintTypedArray;
 import android.util.AttributeSet;
+import android.util.SparseIntArray;
 import android.view.Gravity;
 import android.view.Menu;
 import android.view.MenuInflater;
@@ -648,6 +649,29 @@ public class BottomNavigationView extends FrameLayout {
     return menuView.isItemHorizontalTranslationEnabled();
   }
 
+  /**
+   * Sets whether selection changes are animated by lightweight property animators owned by each
+   * menu item, instead of a transition that captures and compares the state of every menu item.
+   *
+   * <p>The animators move the icon and fade and scale the labels of the items whose checked state
+   * changed. In shifting mode, the item widths change without animation.
+   *
+   * @param selectionAnimatorsEnabled whether menu items animate their own selection changes
+   * @see #isSelectionAnimatorsEnabled()
+   */
+  public void setSelectionAnimatorsEnabled(boolean selectionAnimatorsEnabled) {
+    menuView.setSelectionAnimatorsEnabled(selectionAnimatorsEnabled);
+  }
+
+  /**
+   * Returns whether selection changes are animated by property animators owned by each menu item.
+   *
+   * @see #setSelectionAnimatorsEnabled(boolean)
+   */
+  public boolean isSelectionAnimatorsEnabled() {
+    return menuView.isSelectionAnimatorsEnabled();
+  }
+
   /**
    * Returns an instance of {@link BadgeDrawable} associated with {@code menuItemId}, null if none
    * was initialized.
@@ -673,6 +697,36 @@ public class BottomNavigationView extends FrameLayout {
     return menuView.getOrCreateBadge(menuItemId);
   }
 
+  /**
+   * Starts a batch of changes to the {@link BadgeDrawable}s of this view. Until the matching {@link
+   * #endBadgeBatchUpdate()} is called, changes to any badge, such as its number, max character
+   * count or visibility, don't update its bounds or invalidate it. Batches may be nested.
+   *
+   * @see #getOrCreateBadge(int)
+   */
+  public void beginBadgeBatchUpdate() {
+    menuView.beginBadgeBatchUpdate();
+  }
+
+  /**
+   * Ends a batch of changes started by {@link #beginBadgeBatchUpdate()}. When the outermost batch
+   * ends, every changed badge updates its bounds and invalidates once.
+   */
+  public void endBadgeBatchUpdate() {
+    menuView.endBadgeBatchUpdate();
+  }
+
+  /**
+   * Sets the numbers of the {@link BadgeDrawable}s of many menu items in one batch, creating the
+   * badges if none exist.
+   *
+   * @param badgeNumbers The badge numbers to set, keyed by menu item id.
+   * @see #beginBadgeBatchUpdate()
+   */
+  public void setBadgeNumbers(@NonNull SparseIntArray badgeNumbers) {
+    menuView.setBadgeNumbers(badgeNumbers);
+  }
+
   /**
    * Removes the {@link BadgeDrawable} associated with {@code menuItemId}. Do nothing if none
    * exists. Consider changing the visibility of the {@link BadgeDrawable} if you only want to hide
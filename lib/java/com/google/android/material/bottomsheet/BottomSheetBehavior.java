@@ -52,8 +52,11 @@ import android.view.ViewConfiguration;
 import android.view.ViewGroup;
 import android.view.ViewParent;
 import android.view.WindowInsets;
+import android.view.animation.AnimationUtils;
 import androidx.coordinatorlayout.widget.CoordinatorLayout;
 import androidx.coordinatorlayout.widget.CoordinatorLayout.LayoutParams;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.viewpager2.widget.ViewPager2;
 import com.google.android.material.resources.MaterialResources;
 import com.google.android.material.shape.MaterialShapeDrawable;
 import com.google.android.material.shape.ShapeAppearanceModel;
@@ -196,6 +199,19 @@ public class BottomSheetBehavior<V extends View> extends CoordinatorLayout.Behav
 
   private static final int CORNER_ANIMATION_DURATION = 500;
 
+  // Spring used when settling with spring physics, critically damped so the sheet doesn't bounce.
+  private static final float SPRING_STIFFNESS = 800f;
+
+  private static final float SPRING_DAMPING = 2f * (float) Math.sqrt(SPRING_STIFFNESS);
+
+  private static final float SPRING_STEP_SECONDS = 0.004f;
+
+  private static final long SPRING_MAX_FRAME_MILLIS = 50;
+
+  private static final float SPRING_POSITION_THRESHOLD = 0.5f;
+
+  private static final float SPRING_VELOCITY_THRESHOLD = 20f;
+
   private boolean fitToContents = true;
 
   private float maximumVelocity;
@@ -258,8 +274,49 @@ public class BottomSheetBehavior<V extends View> extends CoordinatorLayout.Behav
 
   @Nullable WeakReference<View> nestedScrollingChildRef;
 
+  // Whether the nested scrolling child has to be looked up in the sheet again on the next layout.
+  private boolean nestedScrollingChildDirty = true;
+
+  // Whether the nested scrolling child was designated explicitly instead of found in the sheet.
+  private boolean nestedScrollingChildExplicit;
+
+  @Nullable private ViewPager2 nestedScrollingViewPager;
+
+  @Nullable private ViewPager2.OnPageChangeCallback nestedScrollingPageChangeCallback;
+
+  private final View.OnAttachStateChangeListener nestedScrollingChildAttachListener =
+      new View.OnAttachStateChangeListener() {
+        @Override
+        public void onViewAttachedToWindow(View view) {}
+
+        @Override
+        public void onViewDetachedFromWindow(View view) {
+          // The scrolling child was removed from the sheet, look for a new one on the next layout
+          view.removeOnAttachStateChangeListener(this);
+          nestedScrollingChildDirty = true;
+        }
+      };
+
   private BottomSheetCallback callback;
 
+  private boolean slideCoalescingEnabled;
+
+  private boolean springSettlingEnabled;
+
+  @Nullable private SpringSettleRunnable springSettleRunnable;
+
+  private boolean slidePending;
+
+  private int pendingSlideTop;
+
+  private final Runnable dispatchPendingSlideRunnable =
+      new Runnable() {
+        @Override
+        public void run() {
+          dispatchPendingSlide();
+        }
+      };
+
   @Nullable private VelocityTracker velocityTracker;
 
   int activePointerId;
@@ -341,14 +398,17 @@ public class BottomSheetBehavior<V extends View> extends CoordinatorLayout.Behav
     // first time we layout with this behavior by checking (viewRef == null).
     viewRef = null;
     viewDragHelper = null;
+    nestedScrollingChildDirty = true;
   }
 
   @Override
   public void onDetachedFromLayoutParams() {
     super.onDetachedFromLayoutParams();
     // Release references so we don't run unnecessary codepaths while not attached to a view.
+    slidePending = false;
     viewRef = null;
     viewDragHelper = null;
+    nestedScrollingChildDirty = true;
   }
 
   @Override
@@ -389,6 +449,8 @@ public class BottomSheetBehavior<V extends View> extends CoordinatorLayout.Behav
     }
 
     int savedTop = child.getTop();
+    // Read before the sheet is laid out, which clears it
+    boolean sheetLayoutRequested = child.isLayoutRequested();
     // First let the parent lay it out
     parent.onLayoutChild(child, layoutDirection);
     // Offset the bottom sheet
@@ -410,10 +472,142 @@ public class BottomSheetBehavior<V extends View> extends CoordinatorLayout.Behav
       ViewCompat.offsetTopAndBottom(child, savedTop - child.getTop());
     }
 
-    nestedScrollingChildRef = new WeakReference<>(findScrollingChild(child));
+    if (!nestedScrollingChildExplicit) {
+      updateNestedScrollingChild(child, sheetLayoutRequested);
+    }
     return true;
   }
 
+  /**
+   * Finds the nested scrolling child of the sheet. The previous result, including not having found
+   * one, is kept without walking the sheet's hierarchy until something in the sheet requests a
+   * layout, which views do when they are added or removed, or the scrolling child is detached or
+   * stops being a nested scrolling enabled descendant of the sheet.
+   */
+  private void updateNestedScrollingChild(@NonNull View sheet, boolean sheetLayoutRequested) {
+    View current = nestedScrollingChildRef != null ? nestedScrollingChildRef.get() : null;
+    if (!sheetLayoutRequested
+        && !nestedScrollingChildDirty
+        && nestedScrollingChildRef != null
+        && (current == null || isNestedScrollingDescendant(sheet, current))) {
+      return;
+    }
+    nestedScrollingChildDirty = false;
+    setNestedScrollingChildInternal(findScrollingChild(sheet));
+  }
+
+  private void setNestedScrollingChildInternal(@Nullable View scrollingChild) {
+    View current = nestedScrollingChildRef != null ? nestedScrollingChildRef.get() : null;
+    if (nestedScrollingChildRef != null && current == scrollingChild) {
+      return;
+    }
+    if (current != null) {
+      current.removeOnAttachStateChangeListener(nestedScrollingChildAttachListener);
+    }
+    nestedScrollingChildRef = new WeakReference<>(scrollingChild);
+    if (scrollingChild != null && !nestedScrollingChildExplicit) {
+      scrollingChild.addOnAttachStateChangeListener(nestedScrollingChildAttachListener);
+    }
+  }
+
+  private static boolean isNestedScrollingDescendant(@NonNull View sheet, @NonNull View view) {
+    if (!ViewCompat.isNestedScrollingEnabled(view)) {
+      return false;
+    }
+    View current = view;
+    while (current != sheet) {
+      ViewParent parent = current.getParent();
+      if (!(parent instanceof View)) {
+        return false;
+      }
+      current = (View) parent;
+    }
+    return true;
+  }
+
+  /**
+   * Sets the view that the sheet coordinates nested scrolling with.
+   *
+   * <p>By default the first nested scrolling enabled view found in the sheet's hierarchy is used,
+   * and it is looked for again whenever something in the sheet requests a layout. Setting the
+   * nested scrolling child explicitly avoids that lookup, and allows a specific view to be chosen
+   * when the sheet contains several nested scrolling views. Pass {@code null} to go back to finding
+   * the nested scrolling child automatically.
+   *
+   * @param nestedScrollingChild the view to coordinate nested scrolling with, or {@code null}.
+   * @see #setNestedScrollingViewPager(ViewPager2)
+   */
+  public void setNestedScrollingChild(@Nullable View nestedScrollingChild) {
+    unregisterNestedScrollingViewPager();
+    nestedScrollingChildExplicit = nestedScrollingChild != null;
+    nestedScrollingChildDirty = nestedScrollingChild == null;
+    setNestedScrollingChildInternal(nestedScrollingChild);
+  }
+
+  /**
+   * Makes the sheet coordinate nested scrolling with the current page of the given {@link
+   * ViewPager2}.
+   *
+   * <p>The first nested scrolling enabled view of the current page is used, and it is updated
+   * whenever a new page is selected. Pass {@code null} to go back to finding the nested scrolling
+   * child automatically.
+   *
+   * @param viewPager the {@link ViewPager2} whose current page contains the nested scrolling child,
+   *     or {@code null}.
+   * @see #setNestedScrollingChild(View)
+   */
+  public void setNestedScrollingViewPager(@Nullable ViewPager2 viewPager) {
+    unregisterNestedScrollingViewPager();
+    if (viewPager == null) {
+      setNestedScrollingChild(null);
+      return;
+    }
+    nestedScrollingViewPager = viewPager;
+    nestedScrollingChildExplicit = true;
+    if (nestedScrollingPageChangeCallback == null) {
+      nestedScrollingPageChangeCallback =
+          new ViewPager2.OnPageChangeCallback() {
+            @Override
+            public void onPageSelected(int position) {
+              updateNestedScrollingChildFromViewPager();
+            }
+
+            @Override
+            public void onPageScrollStateChanged(int state) {
+              if (state == ViewPager2.SCROLL_STATE_IDLE) {
+                // The selected page may not have been laid out yet when it was selected
+                updateNestedScrollingChildFromViewPager();
+              }
+            }
+          };
+    }
+    viewPager.registerOnPageChangeCallback(nestedScrollingPageChangeCallback);
+    updateNestedScrollingChildFromViewPager();
+  }
+
+  private void unregisterNestedScrollingViewPager() {
+    if (nestedScrollingViewPager != null && nestedScrollingPageChangeCallback != null) {
+      nestedScrollingViewPager.unregisterOnPageChangeCallback(nestedScrollingPageChangeCallback);
+    }
+    nestedScrollingViewPager = null;
+  }
+
+  private void updateNestedScrollingChildFromViewPager() {
+    if (nestedScrollingViewPager == null) {
+      return;
+    }
+    View page = null;
+    // ViewPager2 hosts its pages in a RecyclerView
+    View pages = nestedScrollingViewPager.getChildAt(0);
+    if (pages instanceof RecyclerView) {
+      RecyclerView.LayoutManager layoutManager = ((RecyclerView) pages).getLayoutManager();
+      if (layoutManager != null) {
+        page = layoutManager.findViewByPosition(nestedScrollingViewPager.getCurrentItem());
+      }
+    }
+    setNestedScrollingChildInternal(page != null ? findScrollingChild(page) : null);
+  }
+
   @Override
   public boolean onInterceptTouchEvent(
       @NonNull CoordinatorLayout parent, @NonNull V child, @NonNull MotionEvent event) {
@@ -636,7 +830,7 @@ public class BottomSheetBehavior<V extends View> extends CoordinatorLayout.Behav
         }
       }
     }
-    startSettlingAnimation(child, targetState, top, false);
+    startSettlingAnimation(child, targetState, top, false, getYVelocity());
     nestedScrolled = false;
   }
 
@@ -897,6 +1091,59 @@ public class BottomSheetBehavior<V extends View> extends CoordinatorLayout.Behav
     return callback;
   }
 
+  /**
+   * Sets whether {@link BottomSheetCallback#onSlide(View, float)} calls should be coalesced to at
+   * most one per animation frame.
+   *
+   * <p>By default, {@code onSlide} is called for every drag event and every settling step, which
+   * can happen several times per frame on high-rate touch screens. When coalescing is enabled,
+   * only the latest slide offset is dispatched, once on the next animation frame. State changes
+   * are still delivered immediately and in order; any pending slide offset is dispatched right
+   * before {@link BottomSheetCallback#onStateChanged(View, int)}.
+   *
+   * @param enabled whether slide offsets should be coalesced to one dispatch per frame.
+   * @see #isSlideCoalescingEnabled()
+   */
+  public void setSlideCoalescingEnabled(boolean enabled) {
+    this.slideCoalescingEnabled = enabled;
+    if (!enabled) {
+      dispatchPendingSlide();
+    }
+  }
+
+  /**
+   * Returns whether slide offsets are coalesced to one dispatch per animation frame.
+   *
+   * @see #setSlideCoalescingEnabled(boolean)
+   */
+  public boolean isSlideCoalescingEnabled() {
+    return slideCoalescingEnabled;
+  }
+
+  /**
+   * Sets whether the sheet should settle using spring physics instead of a {@link ViewDragHelper}
+   * scroll.
+   *
+   * <p>A spring settle starts from the current fling velocity, and when the target state changes
+   * mid-flight (e.g. from half expanded to expanded) the running spring is re-targeted while
+   * keeping its current position and velocity, instead of being restarted.
+   *
+   * @param enabled whether to settle using spring physics.
+   * @see #isSpringSettlingEnabled()
+   */
+  public void setSpringSettlingEnabled(boolean enabled) {
+    this.springSettlingEnabled = enabled;
+  }
+
+  /**
+   * Returns whether the sheet settles using spring physics.
+   *
+   * @see #setSpringSettlingEnabled(boolean)
+   */
+  public boolean isSpringSettlingEnabled() {
+    return springSettlingEnabled;
+  }
+
   /**
    * Sets the state of the bottom sheet. The bottom sheet will transition to that state with
    * animation.
@@ -979,6 +1226,11 @@ public class BottomSheetBehavior<V extends View> extends CoordinatorLayout.Behav
     }
     this.state = state;
 
+    if (state != STATE_SETTLING && springSettleRunnable != null) {
+      // The next spring settle has to start from wherever the sheet is now, e.g. after a drag
+      springSettleRunnable.cancel();
+    }
+
     if (viewRef == null) {
       return;
     }
@@ -995,6 +1247,8 @@ public class BottomSheetBehavior<V extends View> extends CoordinatorLayout.Behav
     }
 
     updateDrawableForTargetState(state);
+    // Deliver the latest slide offset before the state change, so callbacks see them in order
+    dispatchPendingSlide();
     if (callback != null) {
       callback.onStateChanged(bottomSheet, state);
     }
@@ -1186,6 +1440,21 @@ public class BottomSheetBehavior<V extends View> extends CoordinatorLayout.Behav
   }
 
   void startSettlingAnimation(View child, int state, int top, boolean settleFromViewDragHelper) {
+    startSettlingAnimation(child, state, top, settleFromViewDragHelper, Float.NaN);
+  }
+
+  /**
+   * Starts settling the sheet to {@code top}.
+   *
+   * @param velocity the vertical velocity the sheet was released with in pixels per second, or
+   *     {@link Float#NaN} if unknown. Only used when settling with spring physics.
+   */
+  private void startSettlingAnimation(
+      View child, int state, int top, boolean settleFromViewDragHelper, float velocity) {
+    if (springSettlingEnabled) {
+      startSpringSettlingAnimation(child, state, top, velocity);
+      return;
+    }
     boolean startedSettling = settleFromViewDragHelper
         ? viewDragHelper.settleCapturedViewAt(child.getLeft(), top)
         : viewDragHelper.smoothSlideViewTo(child, child.getLeft(), top);
@@ -1199,6 +1468,22 @@ public class BottomSheetBehavior<V extends View> extends CoordinatorLayout.Behav
     }
   }
 
+  private void startSpringSettlingAnimation(View child, @State int state, int top, float velocity) {
+    if (springSettleRunnable == null) {
+      springSettleRunnable = new SpringSettleRunnable();
+    }
+    if (!springSettleRunnable.isRunning()
+        && child.getTop() == top
+        && (Float.isNaN(velocity) || velocity == 0)) {
+      setStateInternal(state);
+      return;
+    }
+    setStateInternal(STATE_SETTLING);
+    // STATE_SETTLING won't animate the material shape, so do that here with the target state.
+    updateDrawableForTargetState(state);
+    springSettleRunnable.animateTo(child, state, top, velocity);
+  }
+
   private final ViewDragHelper.Callback dragCallback =
       new ViewDragHelper.Callback() {
 
@@ -1308,7 +1593,7 @@ public class BottomSheetBehavior<V extends View> extends CoordinatorLayout.Behav
               }
             }
           }
-          startSettlingAnimation(releasedChild, targetState, top, true);
+          startSettlingAnimation(releasedChild, targetState, top, true, yvel);
         }
 
         @Override
@@ -1333,7 +1618,30 @@ public class BottomSheetBehavior<V extends View> extends CoordinatorLayout.Behav
       };
 
   void dispatchOnSlide(int top) {
-    View bottomSheet = viewRef.get();
+    if (slideCoalescingEnabled) {
+      View bottomSheet = viewRef != null ? viewRef.get() : null;
+      if (bottomSheet != null && callback != null) {
+        // The latest offset wins, only schedule a dispatch for the first one in this frame
+        pendingSlideTop = top;
+        if (!slidePending) {
+          slidePending = true;
+          ViewCompat.postOnAnimation(bottomSheet, dispatchPendingSlideRunnable);
+        }
+      }
+      return;
+    }
+    dispatchOnSlideInternal(top);
+  }
+
+  private void dispatchPendingSlide() {
+    if (slidePending) {
+      slidePending = false;
+      dispatchOnSlideInternal(pendingSlideTop);
+    }
+  }
+
+  private void dispatchOnSlideInternal(int top) {
+    View bottomSheet = viewRef != null ? viewRef.get() : null;
     if (bottomSheet != null && callback != null) {
       if (top > collapsedOffset) {
         callback.onSlide(
@@ -1387,6 +1695,106 @@ public class BottomSheetBehavior<V extends View> extends CoordinatorLayout.Behav
     }
   }
 
+  /**
+   * Settles the sheet with a critically damped spring, stepped once per animation frame. A single
+   * instance is re-used, and re-targeted if the target changes while it is running.
+   */
+  private class SpringSettleRunnable implements Runnable {
+
+    @Nullable private View view;
+
+    @State private int targetState;
+
+    private int targetTop;
+
+    private float position;
+
+    private float velocity;
+
+    private long lastFrameTimeMillis;
+
+    private boolean running;
+
+    boolean isRunning() {
+      return running;
+    }
+
+    void animateTo(@NonNull View view, @State int targetState, int targetTop, float velocity) {
+      this.targetState = targetState;
+      this.targetTop = targetTop;
+      if (running && this.view == view) {
+        // Keep the current position, and the current velocity unless the sheet was just released
+        if (!Float.isNaN(velocity)) {
+          this.velocity = velocity;
+        }
+        return;
+      }
+      this.view = view;
+      this.velocity = Float.isNaN(velocity) ? 0f : velocity;
+      position = view.getTop();
+      lastFrameTimeMillis = AnimationUtils.currentAnimationTimeMillis();
+      running = true;
+      ViewCompat.postOnAnimation(view, this);
+    }
+
+    void cancel() {
+      if (running && view != null) {
+        view.removeCallbacks(this);
+      }
+      running = false;
+      velocity = 0f;
+    }
+
+    @Override
+    public void run() {
+      if (!running || view == null) {
+        return;
+      }
+      if (state != STATE_SETTLING || viewRef == null || viewRef.get() != view) {
+        // Interrupted, e.g. the sheet is being dragged again or was detached
+        running = false;
+        return;
+      }
+
+      long now = AnimationUtils.currentAnimationTimeMillis();
+      float remaining = Math.min(now - lastFrameTimeMillis, SPRING_MAX_FRAME_MILLIS) / 1000f;
+      lastFrameTimeMillis = now;
+      while (remaining > 0) {
+        float dt = Math.min(remaining, SPRING_STEP_SECONDS);
+        float acceleration =
+            -SPRING_STIFFNESS * (position - targetTop) - SPRING_DAMPING * velocity;
+        velocity += acceleration * dt;
+        position += velocity * dt;
+        remaining -= dt;
+      }
+
+      // The sheet can never move above its expanded offset or below the parent
+      float clamped = MathUtils.clamp(position, getExpandedOffset(), parentHeight);
+      if (clamped != position) {
+        position = clamped;
+        velocity = 0f;
+      }
+
+      boolean settled =
+          Math.abs(position - targetTop) < SPRING_POSITION_THRESHOLD
+              && Math.abs(velocity) < SPRING_VELOCITY_THRESHOLD;
+      int newTop = settled ? targetTop : Math.round(position);
+      int dy = newTop - view.getTop();
+      if (dy != 0) {
+        ViewCompat.offsetTopAndBottom(view, dy);
+        dispatchOnSlide(newTop);
+      }
+
+      if (settled) {
+        running = false;
+        velocity = 0f;
+        setStateInternal(targetState);
+      } else {
+        ViewCompat.postOnAnimation(view, this);
+      }
+    }
+  }
+
   /** State persisted across instances */
   protected static class SavedState extends AbsSavedState {
     @State final int state;
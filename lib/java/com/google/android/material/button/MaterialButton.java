@@ -212,12 +212,13 @@ public class MaterialButton extends AppCompatButton implements Checkable, Shapea
     iconGravity = attributes.getInteger(R.styleable.MaterialButton_iconGravity, ICON_GRAVITY_START);
 
     iconSize = attributes.getDimensionPixelSize(R.styleable.MaterialButton_iconSize, 0);
-    ShapeAppearanceModel shapeAppearanceModel =
-        ShapeAppearanceModel.builder(context, attrs, defStyleAttr, DEF_STYLE_RES).build();
 
-    // Loads and sets background drawable attributes
-    materialButtonHelper = new MaterialButtonHelper(this, shapeAppearanceModel);
-    materialButtonHelper.loadFromAttributes(attributes);
+    // Loads and sets background drawable attributes, parsed once for the buttons of a style
+    MaterialButtonBackgroundState backgroundState =
+        MaterialButtonBackgroundState.obtain(
+            context, attrs, defStyleAttr, DEF_STYLE_RES, attributes);
+    materialButtonHelper = new MaterialButtonHelper(this, backgroundState);
+    materialButtonHelper.loadFromBackgroundState(backgroundState);
 
     attributes.recycle();
 
@@ -0,0 +1,210 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.button;
+
+import com.google.android.material.R;
+
+import android.content.Context;
+import android.content.res.ColorStateList;
+import android.content.res.Configuration;
+import android.content.res.Resources.Theme;
+import android.content.res.TypedArray;
+import android.graphics.PorterDuff.Mode;
+import android.util.AttributeSet;
+import android.util.LruCache;
+import android.util.TypedValue;
+import androidx.annotation.AttrRes;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.StyleRes;
+import com.google.android.material.internal.ViewUtils;
+import com.google.android.material.resources.MaterialResources;
+import com.google.android.material.shape.ShapeAppearanceModel;
+import java.util.Arrays;
+
+/**
+ * The background attributes of a {@link MaterialButton} style: its insets, colors, stroke and
+ * shape, as parsed from the button's attributes.
+ *
+ * <p>Instances are immutable, so buttons with the same resolved attributes, theme and
+ * configuration share one, and only the first of them parses the colors and the shape appearance.
+ * The drawables built from it, and the changes made to a button once it's created, belong to the
+ * button's {@link MaterialButtonHelper}.
+ */
+final class MaterialButtonBackgroundState {
+
+  private static final int CACHE_SIZE = 16;
+  private static final LruCache<Key, MaterialButtonBackgroundState> cache =
+      new LruCache<>(CACHE_SIZE);
+
+  final int insetLeft;
+  final int insetRight;
+  final int insetTop;
+  final int insetBottom;
+  final boolean cornerRadiusSet;
+  final int cornerRadius;
+  final int strokeWidth;
+  final int elevation;
+  final boolean checkable;
+
+  @Nullable final Mode backgroundTintMode;
+  @Nullable final ColorStateList backgroundTint;
+  @Nullable final ColorStateList strokeColor;
+  @Nullable final ColorStateList rippleColor;
+  @NonNull final ShapeAppearanceModel shapeAppearanceModel;
+
+  /**
+   * Returns the background state for a button with the given attributes, parsing them only if no
+   * button with the same resolved attributes, theme and configuration was created recently.
+   */
+  @NonNull
+  static MaterialButtonBackgroundState obtain(
+      @NonNull Context context,
+      @Nullable AttributeSet attrs,
+      @AttrRes int defStyleAttr,
+      @StyleRes int defStyleRes,
+      @NonNull TypedArray attributes) {
+    // The shape appearance overlay isn't a MaterialButton attribute, so resolve it separately
+    TypedArray shapeAttributes =
+        context.obtainStyledAttributes(attrs, R.styleable.MaterialShape, defStyleAttr, defStyleRes);
+    Key key = new Key(context, attributes, shapeAttributes);
+    shapeAttributes.recycle();
+    MaterialButtonBackgroundState state = cache.get(key);
+    if (state == null) {
+      state =
+          new MaterialButtonBackgroundState(
+              context, attrs, defStyleAttr, defStyleRes, attributes);
+      // The configuration may change in place, so the cached key keeps a copy of it.
+      cache.put(new Key(key.theme, new Configuration(key.configuration), key.values), state);
+    }
+    return state;
+  }
+
+  private MaterialButtonBackgroundState(
+      @NonNull Context context,
+      @Nullable AttributeSet attrs,
+      @AttrRes int defStyleAttr,
+      @StyleRes int defStyleRes,
+      @NonNull TypedArray attributes) {
+    insetLeft = attributes.getDimensionPixelOffset(R.styleable.MaterialButton_android_insetLeft, 0);
+    insetRight =
+        attributes.getDimensionPixelOffset(R.styleable.MaterialButton_android_insetRight, 0);
+    insetTop = attributes.getDimensionPixelOffset(R.styleable.MaterialButton_android_insetTop, 0);
+    insetBottom =
+        attributes.getDimensionPixelOffset(R.styleable.MaterialButton_android_insetBottom, 0);
+
+    ShapeAppearanceModel shapeAppearanceModel =
+        ShapeAppearanceModel.builder(context, attrs, defStyleAttr, defStyleRes).build();
+    // cornerRadius should override whatever corner radius is set in shapeAppearanceModel
+    cornerRadiusSet = attributes.hasValue(R.styleable.MaterialButton_cornerRadius);
+    if (cornerRadiusSet) {
+      cornerRadius = attributes.getDimensionPixelSize(R.styleable.MaterialButton_cornerRadius, -1);
+      shapeAppearanceModel = shapeAppearanceModel.withCornerRadius(cornerRadius);
+    } else {
+      cornerRadius = 0;
+    }
+    this.shapeAppearanceModel = shapeAppearanceModel;
+
+    strokeWidth = attributes.getDimensionPixelSize(R.styleable.MaterialButton_strokeWidth, 0);
+
+    backgroundTintMode =
+        ViewUtils.parseTintMode(
+            attributes.getInt(R.styleable.MaterialButton_backgroundTintMode, -1), Mode.SRC_IN);
+    backgroundTint =
+        MaterialResources.getColorStateList(
+            context, attributes, R.styleable.MaterialButton_backgroundTint);
+    strokeColor =
+        MaterialResources.getColorStateList(
+            context, attributes, R.styleable.MaterialButton_strokeColor);
+    rippleColor =
+        MaterialResources.getColorStateList(
+            context, attributes, R.styleable.MaterialButton_rippleColor);
+
+    checkable = attributes.getBoolean(R.styleable.MaterialButton_android_checkable, false);
+    elevation = attributes.getDimensionPixelSize(R.styleable.MaterialButton_elevation, 0);
+  }
+
+  /**
+   * Identifies the buttons that can share a background state. Colors may refer to theme
+   * attributes, and the shape appearance style to configuration dependent resources, so the
+   * resolved attribute values aren't enough on their own.
+   */
+  private static final class Key {
+    @NonNull private final Theme theme;
+    @NonNull private final Configuration configuration;
+    @NonNull private final int[] values;
+    private final int hashCode;
+
+    Key(
+        @NonNull Context context,
+        @NonNull TypedArray attributes,
+        @NonNull TypedArray shapeAttributes) {
+      this(
+          context.getTheme(),
+          context.getResources().getConfiguration(),
+          getAttributeValues(attributes, shapeAttributes));
+    }
+
+    Key(@NonNull Theme theme, @NonNull Configuration configuration, @NonNull int[] values) {
+      this.theme = theme;
+      this.configuration = configuration;
+      this.values = values;
+      hashCode = 31 * (31 * theme.hashCode() + configuration.hashCode()) + Arrays.hashCode(values);
+    }
+
+    @NonNull
+    private static int[] getAttributeValues(
+        @NonNull TypedArray attributes, @NonNull TypedArray shapeAttributes) {
+      int[] values = new int[(attributes.length() + shapeAttributes.length()) * 3];
+      putAttributeValues(attributes, values, 0);
+      putAttributeValues(shapeAttributes, values, attributes.length() * 3);
+      return values;
+    }
+
+    private static void putAttributeValues(
+        @NonNull TypedArray attributes, @NonNull int[] values, int offset) {
+      for (int i = 0; i < attributes.length(); i++) {
+        TypedValue value = attributes.peekValue(i);
+        if (value != null) {
+          values[offset + i * 3] = value.type;
+          values[offset + i * 3 + 1] = value.data;
+          values[offset + i * 3 + 2] = value.resourceId;
+        }
+      }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) o;
+      return hashCode == other.hashCode
+          && Arrays.equals(values, other.values)
+          && theme.equals(other.theme)
+          && configuration.equals(other.configuration);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+}
@@ -22,7 +22,6 @@ import static androidx.annotation.RestrictTo.Scope.LIBRARY_GROUP;
 
 import android.content.Context;
 import android.content.res.ColorStateList;
-import android.content.res.TypedArray;
 import android.graphics.Color;
 import android.graphics.PorterDuff.Mode;
 import android.graphics.drawable.Drawable;
@@ -38,7 +37,6 @@ import androidx.core.graphics.drawable.DrawableCompat;
 import androidx.core.view.ViewCompat;
 import com.google.android.material.color.MaterialColors;
 import com.google.android.material.internal.ViewUtils;
-import com.google.android.material.resources.MaterialResources;
 import com.google.android.material.ripple.RippleDrawableCompat;
 import com.google.android.material.ripple.RippleUtils;
 import com.google.android.material.shape.MaterialShapeDrawable;
@@ -72,43 +70,32 @@ class MaterialButtonHelper {
   private boolean checkable;
   private LayerDrawable rippleDrawable;
 
-  MaterialButtonHelper(MaterialButton button, @NonNull ShapeAppearanceModel shapeAppearanceModel) {
+  MaterialButtonHelper(
+      MaterialButton button, @NonNull MaterialButtonBackgroundState backgroundState) {
     materialButton = button;
-    this.shapeAppearanceModel = shapeAppearanceModel;
+    this.shapeAppearanceModel = backgroundState.shapeAppearanceModel;
   }
 
-  void loadFromAttributes(@NonNull TypedArray attributes) {
-    insetLeft = attributes.getDimensionPixelOffset(R.styleable.MaterialButton_android_insetLeft, 0);
-    insetRight =
-        attributes.getDimensionPixelOffset(R.styleable.MaterialButton_android_insetRight, 0);
-    insetTop = attributes.getDimensionPixelOffset(R.styleable.MaterialButton_android_insetTop, 0);
-    insetBottom =
-        attributes.getDimensionPixelOffset(R.styleable.MaterialButton_android_insetBottom, 0);
-
-    // cornerRadius should override whatever corner radius is set in shapeAppearanceModel
-    if (attributes.hasValue(R.styleable.MaterialButton_cornerRadius)) {
-      cornerRadius = attributes.getDimensionPixelSize(R.styleable.MaterialButton_cornerRadius, -1);
-      setShapeAppearanceModel(shapeAppearanceModel.withCornerRadius(cornerRadius));
-      cornerRadiusSet = true;
-    }
-
-    strokeWidth = attributes.getDimensionPixelSize(R.styleable.MaterialButton_strokeWidth, 0);
-
-    backgroundTintMode =
-        ViewUtils.parseTintMode(
-            attributes.getInt(R.styleable.MaterialButton_backgroundTintMode, -1), Mode.SRC_IN);
-    backgroundTint =
-        MaterialResources.getColorStateList(
-            materialButton.getContext(), attributes, R.styleable.MaterialButton_backgroundTint);
-    strokeColor =
-        MaterialResources.getColorStateList(
-            materialButton.getContext(), attributes, R.styleable.MaterialButton_strokeColor);
-    rippleColor =
-        MaterialResources.getColorStateList(
-            materialButton.getContext(), attributes, R.styleable.MaterialButton_rippleColor);
-
-    checkable = attributes.getBoolean(R.styleable.MaterialButton_android_checkable, false);
-    int elevation = attributes.getDimensionPixelSize(R.styleable.MaterialButton_elevation, 0);
+  /**
+   * Copies the attributes of the button's style and creates its background. The state is shared
+   * with the other buttons of the same style, so changes to this button are only made to the
+   * helper's copies.
+   */
+  void loadFromBackgroundState(@NonNull MaterialButtonBackgroundState backgroundState) {
+    insetLeft = backgroundState.insetLeft;
+    insetRight = backgroundState.insetRight;
+    insetTop = backgroundState.insetTop;
+    insetBottom = backgroundState.insetBottom;
+    cornerRadius = backgroundState.cornerRadius;
+    cornerRadiusSet = backgroundState.cornerRadiusSet;
+    shapeAppearanceModel = backgroundState.shapeAppearanceModel;
+    strokeWidth = backgroundState.strokeWidth;
+    backgroundTintMode = backgroundState.backgroundTintMode;
+    backgroundTint = backgroundState.backgroundTint;
+    strokeColor = backgroundState.strokeColor;
+    rippleColor = backgroundState.rippleColor;
+    checkable = backgroundState.checkable;
+    int elevation = backgroundState.elevation;
 
     // Store padding before setting background, since background overwrites padding values
     int paddingStart = ViewCompat.getPaddingStart(materialButton);
@@ -22,6 +22,7 @@ import android.content.Context;
 import android.content.res.TypedArray;
 import androidx.annotation.BoolRes;
 import androidx.annotation.IdRes;
+import androidx.annotation.IntDef;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.core.view.MarginLayoutParamsCompat;
@@ -29,6 +30,8 @@ import androidx.core.view.ViewCompat;
 import android.text.TextUtils.TruncateAt;
 import android.util.AttributeSet;
 import android.util.Log;
+import android.util.SparseArray;
+import android.util.SparseBooleanArray;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.RelativeLayout;
@@ -36,6 +39,8 @@ import com.google.android.material.button.MaterialButton.OnPressedChangeListener
 import com.google.android.material.internal.ThemeEnforcement;
 import com.google.android.material.internal.ViewUtils;
 import com.google.android.material.shape.ShapeAppearanceModel;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
 import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -120,15 +125,55 @@ public class MaterialButtonToggleGroup extends RelativeLayout {
     void onButtonChecked(MaterialButtonToggleGroup group, @IdRes int checkedId, boolean isChecked);
   }
 
+  /**
+   * Interface definition for a callback to be invoked once the set of checked {@link
+   * MaterialButton}s in this group has changed, including after a batch of buttons was checked or
+   * unchecked at once.
+   */
+  public interface OnCheckedStateChangeListener {
+    /**
+     * Called when the set of checked {@link MaterialButton}s in this group has changed.
+     *
+     * @param group The group in which the checked state has changed
+     */
+    void onCheckedStateChanged(@NonNull MaterialButtonToggleGroup group);
+  }
+
   private static final String LOG_TAG = MaterialButtonToggleGroup.class.getSimpleName();
 
+  /** The original corners a child keeps, depending on its position in the group. */
+  @IntDef({
+    KEPT_CORNERS_UNSET,
+    KEPT_CORNERS_ALL,
+    KEPT_CORNERS_LEFT,
+    KEPT_CORNERS_RIGHT,
+    KEPT_CORNERS_NONE
+  })
+  @Retention(RetentionPolicy.SOURCE)
+  private @interface KeptCorners {}
+
+  private static final int KEPT_CORNERS_UNSET = -1;
+  private static final int KEPT_CORNERS_ALL = 0;
+  private static final int KEPT_CORNERS_LEFT = 1;
+  private static final int KEPT_CORNERS_RIGHT = 2;
+  private static final int KEPT_CORNERS_NONE = 3;
+  private static final int KEPT_CORNERS_COUNT = 4;
+
   private final ArrayList<MaterialButton> childrenInOrder = new ArrayList<>();
-  private final ArrayList<CornerData> originalCornerData = new ArrayList<>();
+  // The shape state of each child, in the same order as childrenInOrder
+  private final ArrayList<ChildShape> childShapes = new ArrayList<>();
 
   private final CheckedStateTracker checkedStateTracker = new CheckedStateTracker();
   private final PressedStateTracker pressedStateTracker = new PressedStateTracker();
   private final LinkedHashSet<OnButtonCheckedListener> onButtonCheckedListeners =
       new LinkedHashSet<>();
+  private final LinkedHashSet<OnCheckedStateChangeListener> onCheckedStateChangeListeners =
+      new LinkedHashSet<>();
+
+  // Buttons by id and the ids of the checked buttons, kept up to date by the CheckedStateTracker.
+  // Ids assigned to buttons after they were added are picked up by reindexButtons().
+  private final SparseArray<MaterialButton> buttonsById = new SparseArray<>();
+  private final SparseBooleanArray checkedIds = new SparseBooleanArray();
 
   private boolean skipCheckedStateTracker = false;
   private boolean singleSelection;
@@ -192,36 +237,52 @@ public class MaterialButtonToggleGroup extends RelativeLayout {
 
     // Sets sensible default values and an internal checked change listener for this child
     setupButtonChild(buttonChild);
+    buttonsById.put(buttonChild.getId(), buttonChild);
 
     // Reorders children if a checked child was added to this layout
     if (buttonChild.isChecked()) {
+      checkedIds.put(buttonChild.getId(), true);
       updateCheckedStates(buttonChild.getId(), true);
       setCheckedId(buttonChild.getId());
+      dispatchOnCheckedStateChanged();
     }
 
-    // Saves original corner data
+    // Saves the original shape, sharing the shapes derived from it with the previous child when
+    // they have the same original shape, like buttons of the same style do
     ShapeAppearanceModel shapeAppearanceModel = buttonChild.getShapeAppearanceModel();
-    originalCornerData.add(
-        new CornerData(
-            shapeAppearanceModel.getTopLeftCorner().getCornerSize(),
-            shapeAppearanceModel.getTopRightCorner().getCornerSize(),
-            shapeAppearanceModel.getBottomRightCorner().getCornerSize(),
-            shapeAppearanceModel.getBottomLeftCorner().getCornerSize()));
+    SharedShapes sharedShapes = null;
+    if (indexToAdd > 0) {
+      SharedShapes previousShapes = childShapes.get(indexToAdd - 1).sharedShapes;
+      if (previousShapes.original == shapeAppearanceModel) {
+        sharedShapes = previousShapes;
+      }
+    }
+    childShapes.add(
+        indexToAdd,
+        new ChildShape(
+            sharedShapes != null ? sharedShapes : new SharedShapes(shapeAppearanceModel)));
   }
 
   @Override
   public void onViewRemoved(View child) {
     super.onViewRemoved(child);
 
-    if (child instanceof MaterialButton) {
-      ((MaterialButton) child).removeOnCheckedChangeListener(checkedStateTracker);
-      ((MaterialButton) child).setOnPressedChangeListenerInternal(null);
-    }
-
     int indexOfChild = childrenInOrder.indexOf(child);
     if (indexOfChild >= 0) {
       childrenInOrder.remove(child);
-      originalCornerData.remove(indexOfChild);
+      childShapes.remove(indexOfChild);
+    }
+
+    if (child instanceof MaterialButton) {
+      ((MaterialButton) child).removeOnCheckedChangeListener(checkedStateTracker);
+      ((MaterialButton) child).setOnPressedChangeListenerInternal(null);
+      if (buttonsById.get(child.getId()) == child) {
+        buttonsById.remove(child.getId());
+        checkedIds.delete(child.getId());
+      } else {
+        // The button's id changed since it was indexed
+        reindexButtons();
+      }
     }
 
     updateChildShapes();
@@ -276,6 +337,66 @@ public class MaterialButtonToggleGroup extends RelativeLayout {
     updateCheckedStates(id, false);
     this.checkedId = View.NO_ID;
     dispatchOnButtonChecked(id, false);
+    dispatchOnCheckedStateChanged();
+  }
+
+  /**
+   * Sets the {@link MaterialButton}s whose ids are passed in to the checked state, and notifies
+   * the {@link OnCheckedStateChangeListener}s once for the whole batch. If this
+   * MaterialButtonToggleGroup is in {@link #isSingleSelection() single selection mode}, only the
+   * last id is checked.
+   *
+   * @param ids View IDs of the {@link MaterialButton}s to set checked
+   * @see #uncheckButtons(int...)
+   * @see #check(int)
+   */
+  public void checkButtons(@NonNull int... ids) {
+    if (singleSelection) {
+      if (ids.length > 0) {
+        check(ids[ids.length - 1]);
+      }
+      return;
+    }
+
+    boolean changed = false;
+    for (int id : ids) {
+      // Finding the button first makes sure that the checked ids are up to date for its id
+      if (findButtonById(id) != null && !checkedIds.get(id) && setCheckedStateForView(id, true)) {
+        dispatchOnButtonChecked(id, true);
+        changed = true;
+      }
+    }
+
+    if (changed) {
+      bringCheckedButtonsToFront();
+      dispatchOnCheckedStateChanged();
+    }
+  }
+
+  /**
+   * Sets the {@link MaterialButton}s whose ids are passed in to the unchecked state, and notifies
+   * the {@link OnCheckedStateChangeListener}s once for the whole batch.
+   *
+   * @param ids View IDs of the {@link MaterialButton}s to set unchecked
+   * @see #checkButtons(int...)
+   * @see #uncheck(int)
+   */
+  public void uncheckButtons(@NonNull int... ids) {
+    boolean changed = false;
+    for (int id : ids) {
+      if (findButtonById(id) != null && checkedIds.get(id) && setCheckedStateForView(id, false)) {
+        if (id == checkedId) {
+          checkedId = View.NO_ID;
+        }
+        dispatchOnButtonChecked(id, false);
+        changed = true;
+      }
+    }
+
+    if (changed) {
+      bringCheckedButtonsToFront();
+      dispatchOnCheckedStateChanged();
+    }
   }
 
   /**
@@ -288,16 +409,17 @@ public class MaterialButtonToggleGroup extends RelativeLayout {
    * @see #getCheckedButtonId()
    */
   public void clearChecked() {
-    skipCheckedStateTracker = true;
-    for (int i = 0; i < getChildCount(); i++) {
-      MaterialButton child = childrenInOrder.get(i);
-      child.setChecked(false);
+    validateCheckedIds();
+    // Iterates backwards, since unchecking a button removes it from the checked ids
+    for (int i = checkedIds.size() - 1; i >= 0; i--) {
+      int id = checkedIds.keyAt(i);
+      setCheckedStateForView(id, false);
 
-      dispatchOnButtonChecked(child.getId(), false);
+      dispatchOnButtonChecked(id, false);
     }
-    skipCheckedStateTracker = false;
 
     setCheckedId(View.NO_ID);
+    dispatchOnCheckedStateChanged();
   }
 
   /**
@@ -333,15 +455,29 @@ public class MaterialButtonToggleGroup extends RelativeLayout {
    */
   @NonNull
   public List<Integer> getCheckedButtonIds() {
-    ArrayList<Integer> checkedIds = new ArrayList<>();
-    for (int i = 0; i < getChildCount(); i++) {
-      MaterialButton child = childrenInOrder.get(i);
-      if (child.isChecked()) {
-        checkedIds.add(child.getId());
+    validateCheckedIds();
+    int checkedCount = checkedIds.size();
+    ArrayList<Integer> orderedCheckedIds = new ArrayList<>(checkedCount);
+    // Keeps the visual order of the buttons, and stops once all checked buttons are found
+    for (int i = 0; i < childrenInOrder.size() && orderedCheckedIds.size() < checkedCount; i++) {
+      int id = childrenInOrder.get(i).getId();
+      if (checkedIds.get(id)) {
+        orderedCheckedIds.add(id);
       }
     }
 
-    return checkedIds;
+    return orderedCheckedIds;
+  }
+
+  /**
+   * Returns the number of selected {@link MaterialButton}s in this group, without building the
+   * list returned by {@link #getCheckedButtonIds()}.
+   *
+   * @see #getCheckedButtonIds()
+   */
+  public int getCheckedButtonCount() {
+    validateCheckedIds();
+    return checkedIds.size();
   }
 
   /**
@@ -372,6 +508,26 @@ public class MaterialButtonToggleGroup extends RelativeLayout {
     onButtonCheckedListeners.clear();
   }
 
+  /**
+   * Add a listener that will be invoked once the set of checked {@link MaterialButton}s in this
+   * group changes. See {@link OnCheckedStateChangeListener}.
+   *
+   * @param listener listener to add
+   */
+  public void addOnCheckedStateChangeListener(@NonNull OnCheckedStateChangeListener listener) {
+    onCheckedStateChangeListeners.add(listener);
+  }
+
+  /**
+   * Remove a listener that was previously added via {@link
+   * #addOnCheckedStateChangeListener(OnCheckedStateChangeListener)}.
+   *
+   * @param listener listener to remove
+   */
+  public void removeOnCheckedStateChangeListener(@NonNull OnCheckedStateChangeListener listener) {
+    onCheckedStateChangeListeners.remove(listener);
+  }
+
   /**
    * Returns whether this group only allows a single button to be checked.
    *
@@ -410,12 +566,67 @@ public class MaterialButtonToggleGroup extends RelativeLayout {
     setSingleSelection(getResources().getBoolean(id));
   }
 
-  private void setCheckedStateForView(@IdRes int viewId, boolean checked) {
-    View checkedView = findViewById(viewId);
-    if (checkedView instanceof MaterialButton) {
-      skipCheckedStateTracker = true;
-      ((MaterialButton) checkedView).setChecked(checked);
-      skipCheckedStateTracker = false;
+  /**
+   * Sets the checked state of the child with the given id without notifying the {@link
+   * CheckedStateTracker}, and returns whether the child's checked state matches {@code checked}.
+   */
+  private boolean setCheckedStateForView(@IdRes int viewId, boolean checked) {
+    MaterialButton button = findButtonById(viewId);
+    if (button == null) {
+      return false;
+    }
+
+    skipCheckedStateTracker = true;
+    button.setChecked(checked);
+    skipCheckedStateTracker = false;
+
+    updateCheckedIds(viewId, button.isChecked());
+    return button.isChecked() == checked;
+  }
+
+  /**
+   * Returns the child button with the given id. If the id isn't found, or now belongs to another
+   * button, ids were assigned or changed after the buttons were added, so they are indexed again.
+   */
+  @Nullable
+  private MaterialButton findButtonById(@IdRes int viewId) {
+    MaterialButton button = buttonsById.get(viewId);
+    if (button == null || button.getId() != viewId) {
+      reindexButtons();
+      button = buttonsById.get(viewId);
+    }
+    return button;
+  }
+
+  /** Indexes the buttons again if the id of any checked button changed since it was indexed. */
+  private void validateCheckedIds() {
+    for (int i = 0; i < checkedIds.size(); i++) {
+      int id = checkedIds.keyAt(i);
+      MaterialButton button = buttonsById.get(id);
+      if (button == null || button.getId() != id) {
+        reindexButtons();
+        return;
+      }
+    }
+  }
+
+  private void reindexButtons() {
+    buttonsById.clear();
+    checkedIds.clear();
+    for (int i = 0; i < childrenInOrder.size(); i++) {
+      MaterialButton button = childrenInOrder.get(i);
+      buttonsById.put(button.getId(), button);
+      if (button.isChecked()) {
+        checkedIds.put(button.getId(), true);
+      }
+    }
+  }
+
+  private void updateCheckedIds(@IdRes int viewId, boolean checked) {
+    if (checked) {
+      checkedIds.put(viewId, true);
+    } else {
+      checkedIds.delete(viewId);
     }
   }
 
@@ -469,46 +680,52 @@ public class MaterialButtonToggleGroup extends RelativeLayout {
     }
   }
 
-  /** Sets all corner radii to 0 except for leftmost and rightmost corners. */
+  /**
+   * Sets all corner radii to 0 except for leftmost and rightmost corners. Only the children whose
+   * kept corners changed since the last update, or whose shape was changed from outside the group,
+   * get a new shape.
+   */
   private void updateChildShapes() {
     int numChildren = getChildCount();
-    if (numChildren >= 1) {
-      for (int i = 0; i < numChildren; i++) {
-        MaterialButton button = childrenInOrder.get(i);
-        if (button.getShapeAppearanceModel() != null) {
-          ShapeAppearanceModel.Builder shapeAppearanceModelBuilder =
-              button.getShapeAppearanceModel().toBuilder();
-          CornerData cornerData = originalCornerData.get(i);
-          if (numChildren == 1) {
-            // If there is only one child, sets its original corners
-            shapeAppearanceModelBuilder
-                .setTopLeftCornerSize(cornerData.topLeft)
-                .setTopRightCornerSize(cornerData.topRight)
-                .setBottomRightCornerSize(cornerData.bottomRight)
-                .setBottomLeftCornerSize(cornerData.bottomLeft);
-          } else {
-            if (i == (ViewUtils.isLayoutRtl(this) ? (numChildren - 1) : 0)) {
-              // Keeps the left corners of the first child in LTR, or the last child in RTL
-              shapeAppearanceModelBuilder
-                  .setTopLeftCornerSize(cornerData.topLeft)
-                  .setTopRightCornerSize(0)
-                  .setBottomRightCornerSize(0)
-                  .setBottomLeftCornerSize(cornerData.bottomLeft);
-            } else if (i != 0 && i < numChildren - 1) {
-              // Sets corner radii of all middle children to 0
-              shapeAppearanceModelBuilder.setCornerRadius(0);
-            } else if (i == (ViewUtils.isLayoutRtl(this) ? 0 : (numChildren - 1))) {
-              // Keeps the right corners of the last child in LTR, or the first child in RTL
-              shapeAppearanceModelBuilder
-                  .setTopLeftCornerSize(0)
-                  .setTopRightCornerSize(cornerData.topRight)
-                  .setBottomRightCornerSize(cornerData.bottomRight)
-                  .setBottomLeftCornerSize(0);
-            }
-          }
-          button.setShapeAppearanceModel(shapeAppearanceModelBuilder.build());
+    boolean isRtl = ViewUtils.isLayoutRtl(this);
+    for (int i = 0; i < numChildren; i++) {
+      MaterialButton button = childrenInOrder.get(i);
+      ChildShape childShape = childShapes.get(i);
+      ShapeAppearanceModel shapeAppearanceModel = button.getShapeAppearanceModel();
+      if (shapeAppearanceModel == null) {
+        continue;
+      }
+
+      @KeptCorners int keptCorners;
+      if (numChildren == 1) {
+        // If there is only one child, keeps its original corners
+        keptCorners = KEPT_CORNERS_ALL;
+      } else if (i == (isRtl ? (numChildren - 1) : 0)) {
+        // Keeps the left corners of the first child in LTR, or the last child in RTL
+        keptCorners = KEPT_CORNERS_LEFT;
+      } else if (i == (isRtl ? 0 : (numChildren - 1))) {
+        // Keeps the right corners of the last child in LTR, or the first child in RTL
+        keptCorners = KEPT_CORNERS_RIGHT;
+      } else {
+        // Sets corner radii of all middle children to 0
+        keptCorners = KEPT_CORNERS_NONE;
+      }
+
+      if (shapeAppearanceModel != childShape.appliedShape) {
+        if (childShape.appliedShape != null) {
+          // The shape was changed from outside the group: keeps its new treatments, with the
+          // original corner sizes, and stops sharing shapes with the other children.
+          ShapeAppearanceModel original =
+              childShape.sharedShapes.withOriginalCornerSizes(shapeAppearanceModel);
+          childShape.sharedShapes = new SharedShapes(original);
         }
+      } else if (keptCorners == childShape.keptCorners) {
+        continue;
       }
+
+      childShape.keptCorners = keptCorners;
+      childShape.appliedShape = childShape.sharedShapes.getShape(keptCorners);
+      button.setShapeAppearanceModel(childShape.appliedShape);
     }
   }
 
@@ -522,18 +739,40 @@ public class MaterialButtonToggleGroup extends RelativeLayout {
    * @param childIsChecked Whether the child is checked
    */
   private void updateCheckedStates(int childId, boolean childIsChecked) {
-    for (int i = 0; i < getChildCount(); i++) {
-      MaterialButton button = childrenInOrder.get(i);
-      if (button.isChecked()) {
-        if (singleSelection && childIsChecked && button.getId() != childId) {
-          setCheckedStateForView(button.getId(), false);
-
-          dispatchOnButtonChecked(button.getId(), false);
-        } else {
-          button.bringToFront();
+    if (singleSelection && childIsChecked) {
+      // Iterates backwards, since unchecking a button removes it from the checked ids
+      for (int i = checkedIds.size() - 1; i >= 0; i--) {
+        int id = checkedIds.keyAt(i);
+        if (id != childId) {
+          setCheckedStateForView(id, false);
+
+          dispatchOnButtonChecked(id, false);
         }
       }
     }
+
+    bringCheckedButtonsToFront();
+  }
+
+  /** Draws all checked children on top of all unchecked children, keeping their visual order. */
+  private void bringCheckedButtonsToFront() {
+    validateCheckedIds();
+    int checkedCount = checkedIds.size();
+    if (checkedCount == 1) {
+      MaterialButton button = buttonsById.get(checkedIds.keyAt(0));
+      if (button != null && getChildAt(getChildCount() - 1) != button) {
+        button.bringToFront();
+      }
+      return;
+    }
+
+    for (int i = 0, found = 0; i < childrenInOrder.size() && found < checkedCount; i++) {
+      MaterialButton button = childrenInOrder.get(i);
+      if (checkedIds.get(button.getId())) {
+        button.bringToFront();
+        found++;
+      }
+    }
   }
 
   private void dispatchOnButtonChecked(@IdRes int buttonId, boolean checked) {
@@ -542,10 +781,17 @@ public class MaterialButtonToggleGroup extends RelativeLayout {
     }
   }
 
+  private void dispatchOnCheckedStateChanged() {
+    for (OnCheckedStateChangeListener listener : onCheckedStateChangeListeners) {
+      listener.onCheckedStateChanged(this);
+    }
+  }
+
   private void checkForced(int checkedId) {
     setCheckedStateForView(checkedId, true);
     updateCheckedStates(checkedId, true);
     setCheckedId(checkedId);
+    dispatchOnCheckedStateChanged();
   }
 
   private void setGeneratedIdIfNeeded(@NonNull MaterialButton materialButton) {
@@ -598,13 +844,20 @@ public class MaterialButtonToggleGroup extends RelativeLayout {
         return;
       }
 
+      if (buttonsById.get(button.getId()) != button) {
+        // The button's id changed since it was indexed
+        reindexButtons();
+      }
+
       if (singleSelection) {
         checkedId = isChecked ? button.getId() : View.NO_ID;
       }
 
+      updateCheckedIds(button.getId(), isChecked);
       dispatchOnButtonChecked(button.getId(), isChecked);
 
       updateCheckedStates(button.getId(), isChecked);
+      dispatchOnCheckedStateChanged();
     }
   }
 
@@ -619,17 +872,60 @@ public class MaterialButtonToggleGroup extends RelativeLayout {
     }
   }
 
-  private static class CornerData {
-    final float topLeft;
-    final float topRight;
-    final float bottomRight;
-    final float bottomLeft;
+  /** The shapes of the children with the same original shape, by the corners they keep. */
+  private static class SharedShapes {
+    @NonNull final ShapeAppearanceModel original;
+    private final ShapeAppearanceModel[] shapes = new ShapeAppearanceModel[KEPT_CORNERS_COUNT];
+
+    SharedShapes(@NonNull ShapeAppearanceModel original) {
+      this.original = original;
+    }
+
+    @NonNull
+    ShapeAppearanceModel getShape(@KeptCorners int keptCorners) {
+      if (shapes[keptCorners] == null) {
+        shapes[keptCorners] = createShape(keptCorners);
+      }
+      return shapes[keptCorners];
+    }
+
+    @NonNull
+    private ShapeAppearanceModel createShape(@KeptCorners int keptCorners) {
+      switch (keptCorners) {
+        case KEPT_CORNERS_LEFT:
+          return original.toBuilder().setTopRightCornerSize(0).setBottomRightCornerSize(0).build();
+        case KEPT_CORNERS_RIGHT:
+          return original.toBuilder().setTopLeftCornerSize(0).setBottomLeftCornerSize(0).build();
+        case KEPT_CORNERS_NONE:
+          return original.toBuilder().setCornerRadius(0).build();
+        case KEPT_CORNERS_ALL:
+        default:
+          return original;
+      }
+    }
+
+    /** Returns the given shape with the corner sizes of the original shape. */
+    @NonNull
+    ShapeAppearanceModel withOriginalCornerSizes(
+        @NonNull ShapeAppearanceModel shapeAppearanceModel) {
+      return shapeAppearanceModel
+          .toBuilder()
+          .setTopLeftCornerSize(original.getTopLeftCorner().getCornerSize())
+          .setTopRightCornerSize(original.getTopRightCorner().getCornerSize())
+          .setBottomRightCornerSize(original.getBottomRightCorner().getCornerSize())
+          .setBottomLeftCornerSize(original.getBottomLeftCorner().getCornerSize())
+          .build();
+    }
+  }
+
+  /** The corners a child keeps, and the shape the group last set on it. */
+  private static class ChildShape {
+    @NonNull SharedShapes sharedShapes;
+    @KeptCorners int keptCorners = KEPT_CORNERS_UNSET;
+    @Nullable ShapeAppearanceModel appliedShape;
 
-    CornerData(float topLeft, float topRight, float bottomRight, float bottomLeft) {
-      this.topLeft = topLeft;
-      this.topRight = topRight;
-      this.bottomRight = bottomRight;
-      this.bottomLeft = bottomLeft;
+    ChildShape(@NonNull SharedShapes sharedShapes) {
+      this.sharedShapes = sharedShapes;
     }
   }
 }
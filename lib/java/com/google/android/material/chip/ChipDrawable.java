@@ -260,6 +260,10 @@ public class ChipDrawable extends MaterialShapeDrawable
   @Nullable private ColorStateList compatRippleColor;
   @NonNull private WeakReference<Delegate> delegate = new WeakReference<>(null);
   private TruncateAt truncateAt;
+  // The last ellipsized text, valid until the text width becomes dirty or the key changes
+  @Nullable private CharSequence ellipsizedText;
+  private float ellipsizedTextAvailableWidth;
+  @Nullable private TruncateAt ellipsizedTextTruncateAt;
   private boolean shouldDrawText;
   private int maxWidth;
   private boolean isShapeThemingEnabled;
@@ -298,12 +302,36 @@ public class ChipDrawable extends MaterialShapeDrawable
     return createFromAttributes(context, attrs, R.attr.chipStandaloneStyle, style);
   }
 
+  /**
+   * Returns a new ChipDrawable with the same attributes as the given prototype, without parsing
+   * the chip style again. This makes creating many chips of the same style cheap: create the
+   * prototype once with {@link #createFromAttributes(Context, AttributeSet, int, int)} or {@link
+   * #createFromResource(Context, int)}, then stamp out chips from it.
+   *
+   * <p>The new chip shares the prototype's immutable state, such as its {@link ColorStateList}s,
+   * {@link ShapeAppearanceModel}, {@link TextAppearance} and {@link MotionSpec}s. Its icons are
+   * new instances created from the prototype icons' {@link Drawable.ConstantState}s, so the chips
+   * can be drawn and change state independently.
+   */
+  @NonNull
+  public static ChipDrawable createFromPrototype(
+      @NonNull Context context, @NonNull ChipDrawable prototype) {
+    ChipDrawable chip = new ChipDrawable(context, prototype.getShapeAppearanceModel());
+    chip.copyFrom(prototype);
+    return chip;
+  }
+
   private ChipDrawable(
       @NonNull Context context,
       AttributeSet attrs,
       @AttrRes int defStyleAttr,
       @StyleRes int defStyleRes) {
-    super(context, attrs, defStyleAttr, defStyleRes);
+    this(context, ShapeAppearanceModel.builder(context, attrs, defStyleAttr, defStyleRes).build());
+  }
+
+  private ChipDrawable(
+      @NonNull Context context, @NonNull ShapeAppearanceModel shapeAppearanceModel) {
+    super(shapeAppearanceModel);
     initializeElevationOverlay(context);
 
     this.context = context;
@@ -424,6 +452,68 @@ public class ChipDrawable extends MaterialShapeDrawable
     a.recycle();
   }
 
+  /** Copies the attributes of the prototype, which is what loading them from a style would do. */
+  private void copyFrom(@NonNull ChipDrawable prototype) {
+    isShapeThemingEnabled = prototype.isShapeThemingEnabled;
+    setElevation(prototype.getElevation());
+    setChipSurfaceColor(prototype.chipSurfaceColor);
+    setChipBackgroundColor(prototype.getChipBackgroundColor());
+    setChipMinHeight(prototype.getChipMinHeight());
+    // The corner radius is already part of the prototype's shape appearance
+    chipCornerRadius = prototype.getChipCornerRadius();
+    setChipStrokeColor(prototype.getChipStrokeColor());
+    setChipStrokeWidth(prototype.getChipStrokeWidth());
+    setRippleColor(prototype.getRippleColor());
+
+    setText(prototype.getText());
+    setTextAppearance(prototype.getTextAppearance());
+    setEllipsize(prototype.getEllipsize());
+
+    setChipIconVisible(prototype.isChipIconVisible());
+    setChipIcon(newDrawable(prototype.getChipIcon()));
+    setChipIconTint(prototype.getChipIconTint());
+    setChipIconSize(prototype.getChipIconSize());
+
+    setCloseIconVisible(prototype.isCloseIconVisible());
+    setCloseIcon(newDrawable(prototype.getCloseIcon()));
+    setCloseIconTint(prototype.getCloseIconTint());
+    setCloseIconSize(prototype.getCloseIconSize());
+    // Already wrapped for bidi text by the prototype
+    closeIconContentDescription = prototype.closeIconContentDescription;
+
+    setCheckable(prototype.isCheckable());
+    setCheckedIconVisible(prototype.isCheckedIconVisible());
+    setCheckedIcon(newDrawable(prototype.getCheckedIcon()));
+
+    setShowMotionSpec(prototype.getShowMotionSpec());
+    setHideMotionSpec(prototype.getHideMotionSpec());
+
+    setChipStartPadding(prototype.getChipStartPadding());
+    setIconStartPadding(prototype.getIconStartPadding());
+    setIconEndPadding(prototype.getIconEndPadding());
+    setTextStartPadding(prototype.getTextStartPadding());
+    setTextEndPadding(prototype.getTextEndPadding());
+    setCloseIconStartPadding(prototype.getCloseIconStartPadding());
+    setCloseIconEndPadding(prototype.getCloseIconEndPadding());
+    setChipEndPadding(prototype.getChipEndPadding());
+
+    setMaxWidth(prototype.getMaxWidth());
+    setUseCompatRipple(prototype.getUseCompatRipple());
+  }
+
+  /**
+   * Returns a new instance of the given drawable from its constant state, or the drawable itself
+   * if it can't be copied.
+   */
+  @Nullable
+  private Drawable newDrawable(@Nullable Drawable drawable) {
+    if (drawable == null) {
+      return null;
+    }
+    Drawable.ConstantState constantState = drawable.getConstantState();
+    return constantState != null ? constantState.newDrawable(context.getResources()) : drawable;
+  }
+
   /** Sets whether this ChipDrawable should draw its own compatibility ripples. */
   public void setUseCompatRipple(boolean useCompatRipple) {
     if (this.useCompatRipple != useCompatRipple) {
@@ -475,7 +565,7 @@ public class ChipDrawable extends MaterialShapeDrawable
             (chipStartPadding
                 + calculateChipIconWidth()
                 + textStartPadding
-                + textDrawableHelper.getTextWidth(getText().toString())
+                + getTextWidth()
                 + textEndPadding
                 + calculateCloseIconWidth()
                 + chipEndPadding));
@@ -680,9 +770,7 @@ public class ChipDrawable extends MaterialShapeDrawable
       }
       textDrawableHelper.getTextPaint().setTextAlign(align);
 
-      boolean clip =
-          Math.round(textDrawableHelper.getTextWidth(getText().toString()))
-              > Math.round(rectF.width());
+      boolean clip = Math.round(getTextWidth()) > Math.round(rectF.width());
       int saveCount = 0;
       if (clip) {
         saveCount = canvas.save();
@@ -691,8 +779,7 @@ public class ChipDrawable extends MaterialShapeDrawable
 
       CharSequence finalText = text;
       if (clip && truncateAt != null) {
-        finalText =
-            TextUtils.ellipsize(text, textDrawableHelper.getTextPaint(), rectF.width(), truncateAt);
+        finalText = getEllipsizedText(rectF.width());
       }
       canvas.drawText(
           finalText, 0, finalText.length(), pointF.x, pointF.y, textDrawableHelper.getTextPaint());
@@ -702,6 +789,31 @@ public class ChipDrawable extends MaterialShapeDrawable
     }
   }
 
+  /**
+   * Returns the width of the chip text. The width is measured again only after the text or the
+   * text appearance changed, which also drops the cached ellipsized text.
+   */
+  private float getTextWidth() {
+    if (textDrawableHelper.isTextWidthDirty()) {
+      ellipsizedText = null;
+    }
+    return textDrawableHelper.getTextWidth(text);
+  }
+
+  /** Returns the chip text ellipsized to {@code availableWidth}, reusing the last result. */
+  @NonNull
+  private CharSequence getEllipsizedText(float availableWidth) {
+    if (ellipsizedText == null
+        || ellipsizedTextAvailableWidth != availableWidth
+        || ellipsizedTextTruncateAt != truncateAt) {
+      ellipsizedText =
+          TextUtils.ellipsize(text, textDrawableHelper.getTextPaint(), availableWidth, truncateAt);
+      ellipsizedTextAvailableWidth = availableWidth;
+      ellipsizedTextTruncateAt = truncateAt;
+    }
+    return ellipsizedText;
+  }
+
   private void drawCloseIcon(@NonNull Canvas canvas, @NonNull Rect bounds) {
     if (showsCloseIcon()) {
       calculateCloseIconBounds(bounds, rectF);
@@ -0,0 +1,658 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.chip;
+
+import android.graphics.PointF;
+import android.os.Bundle;
+import android.os.Parcelable;
+import androidx.annotation.Dimension;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.view.ViewCompat;
+import android.view.View;
+import android.view.View.MeasureSpec;
+import android.view.ViewGroup;
+import androidx.recyclerview.widget.LinearSmoothScroller;
+import androidx.recyclerview.widget.RecyclerView;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A {@link RecyclerView.LayoutManager} that places items the way a {@link ChipGroup} places its
+ * chips: horizontally until a line is filled, then on the next line. Call {@link
+ * #setSingleLine(boolean)} to lay all items out in a single horizontally scrolling line instead.
+ *
+ * <p>Unlike {@link ChipGroup}, only the items within the visible area are laid out, and items that
+ * are scrolled out of it are recycled. Use it to show a large number of chips, together with a
+ * {@link ChipSelectionModel} to check them by adapter position.
+ */
+public class ChipFlowLayoutManager extends RecyclerView.LayoutManager
+    implements RecyclerView.SmoothScroller.ScrollVectorProvider {
+
+  private static final String STATE_ANCHOR_POSITION = "anchorPosition";
+  private static final String STATE_ANCHOR_OFFSET = "anchorOffset";
+
+  @Dimension private int itemSpacing;
+  @Dimension private int lineSpacing;
+  private boolean singleLine;
+
+  // The positions that start each line found so far, in order. Lines are only ever found going
+  // forward from the first item, so they always match the lines a ChipGroup would lay out.
+  private int[] lineStarts = new int[16];
+  // The width taken up by the items of each line whose end is known, to notice when an item was
+  // resized without being rebound, e.g. when a chip shows its checked icon.
+  private int[] lineUsedWidths = new int[16];
+  private int lineCount = 1;
+  private int lineWidth = -1;
+
+  // The first laid out position, which starts a line unless in single line mode, and its offset
+  // from the start of the content area.
+  private int anchorPosition;
+  private int anchorOffset;
+  private int pendingScrollPosition = RecyclerView.NO_POSITION;
+
+  private final List<View> tmpLineViews = new ArrayList<>();
+
+  public ChipFlowLayoutManager() {}
+
+  public ChipFlowLayoutManager(@Dimension int itemSpacing, @Dimension int lineSpacing) {
+    this.itemSpacing = itemSpacing;
+    this.lineSpacing = lineSpacing;
+  }
+
+  /** Returns the horizontal spacing between items. */
+  @Dimension
+  public int getItemSpacing() {
+    return itemSpacing;
+  }
+
+  /** Sets the horizontal spacing between items. */
+  public void setItemSpacing(@Dimension int itemSpacing) {
+    if (this.itemSpacing != itemSpacing) {
+      this.itemSpacing = itemSpacing;
+      invalidateLines();
+      requestLayout();
+    }
+  }
+
+  /** Returns the vertical spacing between lines. */
+  @Dimension
+  public int getLineSpacing() {
+    return lineSpacing;
+  }
+
+  /** Sets the vertical spacing between lines. */
+  public void setLineSpacing(@Dimension int lineSpacing) {
+    if (this.lineSpacing != lineSpacing) {
+      this.lineSpacing = lineSpacing;
+      requestLayout();
+    }
+  }
+
+  /** Returns whether items are laid out in a single line, or reflowed across multiple lines. */
+  public boolean isSingleLine() {
+    return singleLine;
+  }
+
+  /** Sets whether items are laid out in a single line, or reflowed across multiple lines. */
+  public void setSingleLine(boolean singleLine) {
+    if (this.singleLine != singleLine) {
+      this.singleLine = singleLine;
+      invalidateLines();
+      anchorOffset = 0;
+      requestLayout();
+    }
+  }
+
+  @NonNull
+  @Override
+  public RecyclerView.LayoutParams generateDefaultLayoutParams() {
+    return new RecyclerView.LayoutParams(
+        ViewGroup.LayoutParams.WRAP_CONTENT, ViewGroup.LayoutParams.WRAP_CONTENT);
+  }
+
+  @Override
+  public boolean isAutoMeasureEnabled() {
+    return true;
+  }
+
+  @Override
+  public boolean canScrollHorizontally() {
+    return singleLine;
+  }
+
+  @Override
+  public boolean canScrollVertically() {
+    return !singleLine;
+  }
+
+  @Override
+  public void onLayoutChildren(
+      @NonNull RecyclerView.Recycler recycler, @NonNull RecyclerView.State state) {
+    final int itemCount = state.getItemCount();
+    if (itemCount == 0) {
+      removeAndRecycleAllViews(recycler);
+      anchorPosition = 0;
+      anchorOffset = 0;
+      return;
+    }
+
+    final int width = getContentWidth();
+    if (width != lineWidth) {
+      lineWidth = width;
+      invalidateLines();
+    }
+    if (pendingScrollPosition != RecyclerView.NO_POSITION) {
+      anchorPosition = pendingScrollPosition;
+      anchorOffset = 0;
+      pendingScrollPosition = RecyclerView.NO_POSITION;
+    }
+    anchorPosition = Math.max(0, Math.min(anchorPosition, itemCount - 1));
+
+    detachAndScrapAttachedViews(recycler);
+
+    if (singleLine) {
+      final int limit = getContentWidth();
+      int end = anchorOffset - itemSpacing;
+      for (int position = anchorPosition; position < itemCount && end < limit; position++) {
+        end = layoutItemAtEnd(position, end + itemSpacing, recycler);
+      }
+      if (end < limit) {
+        // Scrolled past the end, for example after items were removed
+        scrollSingleLineBy(end - limit, recycler, state);
+      }
+    } else {
+      ensureLinesUpTo(anchorPosition, recycler, state);
+      anchorPosition = lineStarts[findLine(anchorPosition)];
+      final int limit = getContentBottom();
+      int bottom = getPaddingTop() + anchorOffset - lineSpacing;
+      int position = anchorPosition;
+      while (position < itemCount && bottom < limit) {
+        bottom = layoutLineAtBottom(position, bottom + lineSpacing, recycler, state);
+        position = getPosition(getChildAt(getChildCount() - 1)) + 1;
+      }
+      if (bottom < limit) {
+        // Scrolled past the end, for example after items were removed
+        scrollLinesBy(bottom - limit, recycler, state);
+      }
+    }
+    updateAnchor();
+  }
+
+  @Override
+  public int scrollHorizontallyBy(
+      int dx, @NonNull RecyclerView.Recycler recycler, @NonNull RecyclerView.State state) {
+    // Scrolling towards the end of the line moves the content left, unless the layout is RTL
+    final int direction = isRtl() ? -1 : 1;
+    return direction * scrollSingleLineBy(direction * dx, recycler, state);
+  }
+
+  @Override
+  public int scrollVerticallyBy(
+      int dy, @NonNull RecyclerView.Recycler recycler, @NonNull RecyclerView.State state) {
+    return scrollLinesBy(dy, recycler, state);
+  }
+
+  @Override
+  public void scrollToPosition(int position) {
+    pendingScrollPosition = position;
+    requestLayout();
+  }
+
+  @Override
+  public void smoothScrollToPosition(
+      @NonNull RecyclerView recyclerView, @NonNull RecyclerView.State state, int position) {
+    LinearSmoothScroller scroller = new LinearSmoothScroller(recyclerView.getContext());
+    scroller.setTargetPosition(position);
+    startSmoothScroll(scroller);
+  }
+
+  @Nullable
+  @Override
+  public PointF computeScrollVectorForPosition(int targetPosition) {
+    if (getChildCount() == 0) {
+      return null;
+    }
+    final int direction = targetPosition < getPosition(getChildAt(0)) ? -1 : 1;
+    return singleLine ? new PointF(isRtl() ? -direction : direction, 0) : new PointF(0, direction);
+  }
+
+  @Override
+  public int computeHorizontalScrollOffset(@NonNull RecyclerView.State state) {
+    return getChildCount() > 0 ? getPosition(getChildAt(0)) : 0;
+  }
+
+  @Override
+  public int computeHorizontalScrollExtent(@NonNull RecyclerView.State state) {
+    return getChildCount();
+  }
+
+  @Override
+  public int computeHorizontalScrollRange(@NonNull RecyclerView.State state) {
+    return state.getItemCount();
+  }
+
+  @Override
+  public int computeVerticalScrollOffset(@NonNull RecyclerView.State state) {
+    return computeHorizontalScrollOffset(state);
+  }
+
+  @Override
+  public int computeVerticalScrollExtent(@NonNull RecyclerView.State state) {
+    return computeHorizontalScrollExtent(state);
+  }
+
+  @Override
+  public int computeVerticalScrollRange(@NonNull RecyclerView.State state) {
+    return computeHorizontalScrollRange(state);
+  }
+
+  @Override
+  public void onItemsChanged(@NonNull RecyclerView recyclerView) {
+    invalidateLines();
+  }
+
+  @Override
+  public void onItemsAdded(@NonNull RecyclerView recyclerView, int positionStart, int itemCount) {
+    invalidateLinesFrom(positionStart);
+    if (positionStart < anchorPosition) {
+      anchorPosition += itemCount;
+    }
+  }
+
+  @Override
+  public void onItemsRemoved(
+      @NonNull RecyclerView recyclerView, int positionStart, int itemCount) {
+    invalidateLinesFrom(positionStart);
+    if (positionStart + itemCount <= anchorPosition) {
+      anchorPosition -= itemCount;
+    } else if (positionStart < anchorPosition) {
+      anchorPosition = positionStart;
+    }
+  }
+
+  @Override
+  public void onItemsUpdated(
+      @NonNull RecyclerView recyclerView, int positionStart, int itemCount) {
+    invalidateLinesFrom(positionStart);
+  }
+
+  @Override
+  public void onItemsMoved(@NonNull RecyclerView recyclerView, int from, int to, int itemCount) {
+    invalidateLinesFrom(Math.min(from, to));
+  }
+
+  @Nullable
+  @Override
+  public Parcelable onSaveInstanceState() {
+    Bundle state = new Bundle();
+    state.putInt(STATE_ANCHOR_POSITION, anchorPosition);
+    state.putInt(STATE_ANCHOR_OFFSET, anchorOffset);
+    return state;
+  }
+
+  @Override
+  public void onRestoreInstanceState(Parcelable state) {
+    if (state instanceof Bundle) {
+      anchorPosition = ((Bundle) state).getInt(STATE_ANCHOR_POSITION);
+      anchorOffset = ((Bundle) state).getInt(STATE_ANCHOR_OFFSET);
+      requestLayout();
+    }
+  }
+
+  private int scrollLinesBy(
+      int dy, @NonNull RecyclerView.Recycler recycler, @NonNull RecyclerView.State state) {
+    if (getChildCount() == 0 || dy == 0) {
+      return 0;
+    }
+    final int consumed;
+    if (dy > 0) {
+      final int limit = getContentBottom();
+      int bottom = getLinesBottom();
+      int nextPosition = getPosition(getChildAt(getChildCount() - 1)) + 1;
+      while (bottom - limit < dy && nextPosition < state.getItemCount()) {
+        bottom = layoutLineAtBottom(nextPosition, bottom + lineSpacing, recycler, state);
+        nextPosition = getPosition(getChildAt(getChildCount() - 1)) + 1;
+      }
+      consumed = Math.min(dy, Math.max(0, bottom - limit));
+    } else {
+      final int limit = getPaddingTop();
+      int top = getLinesTop();
+      int firstPosition = getPosition(getChildAt(0));
+      while (top - limit > dy && firstPosition > 0) {
+        top = layoutLineAtTop(firstPosition, top - lineSpacing, recycler);
+        firstPosition = getPosition(getChildAt(0));
+      }
+      consumed = Math.max(dy, Math.min(0, top - limit));
+    }
+    offsetChildrenVertical(-consumed);
+    recycleLinesOutOfBounds(recycler);
+    updateAnchor();
+    return consumed;
+  }
+
+  private int scrollSingleLineBy(
+      int delta, @NonNull RecyclerView.Recycler recycler, @NonNull RecyclerView.State state) {
+    if (getChildCount() == 0 || delta == 0) {
+      return 0;
+    }
+    final int limit = getContentWidth();
+    final int consumed;
+    if (delta > 0) {
+      int end = getItemEnd(getChildAt(getChildCount() - 1));
+      int nextPosition = getPosition(getChildAt(getChildCount() - 1)) + 1;
+      while (end - limit < delta && nextPosition < state.getItemCount()) {
+        end = layoutItemAtEnd(nextPosition++, end + itemSpacing, recycler);
+      }
+      consumed = Math.min(delta, Math.max(0, end - limit));
+    } else {
+      int start = getItemStart(getChildAt(0));
+      int previousPosition = getPosition(getChildAt(0)) - 1;
+      while (start > delta && previousPosition >= 0) {
+        start = layoutItemAtStart(previousPosition--, start - itemSpacing, recycler);
+      }
+      consumed = Math.max(delta, Math.min(0, start));
+    }
+    offsetChildrenHorizontal(isRtl() ? consumed : -consumed);
+
+    // Recycle the items scrolled out of the line
+    while (getChildCount() > 1 && getItemEnd(getChildAt(0)) <= 0) {
+      removeAndRecycleViewAt(0, recycler);
+    }
+    while (getChildCount() > 1 && getItemStart(getChildAt(getChildCount() - 1)) >= limit) {
+      removeAndRecycleViewAt(getChildCount() - 1, recycler);
+    }
+    updateAnchor();
+    return consumed;
+  }
+
+  /**
+   * Lays out the line starting at {@code start} below all laid out lines, and returns its bottom.
+   * If the end of the line wasn't known yet, or its items changed width since it was found, the
+   * end is recorded as the start of the next line.
+   */
+  private int layoutLineAtBottom(
+      int start,
+      int top,
+      @NonNull RecyclerView.Recycler recycler,
+      @NonNull RecyclerView.State state) {
+    final int line = findLine(start);
+    boolean endKnown = line + 1 < lineCount;
+    final int itemCount = state.getItemCount();
+    final int available = getContentWidth();
+    int itemStart = 0;
+    int lineHeight = 0;
+    for (int position = start; position < itemCount; position++) {
+      if (endKnown && position == lineStarts[line + 1]) {
+        if (itemStart - itemSpacing == lineUsedWidths[line]) {
+          break;
+        }
+        // An item got narrower, so the following items may fit on this line now
+        lineCount = line + 1;
+        endKnown = false;
+      }
+      View view = recycler.getViewForPosition(position);
+      measureChildWithMargins(view, 0, 0);
+      final int width = getItemWidth(view);
+      if (position > start && itemStart + width > available) {
+        // This item starts the next line. If the line's end was known, an item got wider.
+        recycler.recycleView(view);
+        lineCount = line + 1;
+        addLineStart(position, itemStart - itemSpacing);
+        break;
+      }
+      addView(view);
+      final int height = getItemHeight(view);
+      layoutItem(view, itemStart, top, width, height);
+      itemStart += width + itemSpacing;
+      lineHeight = Math.max(lineHeight, height);
+    }
+    return top + lineHeight;
+  }
+
+  /**
+   * Lays out the line ending just before {@code end} above all laid out lines, and returns its top.
+   */
+  private int layoutLineAtTop(int end, int bottom, @NonNull RecyclerView.Recycler recycler) {
+    final int start = lineStarts[findLine(end - 1)];
+    int lineHeight = 0;
+    for (int position = start; position < end; position++) {
+      View view = recycler.getViewForPosition(position);
+      measureChildWithMargins(view, 0, 0);
+      lineHeight = Math.max(lineHeight, getItemHeight(view));
+      tmpLineViews.add(view);
+    }
+    final int top = bottom - lineHeight;
+    int itemStart = 0;
+    for (int i = 0, count = tmpLineViews.size(); i < count; i++) {
+      View view = tmpLineViews.get(i);
+      addView(view, i);
+      final int width = getItemWidth(view);
+      layoutItem(view, itemStart, top, width, getItemHeight(view));
+      itemStart += width + itemSpacing;
+    }
+    tmpLineViews.clear();
+    return top;
+  }
+
+  private int layoutItemAtEnd(int position, int start, @NonNull RecyclerView.Recycler recycler) {
+    View view = recycler.getViewForPosition(position);
+    addView(view);
+    measureChildWithMargins(view, 0, 0);
+    final int width = getItemWidth(view);
+    layoutItem(view, start, getPaddingTop(), width, getItemHeight(view));
+    return start + width;
+  }
+
+  private int layoutItemAtStart(int position, int end, @NonNull RecyclerView.Recycler recycler) {
+    View view = recycler.getViewForPosition(position);
+    addView(view, 0);
+    measureChildWithMargins(view, 0, 0);
+    final int width = getItemWidth(view);
+    layoutItem(view, end - width, getPaddingTop(), width, getItemHeight(view));
+    return end - width;
+  }
+
+  /** Lays out an item at the given offset from the start of the content area. */
+  private void layoutItem(@NonNull View view, int start, int top, int width, int height) {
+    final int left =
+        isRtl() ? getWidth() - getPaddingRight() - start - width : getPaddingLeft() + start;
+    layoutDecoratedWithMargins(view, left, top, left + width, top + height);
+  }
+
+  private void recycleLinesOutOfBounds(@NonNull RecyclerView.Recycler recycler) {
+    // Only whole lines are recycled, so that the first laid out item always starts a line
+    while (getChildCount() > 0) {
+      final int lineEnd = getLineEnd(getPosition(getChildAt(0)));
+      int lineBottom = Integer.MIN_VALUE;
+      int lineChildCount = 0;
+      while (lineChildCount < getChildCount()
+          && getPosition(getChildAt(lineChildCount)) < lineEnd) {
+        lineBottom = Math.max(lineBottom, getItemBottom(getChildAt(lineChildCount)));
+        lineChildCount++;
+      }
+      if (lineChildCount == getChildCount() || lineBottom > getPaddingTop()) {
+        break;
+      }
+      for (int i = 0; i < lineChildCount; i++) {
+        removeAndRecycleViewAt(0, recycler);
+      }
+    }
+    final int limit = getContentBottom();
+    while (getChildCount() > 0) {
+      final int lineStart = lineStarts[findLine(getPosition(getChildAt(getChildCount() - 1)))];
+      int firstLineChild = getChildCount() - 1;
+      while (firstLineChild > 0 && getPosition(getChildAt(firstLineChild - 1)) >= lineStart) {
+        firstLineChild--;
+      }
+      if (firstLineChild == 0 || getItemTop(getChildAt(firstLineChild)) < limit) {
+        break;
+      }
+      for (int i = getChildCount() - 1; i >= firstLineChild; i--) {
+        removeAndRecycleViewAt(i, recycler);
+      }
+    }
+  }
+
+  /** Finds the starts of lines, measuring items as needed, until {@code position}'s is known. */
+  private void ensureLinesUpTo(
+      int position, @NonNull RecyclerView.Recycler recycler, @NonNull RecyclerView.State state) {
+    final int itemCount = state.getItemCount();
+    final int available = getContentWidth();
+    while (lineStarts[lineCount - 1] < position) {
+      final int start = lineStarts[lineCount - 1];
+      int itemStart = 0;
+      int end = start;
+      while (end < itemCount) {
+        View view = recycler.getViewForPosition(end);
+        measureChildWithMargins(view, 0, 0);
+        final int width = getItemWidth(view);
+        recycler.recycleView(view);
+        if (end > start && itemStart + width > available) {
+          break;
+        }
+        itemStart += width + itemSpacing;
+        end++;
+      }
+      if (end >= itemCount || end > position) {
+        if (end < itemCount) {
+          addLineStart(end, itemStart - itemSpacing);
+        }
+        return;
+      }
+      addLineStart(end, itemStart - itemSpacing);
+    }
+  }
+
+  /**
+   * Records {@code position} as the start of a new line, after the last known line which takes up
+   * {@code usedWidth}.
+   */
+  private void addLineStart(int position, int usedWidth) {
+    if (position <= lineStarts[lineCount - 1]) {
+      return;
+    }
+    if (lineCount == lineStarts.length) {
+      lineStarts = Arrays.copyOf(lineStarts, lineCount * 2);
+      lineUsedWidths = Arrays.copyOf(lineUsedWidths, lineCount * 2);
+    }
+    lineUsedWidths[lineCount - 1] = usedWidth;
+    lineStarts[lineCount++] = position;
+  }
+
+  /** Returns the index of the known line that contains {@code position}. */
+  private int findLine(int position) {
+    int low = 0;
+    int high = lineCount - 1;
+    while (low < high) {
+      final int middle = (low + high + 1) >>> 1;
+      if (lineStarts[middle] <= position) {
+        low = middle;
+      } else {
+        high = middle - 1;
+      }
+    }
+    return low;
+  }
+
+  private int getLineEnd(int position) {
+    final int line = findLine(position);
+    return line + 1 < lineCount ? lineStarts[line + 1] : Integer.MAX_VALUE;
+  }
+
+  private void invalidateLines() {
+    lineCount = 1;
+  }
+
+  private void invalidateLinesFrom(int position) {
+    // A change can pull items into the end of the previous line, so that line is found again too
+    lineCount = Math.min(lineCount, findLine(Math.max(0, position - 1)) + 1);
+  }
+
+  private void updateAnchor() {
+    if (getChildCount() == 0) {
+      return;
+    }
+    View first = getChildAt(0);
+    anchorPosition = getPosition(first);
+    anchorOffset = singleLine ? getItemStart(first) : getItemTop(first) - getPaddingTop();
+  }
+
+  private int getLinesTop() {
+    return getItemTop(getChildAt(0));
+  }
+
+  private int getLinesBottom() {
+    int bottom = Integer.MIN_VALUE;
+    for (int i = 0; i < getChildCount(); i++) {
+      bottom = Math.max(bottom, getItemBottom(getChildAt(i)));
+    }
+    return bottom;
+  }
+
+  private int getContentWidth() {
+    if (getWidthMode() == MeasureSpec.UNSPECIFIED) {
+      return Integer.MAX_VALUE;
+    }
+    return getWidth() - getPaddingLeft() - getPaddingRight();
+  }
+
+  private int getContentBottom() {
+    if (getHeightMode() == MeasureSpec.UNSPECIFIED) {
+      return Integer.MAX_VALUE;
+    }
+    return getHeight() - getPaddingBottom();
+  }
+
+  private int getItemWidth(@NonNull View view) {
+    final RecyclerView.LayoutParams lp = (RecyclerView.LayoutParams) view.getLayoutParams();
+    return getDecoratedMeasuredWidth(view) + lp.leftMargin + lp.rightMargin;
+  }
+
+  private int getItemHeight(@NonNull View view) {
+    final RecyclerView.LayoutParams lp = (RecyclerView.LayoutParams) view.getLayoutParams();
+    return getDecoratedMeasuredHeight(view) + lp.topMargin + lp.bottomMargin;
+  }
+
+  private int getItemTop(@NonNull View view) {
+    final RecyclerView.LayoutParams lp = (RecyclerView.LayoutParams) view.getLayoutParams();
+    return getDecoratedTop(view) - lp.topMargin;
+  }
+
+  private int getItemBottom(@NonNull View view) {
+    final RecyclerView.LayoutParams lp = (RecyclerView.LayoutParams) view.getLayoutParams();
+    return getDecoratedBottom(view) + lp.bottomMargin;
+  }
+
+  /** Returns the offset of the item's start edge from the start of the content area. */
+  private int getItemStart(@NonNull View view) {
+    final RecyclerView.LayoutParams lp = (RecyclerView.LayoutParams) view.getLayoutParams();
+    return isRtl()
+        ? getWidth() - getPaddingRight() - getDecoratedRight(view) - lp.rightMargin
+        : getDecoratedLeft(view) - lp.leftMargin - getPaddingLeft();
+  }
+
+  /** Returns the offset of the item's end edge from the start of the content area. */
+  private int getItemEnd(@NonNull View view) {
+    return getItemStart(view) + getItemWidth(view);
+  }
+
+  private boolean isRtl() {
+    return getLayoutDirection() == ViewCompat.LAYOUT_DIRECTION_RTL;
+  }
+}
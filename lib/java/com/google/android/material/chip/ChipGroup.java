@@ -30,11 +30,15 @@ import androidx.annotation.IdRes;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import android.util.AttributeSet;
+import android.util.SparseArray;
+import android.util.SparseBooleanArray;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.CompoundButton;
 import com.google.android.material.internal.FlowLayout;
 import com.google.android.material.internal.ThemeEnforcement;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * A ChipGroup is used to hold multiple {@link Chip}s. By default, the chips are reflowed across
@@ -97,6 +101,11 @@ public class ChipGroup extends FlowLayout {
   @IdRes private int checkedId = View.NO_ID;
   private boolean protectFromCheckedChange = false;
 
+  // chips by id and the ids of the checked chips, kept up to date by the CheckedStateTracker.
+  // Ids assigned to chips after they were added are picked up by reindexChips().
+  private final SparseArray<Chip> chipsById = new SparseArray<>();
+  private final SparseBooleanArray checkedChipIds = new SparseBooleanArray();
+
   public ChipGroup(Context context) {
     this(context, null);
   }
@@ -272,18 +281,38 @@ public class ChipGroup extends FlowLayout {
    * @see #getCheckedChipId()
    */
   public void clearCheck() {
-    protectFromCheckedChange = true;
-    for (int i = 0; i < getChildCount(); i++) {
-      View child = getChildAt(i);
-      if (child instanceof Chip) {
-        ((Chip) child).setChecked(false);
-      }
+    validateCheckedChipIds();
+    // iterates backwards, since unchecking a chip removes it from the checked ids
+    for (int i = checkedChipIds.size() - 1; i >= 0; i--) {
+      setCheckedStateForView(checkedChipIds.keyAt(i), false);
     }
-    protectFromCheckedChange = false;
 
     setCheckedId(View.NO_ID);
   }
 
+  /**
+   * Returns the identifiers of the checked chips in this group, in ascending order. Upon empty
+   * selection, the returned value is an empty list.
+   *
+   * @see #getCheckedChipId()
+   * @see #getCheckedChipCount()
+   */
+  @NonNull
+  public List<Integer> getCheckedChipIds() {
+    validateCheckedChipIds();
+    List<Integer> ids = new ArrayList<>(checkedChipIds.size());
+    for (int i = 0; i < checkedChipIds.size(); i++) {
+      ids.add(checkedChipIds.keyAt(i));
+    }
+    return ids;
+  }
+
+  /** Returns the number of checked chips in this group. */
+  public int getCheckedChipCount() {
+    validateCheckedChipIds();
+    return checkedChipIds.size();
+  }
+
   /**
    * Register a callback to be invoked when the checked chip changes in this group. This callback is
    * only invoked in {@link #isSingleSelection() single selection mode}.
@@ -303,11 +332,59 @@ public class ChipGroup extends FlowLayout {
   }
 
   private void setCheckedStateForView(@IdRes int viewId, boolean checked) {
-    View checkedView = findViewById(viewId);
-    if (checkedView instanceof Chip) {
+    Chip chip = findChipById(viewId);
+    if (chip != null) {
       protectFromCheckedChange = true;
-      ((Chip) checkedView).setChecked(checked);
+      chip.setChecked(checked);
       protectFromCheckedChange = false;
+      updateCheckedChipIds(viewId, chip.isChecked());
+    }
+  }
+
+  /**
+   * Returns the child chip with the given id. If the id isn't found, or now belongs to another chip,
+   * ids were assigned or changed after the chips were added, so they are indexed again.
+   */
+  @Nullable
+  private Chip findChipById(@IdRes int viewId) {
+    Chip chip = chipsById.get(viewId);
+    if (chip == null || chip.getId() != viewId) {
+      reindexChips(null);
+      chip = chipsById.get(viewId);
+    }
+    return chip;
+  }
+
+  /** Indexes the chips again if the id of any checked chip changed since it was indexed. */
+  private void validateCheckedChipIds() {
+    for (int i = 0; i < checkedChipIds.size(); i++) {
+      int id = checkedChipIds.keyAt(i);
+      Chip chip = chipsById.get(id);
+      if (chip == null || chip.getId() != id) {
+        reindexChips(null);
+        return;
+      }
+    }
+  }
+
+  /** Indexes the child chips by id, leaving out {@code removedChild} if it's being removed. */
+  private void reindexChips(@Nullable View removedChild) {
+    chipsById.clear();
+    checkedChipIds.clear();
+    for (int i = 0; i < getChildCount(); i++) {
+      View child = getChildAt(i);
+      if (child instanceof Chip && child != removedChild) {
+        chipsById.put(child.getId(), (Chip) child);
+        updateCheckedChipIds(child.getId(), ((Chip) child).isChecked());
+      }
+    }
+  }
+
+  private void updateCheckedChipIds(@IdRes int viewId, boolean checked) {
+    if (checked) {
+      checkedChipIds.put(viewId, true);
+    } else {
+      checkedChipIds.delete(viewId);
     }
   }
 
@@ -417,6 +494,11 @@ public class ChipGroup extends FlowLayout {
       }
 
       int id = buttonView.getId();
+      if (chipsById.get(id) != buttonView) {
+        // The chip's id changed since it was indexed
+        reindexChips(null);
+      }
+      updateCheckedChipIds(id, isChecked);
 
       if (isChecked) {
         if (checkedId != View.NO_ID && checkedId != id && singleSelection) {
@@ -452,6 +534,8 @@ public class ChipGroup extends FlowLayout {
           }
           child.setId(id);
         }
+        chipsById.put(id, (Chip) child);
+        updateCheckedChipIds(id, ((Chip) child).isChecked());
         ((Chip) child).setOnCheckedChangeListenerInternal(checkedStateTracker);
       }
 
@@ -464,6 +548,13 @@ public class ChipGroup extends FlowLayout {
     public void onChildViewRemoved(View parent, View child) {
       if (parent == ChipGroup.this && child instanceof Chip) {
         ((Chip) child).setOnCheckedChangeListenerInternal(null);
+        if (chipsById.get(child.getId()) == child) {
+          chipsById.remove(child.getId());
+          checkedChipIds.delete(child.getId());
+        } else {
+          // The chip's id changed since it was indexed, it's still a child until this returns
+          reindexChips(child);
+        }
       }
 
       if (onHierarchyChangeListener != null) {
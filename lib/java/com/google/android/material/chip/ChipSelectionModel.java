@@ -0,0 +1,303 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.chip;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import android.util.SparseBooleanArray;
+import android.widget.CompoundButton;
+import androidx.recyclerview.widget.RecyclerView;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps track of the checked chips of a {@link RecyclerView} by adapter position, the way a {@link
+ * ChipGroup} keeps track of its checked chips by view id.
+ *
+ * <p>Call {@link #attachToRecyclerView(RecyclerView)} once the adapter is set, and {@link
+ * #bindChip(Chip, int)} from {@link RecyclerView.Adapter#onBindViewHolder}. The checked positions
+ * are kept up to date as items are inserted, removed or moved, and chips whose checked state is
+ * changed by this model are rebound with the {@link #PAYLOAD_CHECKED_STATE} payload.
+ *
+ * <p>In {@link #isSingleSelection() single selection mode}, checking one chip unchecks the
+ * previously checked one. When {@link #isSelectionRequired() selection is required}, the last
+ * checked chip can't be unchecked by the user.
+ *
+ * @see ChipFlowLayoutManager
+ */
+public class ChipSelectionModel {
+
+  /** The payload used to notify the adapter of items whose checked state changed. */
+  public static final Object PAYLOAD_CHECKED_STATE = new Object();
+
+  /** Interface definition for a callback to be invoked when the checked state of a chip changes. */
+  public interface OnCheckedStateChangeListener {
+    /**
+     * Called when the checked state of the chip at the given adapter position has changed.
+     *
+     * @param selectionModel the model in which the checked state has changed
+     * @param position the adapter position of the chip
+     * @param checked the new checked state of the chip
+     */
+    void onCheckedStateChanged(
+        @NonNull ChipSelectionModel selectionModel, int position, boolean checked);
+  }
+
+  private final SparseBooleanArray checkedPositions = new SparseBooleanArray();
+  private boolean singleSelection;
+  private boolean selectionRequired;
+
+  @Nullable private RecyclerView recyclerView;
+  @Nullable private RecyclerView.Adapter<?> adapter;
+  @Nullable private OnCheckedStateChangeListener onCheckedStateChangeListener;
+
+  private final CheckedStateTracker checkedStateTracker = new CheckedStateTracker();
+  private final PositionTracker positionTracker = new PositionTracker();
+  private boolean protectFromCheckedChange = false;
+
+  /**
+   * Attaches this model to the given {@link RecyclerView} and its current adapter. Pass {@code
+   * null} to detach it.
+   */
+  public void attachToRecyclerView(@Nullable RecyclerView recyclerView) {
+    if (adapter != null) {
+      adapter.unregisterAdapterDataObserver(positionTracker);
+    }
+    this.recyclerView = recyclerView;
+    adapter = recyclerView != null ? recyclerView.getAdapter() : null;
+    if (adapter != null) {
+      adapter.registerAdapterDataObserver(positionTracker);
+    }
+  }
+
+  /**
+   * Binds the given chip to the checked state of the item at {@code position}. Call this from
+   * {@link RecyclerView.Adapter#onBindViewHolder}.
+   */
+  public void bindChip(@NonNull Chip chip, int position) {
+    protectFromCheckedChange = true;
+    chip.setChecked(isChecked(position));
+    protectFromCheckedChange = false;
+    chip.setOnCheckedChangeListenerInternal(checkedStateTracker);
+  }
+
+  /** Returns whether the chip at the given adapter position is checked. */
+  public boolean isChecked(int position) {
+    return checkedPositions.get(position);
+  }
+
+  /**
+   * Checks the chip at the given adapter position.
+   *
+   * <p>In {@link #isSingleSelection() single selection mode}, checking a chip also unchecks the
+   * previously checked one.
+   */
+  public void check(int position) {
+    if (isChecked(position)) {
+      return;
+    }
+    if (singleSelection && checkedPositions.size() > 0) {
+      setCheckedState(checkedPositions.keyAt(0), false);
+    }
+    setCheckedState(position, true);
+  }
+
+  /**
+   * Unchecks the chip at the given adapter position. Unchecking the last checked chip is allowed,
+   * even when {@link #isSelectionRequired() selection is required}.
+   */
+  public void uncheck(int position) {
+    if (isChecked(position)) {
+      setCheckedState(position, false);
+    }
+  }
+
+  /** Unchecks all chips. */
+  public void clearCheck() {
+    for (int i = checkedPositions.size() - 1; i >= 0; i--) {
+      setCheckedState(checkedPositions.keyAt(i), false);
+    }
+  }
+
+  /**
+   * When in {@link #isSingleSelection() single selection mode}, returns the adapter position of the
+   * checked chip, or {@link RecyclerView#NO_POSITION} when no chip is checked. If not in single
+   * selection mode, the return value is {@link RecyclerView#NO_POSITION}.
+   */
+  public int getCheckedPosition() {
+    return singleSelection && checkedPositions.size() > 0
+        ? checkedPositions.keyAt(0)
+        : RecyclerView.NO_POSITION;
+  }
+
+  /** Returns the adapter positions of the checked chips, in ascending order. */
+  @NonNull
+  public List<Integer> getCheckedPositions() {
+    List<Integer> positions = new ArrayList<>(checkedPositions.size());
+    for (int i = 0; i < checkedPositions.size(); i++) {
+      positions.add(checkedPositions.keyAt(i));
+    }
+    return positions;
+  }
+
+  /** Returns the number of checked chips. */
+  public int getCheckedCount() {
+    return checkedPositions.size();
+  }
+
+  /** Returns whether only a single chip can be checked. */
+  public boolean isSingleSelection() {
+    return singleSelection;
+  }
+
+  /**
+   * Sets whether only a single chip can be checked.
+   *
+   * <p>Calling this method results in all the chips to become unchecked.
+   */
+  public void setSingleSelection(boolean singleSelection) {
+    if (this.singleSelection != singleSelection) {
+      this.singleSelection = singleSelection;
+      clearCheck();
+    }
+  }
+
+  /** Returns whether the user is prevented from unchecking the last checked chip. */
+  public boolean isSelectionRequired() {
+    return selectionRequired;
+  }
+
+  /** Sets whether the user is prevented from unchecking the last checked chip. */
+  public void setSelectionRequired(boolean selectionRequired) {
+    this.selectionRequired = selectionRequired;
+  }
+
+  /** Register a callback to be invoked when the checked state of a chip changes. */
+  public void setOnCheckedStateChangeListener(@Nullable OnCheckedStateChangeListener listener) {
+    onCheckedStateChangeListener = listener;
+  }
+
+  private void setCheckedState(int position, boolean checked) {
+    updateCheckedState(position, checked);
+    if (adapter != null) {
+      adapter.notifyItemChanged(position, PAYLOAD_CHECKED_STATE);
+    }
+  }
+
+  private void updateCheckedState(int position, boolean checked) {
+    if (checked) {
+      checkedPositions.put(position, true);
+    } else {
+      checkedPositions.delete(position);
+    }
+    if (onCheckedStateChangeListener != null) {
+      onCheckedStateChangeListener.onCheckedStateChanged(this, position, checked);
+    }
+  }
+
+  private int getAdapterPosition(@NonNull CompoundButton chip) {
+    if (recyclerView == null) {
+      return RecyclerView.NO_POSITION;
+    }
+    RecyclerView.ViewHolder holder = recyclerView.findContainingViewHolder(chip);
+    return holder != null ? holder.getAdapterPosition() : RecyclerView.NO_POSITION;
+  }
+
+  private class CheckedStateTracker implements CompoundButton.OnCheckedChangeListener {
+    @Override
+    public void onCheckedChanged(@NonNull CompoundButton buttonView, boolean isChecked) {
+      // prevents from infinite recursion
+      if (protectFromCheckedChange) {
+        return;
+      }
+
+      final int position = getAdapterPosition(buttonView);
+      if (position == RecyclerView.NO_POSITION || isChecked(position) == isChecked) {
+        return;
+      }
+
+      // The chip is still notified as changed, as its size may change along with its checked state
+      if (isChecked) {
+        if (singleSelection && checkedPositions.size() > 0) {
+          setCheckedState(checkedPositions.keyAt(0), false);
+        }
+        setCheckedState(position, true);
+      } else if (selectionRequired && checkedPositions.size() == 1) {
+        // The last checked chip can't be unchecked, so check it again
+        protectFromCheckedChange = true;
+        buttonView.setChecked(true);
+        protectFromCheckedChange = false;
+      } else {
+        setCheckedState(position, false);
+      }
+    }
+  }
+
+  /** Moves the checked positions along with the items of the adapter. */
+  private class PositionTracker extends RecyclerView.AdapterDataObserver {
+    @Override
+    public void onItemRangeInserted(int positionStart, int itemCount) {
+      shiftPositions(positionStart, Integer.MAX_VALUE, itemCount);
+    }
+
+    @Override
+    public void onItemRangeRemoved(int positionStart, int itemCount) {
+      for (int i = checkedPositions.size() - 1; i >= 0; i--) {
+        final int position = checkedPositions.keyAt(i);
+        if (position >= positionStart && position < positionStart + itemCount) {
+          checkedPositions.removeAt(i);
+        }
+      }
+      shiftPositions(positionStart + itemCount, Integer.MAX_VALUE, -itemCount);
+    }
+
+    @Override
+    public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+      // RecyclerView only dispatches moves of a single item
+      final boolean checked = checkedPositions.get(fromPosition);
+      checkedPositions.delete(fromPosition);
+      if (fromPosition < toPosition) {
+        shiftPositions(fromPosition + 1, toPosition + 1, -1);
+      } else {
+        shiftPositions(toPosition, fromPosition, 1);
+      }
+      if (checked) {
+        checkedPositions.put(toPosition, true);
+      }
+    }
+
+    /** Shifts the checked positions in [start, end) by delta. */
+    private void shiftPositions(int start, int end, int delta) {
+      List<Integer> shifted = null;
+      for (int i = checkedPositions.size() - 1; i >= 0; i--) {
+        final int position = checkedPositions.keyAt(i);
+        if (position >= start && position < end) {
+          if (shifted == null) {
+            shifted = new ArrayList<>();
+          }
+          shifted.add(position + delta);
+          checkedPositions.removeAt(i);
+        }
+      }
+      if (shifted != null) {
+        for (int i = 0; i < shifted.size(); i++) {
+          checkedPositions.put(shifted.get(i), true);
+        }
+      }
+    }
+  }
+}
@@ -40,6 +40,7 @@ import android.graphics.drawable.LayerDrawable;
 import android.os.Build;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
 import androidx.core.graphics.drawable.DrawableCompat;
 import androidx.core.util.Preconditions;
 import androidx.core.view.ViewCompat;
@@ -94,7 +95,8 @@ class FloatingActionButtonImpl {
   float pressedTranslationZ;
   int minTouchTargetSize;
 
-  @NonNull private final StateListAnimator stateListAnimator;
+  // Created on the first drawable state change, since the Lollipop implementation never uses it
+  @Nullable private StateListAnimator stateListAnimator;
 
   @Nullable private MotionSpec defaultShowMotionSpec;
   @Nullable private MotionSpec defaultHideMotionSpec;
@@ -155,29 +157,33 @@ class FloatingActionButtonImpl {
     this.view = view;
     this.shadowViewDelegate = shadowViewDelegate;
 
-    stateListAnimator = new StateListAnimator();
+    rotation = this.view.getRotation();
+  }
+
+  @NonNull
+  private StateListAnimator createStateListAnimator() {
+    StateListAnimator stateListAnimator = new StateListAnimator();
 
     // Elevate with translationZ when pressed, focused, or hovered
     stateListAnimator.addState(
         PRESSED_ENABLED_STATE_SET,
         createElevationAnimator(new ElevateToPressedTranslationZAnimation()));
+    // Only one of the animators runs at a time, so the hovered and focused ones share their
+    // animation.
+    ShadowAnimatorImpl hoveredFocusedAnimation = new ElevateToHoveredFocusedTranslationZAnimation();
     stateListAnimator.addState(
-        HOVERED_FOCUSED_ENABLED_STATE_SET,
-        createElevationAnimator(new ElevateToHoveredFocusedTranslationZAnimation()));
+        HOVERED_FOCUSED_ENABLED_STATE_SET, createElevationAnimator(hoveredFocusedAnimation));
     stateListAnimator.addState(
-        FOCUSED_ENABLED_STATE_SET,
-        createElevationAnimator(new ElevateToHoveredFocusedTranslationZAnimation()));
+        FOCUSED_ENABLED_STATE_SET, createElevationAnimator(hoveredFocusedAnimation));
     stateListAnimator.addState(
-        HOVERED_ENABLED_STATE_SET,
-        createElevationAnimator(new ElevateToHoveredFocusedTranslationZAnimation()));
+        HOVERED_ENABLED_STATE_SET, createElevationAnimator(hoveredFocusedAnimation));
     // Reset back to elevation by default
     stateListAnimator.addState(
         ENABLED_STATE_SET, createElevationAnimator(new ResetElevationAnimation()));
     // Set to 0 when disabled
     stateListAnimator.addState(
         EMPTY_STATE_SET, createElevationAnimator(new DisabledElevationAnimation()));
-
-    rotation = this.view.getRotation();
+    return stateListAnimator;
   }
 
   void initializeBackgroundDrawable(
@@ -379,11 +385,21 @@ class FloatingActionButtonImpl {
   }
 
   void onDrawableStateChanged(int[] state) {
+    if (stateListAnimator == null) {
+      stateListAnimator = createStateListAnimator();
+    }
     stateListAnimator.setState(state);
   }
 
   void jumpDrawableToCurrentState() {
-    stateListAnimator.jumpToCurrentState();
+    if (stateListAnimator != null) {
+      stateListAnimator.jumpToCurrentState();
+    }
+  }
+
+  @VisibleForTesting
+  boolean hasStateListAnimator() {
+    return stateListAnimator != null;
   }
 
   void addOnShowAnimationListener(@NonNull AnimatorListener listener) {
@@ -699,10 +715,9 @@ class FloatingActionButtonImpl {
   }
 
   void onDetachedFromWindow() {
-    ViewTreeObserver viewTreeObserver = view.getViewTreeObserver();
+    // Keeps the listener, for buttons that are attached again, like the ones in recycled rows
     if (preDrawListener != null) {
-      viewTreeObserver.removeOnPreDrawListener(preDrawListener);
-      preDrawListener = null;
+      view.getViewTreeObserver().removeOnPreDrawListener(preDrawListener);
     }
   }
 
@@ -32,6 +32,7 @@ import androidx.core.view.ViewCompat;
 import android.util.AttributeSet;
 import android.view.View;
 import android.view.ViewGroup;
+import java.util.Arrays;
 
 /**
  * Horizontally lay out children until the row is filled and then moved to the next line. Call
@@ -45,6 +46,31 @@ public class FlowLayout extends ViewGroup {
   private int itemSpacing;
   private boolean singleLine;
 
+  // The children that were measured and laid out last, and the flow state after placing each of
+  // them. A pass resumes from the first child that changed, instead of reflowing every child.
+  @NonNull private View[] measuredChildren = new View[0];
+  @NonNull private View[] laidOutChildren = new View[0];
+  // Whether each of those children was gone. Gone children are never measured or laid out, so
+  // their layout requested flag can't be used to tell whether they changed.
+  private boolean[] measuredChildrenGone = new boolean[0];
+  private boolean[] laidOutChildrenGone = new boolean[0];
+  private int measuredChildCount;
+  private int laidOutChildCount;
+  private int[] measureLefts = new int[0];
+  private int[] measureTops = new int[0];
+  private int[] measureBottoms = new int[0];
+  private int[] measureMaxRights = new int[0];
+  private int[] layoutStarts = new int[0];
+  private int[] layoutTops = new int[0];
+  private int[] layoutBottoms = new int[0];
+  private int lastWidthMeasureSpec;
+  private int lastHeightMeasureSpec;
+  private int lastLayoutWidth;
+  private boolean lastLayoutRtl;
+  private int lastPaddingLeft;
+  private int lastPaddingTop;
+  private int lastPaddingRight;
+
   public FlowLayout(@NonNull Context context) {
     this(context, null);
   }
@@ -81,6 +107,7 @@ public class FlowLayout extends ViewGroup {
 
   protected void setLineSpacing(int lineSpacing) {
     this.lineSpacing = lineSpacing;
+    invalidateFlow();
   }
 
   protected int getItemSpacing() {
@@ -89,6 +116,7 @@ public class FlowLayout extends ViewGroup {
 
   protected void setItemSpacing(int itemSpacing) {
     this.itemSpacing = itemSpacing;
+    invalidateFlow();
   }
 
   /** Returns whether this chip group is single line or reflowed multiline. */
@@ -99,6 +127,74 @@ public class FlowLayout extends ViewGroup {
   /** Sets whether this chip group is single line, or reflowed multiline. */
   public void setSingleLine(boolean singleLine) {
     this.singleLine = singleLine;
+    invalidateFlow();
+  }
+
+  /** Makes the next measure and layout passes reflow all children. */
+  private void invalidateFlow() {
+    measuredChildCount = 0;
+    laidOutChildCount = 0;
+    Arrays.fill(measuredChildren, null);
+    Arrays.fill(laidOutChildren, null);
+  }
+
+  /**
+   * Returns the index of the first child which changed since the last pass, limited to {@code
+   * validCount}. The children before it are placed exactly as they were in the last pass.
+   */
+  private int findFirstChangedChild(
+      @NonNull View[] lastChildren, @NonNull boolean[] lastChildrenGone, int validCount) {
+    final int count = Math.min(validCount, getChildCount());
+    for (int i = 0; i < count; i++) {
+      if (hasChildChanged(i, lastChildren, lastChildrenGone)) {
+        return i;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Returns the index of the last child which changed since the last pass. Once the flow state
+   * after a later child matches the last pass, the remaining children are placed as they were.
+   */
+  private int findLastChangedChild(
+      @NonNull View[] lastChildren, @NonNull boolean[] lastChildrenGone, int validCount) {
+    final int count = getChildCount();
+    if (count != validCount) {
+      return count - 1;
+    }
+    for (int i = count - 1; i >= 0; i--) {
+      if (hasChildChanged(i, lastChildren, lastChildrenGone)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private boolean hasChildChanged(
+      int index, @NonNull View[] lastChildren, @NonNull boolean[] lastChildrenGone) {
+    View child = getChildAt(index);
+    final boolean gone = child.getVisibility() == View.GONE;
+    return child != lastChildren[index]
+        || gone != lastChildrenGone[index]
+        || (!gone && child.isLayoutRequested());
+  }
+
+  private void ensureFlowCapacity(int count) {
+    if (measuredChildren.length < count) {
+      final int capacity = Math.max(count, measuredChildren.length * 2);
+      measuredChildren = Arrays.copyOf(measuredChildren, capacity);
+      laidOutChildren = Arrays.copyOf(laidOutChildren, capacity);
+      measuredChildrenGone = Arrays.copyOf(measuredChildrenGone, capacity);
+      laidOutChildrenGone = Arrays.copyOf(laidOutChildrenGone, capacity);
+      measureLefts = Arrays.copyOf(measureLefts, capacity);
+      measureTops = Arrays.copyOf(measureTops, capacity);
+      measureBottoms = Arrays.copyOf(measureBottoms, capacity);
+      measureMaxRights = Arrays.copyOf(measureMaxRights, capacity);
+      layoutStarts = Arrays.copyOf(layoutStarts, capacity);
+      layoutTops = Arrays.copyOf(layoutTops, capacity);
+      layoutBottoms = Arrays.copyOf(layoutBottoms, capacity);
+    }
   }
 
   @Override
@@ -114,16 +210,54 @@ public class FlowLayout extends ViewGroup {
             ? width
             : Integer.MAX_VALUE;
 
+    if (widthMeasureSpec != lastWidthMeasureSpec
+        || heightMeasureSpec != lastHeightMeasureSpec
+        || getPaddingLeft() != lastPaddingLeft
+        || getPaddingTop() != lastPaddingTop
+        || getPaddingRight() != lastPaddingRight) {
+      lastWidthMeasureSpec = widthMeasureSpec;
+      lastHeightMeasureSpec = heightMeasureSpec;
+      lastPaddingLeft = getPaddingLeft();
+      lastPaddingTop = getPaddingTop();
+      lastPaddingRight = getPaddingRight();
+      invalidateFlow();
+    }
+
+    // Children before the first changed one keep their size and position, so resume from there
+    final int childCount = getChildCount();
+    final int firstChanged =
+        findFirstChangedChild(measuredChildren, measuredChildrenGone, measuredChildCount);
+    final int lastChanged =
+        findLastChangedChild(measuredChildren, measuredChildrenGone, measuredChildCount);
+    final int lastChildCount = measuredChildCount;
+    ensureFlowCapacity(childCount);
+
     int childLeft = getPaddingLeft();
     int childTop = getPaddingTop();
     int childBottom = childTop;
     int childRight = childLeft;
     int maxChildRight = 0;
+    if (firstChanged > 0) {
+      childLeft = measureLefts[firstChanged - 1];
+      childTop = measureTops[firstChanged - 1];
+      childBottom = measureBottoms[firstChanged - 1];
+      maxChildRight = measureMaxRights[firstChanged - 1];
+    }
     final int maxRight = maxWidth - getPaddingRight();
-    for (int i = 0; i < getChildCount(); i++) {
+    for (int i = firstChanged; i < childCount; i++) {
       View child = getChildAt(i);
-
-      if (child.getVisibility() == View.GONE) {
+      measuredChildren[i] = child;
+      measuredChildrenGone[i] = child.getVisibility() == View.GONE;
+
+      if (measuredChildrenGone[i]) {
+        if (saveMeasureState(i, childLeft, childTop, childBottom, maxChildRight)
+            && i >= lastChanged
+            && i < lastChildCount) {
+          // The remaining children are measured and placed as they were in the last pass
+          childBottom = measureBottoms[childCount - 1];
+          maxChildRight = measureMaxRights[childCount - 1];
+          break;
+        }
         continue;
       }
       measureChild(child, widthMeasureSpec, heightMeasureSpec);
@@ -156,12 +290,29 @@ public class FlowLayout extends ViewGroup {
       }
 
       childLeft += (leftMargin + rightMargin + child.getMeasuredWidth()) + itemSpacing;
-
-      // For all preceding children, the child's right margin is taken into account in the next
-      // child's left bound (childLeft). However, childLeft is ignored after the last child so the
-      // last child's right margin needs to be explicitly added to Flowlayout's max right bound.
-      if (i == (getChildCount() - 1)) {
-        maxChildRight += rightMargin;
+      if (saveMeasureState(i, childLeft, childTop, childBottom, maxChildRight)
+          && i >= lastChanged
+          && i < lastChildCount) {
+        // The remaining children are measured and placed as they were in the last pass
+        childBottom = measureBottoms[childCount - 1];
+        maxChildRight = measureMaxRights[childCount - 1];
+        break;
+      }
+    }
+    for (int i = childCount; i < lastChildCount; i++) {
+      // Release the children that were removed
+      measuredChildren[i] = null;
+    }
+    measuredChildCount = childCount;
+
+    // For all preceding children, the child's right margin is taken into account in the next
+    // child's left bound (childLeft). However, childLeft is ignored after the last child so the
+    // last child's right margin needs to be explicitly added to Flowlayout's max right bound.
+    if (childCount > 0) {
+      View lastChild = getChildAt(childCount - 1);
+      LayoutParams lp = lastChild.getLayoutParams();
+      if (lastChild.getVisibility() != View.GONE && lp instanceof MarginLayoutParams) {
+        maxChildRight += ((MarginLayoutParams) lp).rightMargin;
       }
     }
 
@@ -173,6 +324,21 @@ public class FlowLayout extends ViewGroup {
     setMeasuredDimension(finalWidth, finalHeight);
   }
 
+  /** Saves the flow state after measuring a child, and returns whether it is unchanged. */
+  private boolean saveMeasureState(
+      int index, int childLeft, int childTop, int childBottom, int maxChildRight) {
+    final boolean unchanged =
+        measureLefts[index] == childLeft
+            && measureTops[index] == childTop
+            && measureBottoms[index] == childBottom
+            && measureMaxRights[index] == maxChildRight;
+    measureLefts[index] = childLeft;
+    measureTops[index] = childTop;
+    measureBottoms[index] = childBottom;
+    measureMaxRights[index] = maxChildRight;
+    return unchanged;
+  }
+
   private static int getMeasuredDimension(int size, int mode, int childrenEdge) {
     switch (mode) {
       case MeasureSpec.EXACTLY:
@@ -194,17 +360,45 @@ public class FlowLayout extends ViewGroup {
     boolean isRtl = ViewCompat.getLayoutDirection(this) == ViewCompat.LAYOUT_DIRECTION_RTL;
     int paddingStart = isRtl ? getPaddingRight() : getPaddingLeft();
     int paddingEnd = isRtl ? getPaddingLeft() : getPaddingRight();
+    if (right - left != lastLayoutWidth || isRtl != lastLayoutRtl) {
+      lastLayoutWidth = right - left;
+      lastLayoutRtl = isRtl;
+      laidOutChildCount = 0;
+    }
+
+    // Children before the first changed one are already in place, so resume from there
+    final int childCount = getChildCount();
+    final int firstChanged =
+        findFirstChangedChild(laidOutChildren, laidOutChildrenGone, laidOutChildCount);
+    final int lastChanged =
+        findLastChangedChild(laidOutChildren, laidOutChildrenGone, laidOutChildCount);
+    final int lastChildCount = laidOutChildCount;
+    ensureFlowCapacity(childCount);
+
     int childStart = paddingStart;
     int childTop = getPaddingTop();
     int childBottom = childTop;
     int childEnd;
+    if (firstChanged > 0) {
+      childStart = layoutStarts[firstChanged - 1];
+      childTop = layoutTops[firstChanged - 1];
+      childBottom = layoutBottoms[firstChanged - 1];
+    }
 
     final int maxChildEnd = right - left - paddingEnd;
 
-    for (int i = 0; i < getChildCount(); i++) {
+    for (int i = firstChanged; i < childCount; i++) {
       View child = getChildAt(i);
-
-      if (child.getVisibility() == View.GONE) {
+      laidOutChildren[i] = child;
+      laidOutChildrenGone[i] = child.getVisibility() == View.GONE;
+
+      if (laidOutChildrenGone[i]) {
+        if (saveLayoutState(i, childStart, childTop, childBottom)
+            && i >= lastChanged
+            && i < lastChildCount) {
+          // The remaining children are already in place
+          break;
+        }
         continue;
       }
 
@@ -235,6 +429,29 @@ public class FlowLayout extends ViewGroup {
       }
 
       childStart += (startMargin + endMargin + child.getMeasuredWidth()) + itemSpacing;
+      if (saveLayoutState(i, childStart, childTop, childBottom)
+          && i >= lastChanged
+          && i < lastChildCount) {
+        // The remaining children are already in place
+        break;
+      }
+    }
+    for (int i = childCount; i < lastChildCount; i++) {
+      // Release the children that were removed
+      laidOutChildren[i] = null;
     }
+    laidOutChildCount = childCount;
+  }
+
+  /** Saves the flow state after laying out a child, and returns whether it is unchanged. */
+  private boolean saveLayoutState(int index, int childStart, int childTop, int childBottom) {
+    final boolean unchanged =
+        layoutStarts[index] == childStart
+            && layoutTops[index] == childTop
+            && layoutBottoms[index] == childBottom;
+    layoutStarts[index] = childStart;
+    layoutTops[index] = childTop;
+    layoutBottoms[index] = childBottom;
+    return unchanged;
   }
 }
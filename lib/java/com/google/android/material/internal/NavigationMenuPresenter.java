@@ -41,8 +41,11 @@ import androidx.appcompat.view.menu.MenuItemImpl;
 import androidx.appcompat.view.menu.MenuPresenter;
 import androidx.appcompat.view.menu.MenuView;
 import androidx.appcompat.view.menu.SubMenuBuilder;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 import androidx.recyclerview.widget.RecyclerViewAccessibilityDelegate;
+import android.text.Spanned;
+import android.text.TextUtils;
 import android.util.SparseArray;
 import android.view.LayoutInflater;
 import android.view.SubMenu;
@@ -51,6 +54,9 @@ import android.view.ViewGroup;
 import android.widget.LinearLayout;
 import android.widget.TextView;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 /** @hide */
 @RestrictTo(LIBRARY_GROUP)
@@ -252,7 +258,7 @@ public class NavigationMenuPresenter implements MenuPresenter {
 
   public void setItemIconTintList(@Nullable ColorStateList tint) {
     iconTintList = tint;
-    updateMenuView(false);
+    updateItemAppearance();
   }
 
   @Nullable
@@ -262,13 +268,13 @@ public class NavigationMenuPresenter implements MenuPresenter {
 
   public void setItemTextColor(@Nullable ColorStateList textColor) {
     this.textColor = textColor;
-    updateMenuView(false);
+    updateItemAppearance();
   }
 
   public void setItemTextAppearance(@StyleRes int resId) {
     textAppearance = resId;
     textAppearanceSet = true;
-    updateMenuView(false);
+    updateItemAppearance();
   }
 
   @Nullable
@@ -278,7 +284,7 @@ public class NavigationMenuPresenter implements MenuPresenter {
 
   public void setItemBackground(@Nullable Drawable itemBackground) {
     this.itemBackground = itemBackground;
-    updateMenuView(false);
+    updateItemAppearance();
   }
 
   public int getItemHorizontalPadding() {
@@ -287,7 +293,7 @@ public class NavigationMenuPresenter implements MenuPresenter {
 
   public void setItemHorizontalPadding(int itemHorizontalPadding) {
     this.itemHorizontalPadding = itemHorizontalPadding;
-    updateMenuView(false);
+    updateItemAppearance();
   }
 
   public int getItemIconPadding() {
@@ -296,12 +302,12 @@ public class NavigationMenuPresenter implements MenuPresenter {
 
   public void setItemIconPadding(int itemIconPadding) {
     this.itemIconPadding = itemIconPadding;
-    updateMenuView(false);
+    updateItemAppearance();
   }
 
   public void setItemMaxLines(int itemMaxLines) {
     this.itemMaxLines = itemMaxLines;
-    updateMenuView(false);
+    updateItemAppearance();
   }
 
   public int getItemMaxLines() {
@@ -312,7 +318,14 @@ public class NavigationMenuPresenter implements MenuPresenter {
     if (this.itemIconSize != itemIconSize) {
       this.itemIconSize = itemIconSize;
       hasCustomItemIconSize = true;
-      updateMenuView(false);
+      updateItemAppearance();
+    }
+  }
+
+  /** Rebinds every item, as the appearance they are bound with has changed. */
+  private void updateItemAppearance() {
+    if (adapter != null) {
+      adapter.updateAll();
     }
   }
 
@@ -436,17 +449,47 @@ public class NavigationMenuPresenter implements MenuPresenter {
     private static final int VIEW_TYPE_SEPARATOR = 2;
     private static final int VIEW_TYPE_HEADER = 3;
 
+    // Payloads of the rows whose bound state partly changed, combined when merged
+    private static final int CHANGE_CHECKED = 1;
+    private static final int CHANGE_TITLE = 1 << 1;
+    private static final int CHANGE_ICON = 1 << 2;
+
+    private static final long HEADER_ID = 0;
+
     private final ArrayList<NavigationMenuItem> items = new ArrayList<>();
+    private final Map<MenuItemImpl, Long> stableIds = new WeakHashMap<>();
+    private long nextStableId = 1;
     private MenuItemImpl checkedItem;
     private boolean updateSuspended;
 
     NavigationMenuAdapter() {
+      setHasStableIds(true);
       prepareMenuItems();
     }
 
+    /**
+     * Returns an id that stays with the item across updates. Text items are keyed by their menu
+     * item, and separators by the text item that follows them.
+     */
     @Override
     public long getItemId(int position) {
-      return position;
+      NavigationMenuItem item = items.get(position);
+      if (item instanceof NavigationMenuTextItem) {
+        return getStableId(((NavigationMenuTextItem) item).getMenuItem()) << 1;
+      } else if (item instanceof NavigationMenuSeparatorItem) {
+        MenuItemImpl next = ((NavigationMenuTextItem) items.get(position + 1)).getMenuItem();
+        return getStableId(next) << 1 | 1;
+      }
+      return HEADER_ID;
+    }
+
+    private long getStableId(@NonNull MenuItemImpl menuItem) {
+      Long id = stableIds.get(menuItem);
+      if (id == null) {
+        id = nextStableId++;
+        stableIds.put(menuItem, id);
+      }
+      return id;
     }
 
     @Override
@@ -535,6 +578,30 @@ public class NavigationMenuPresenter implements MenuPresenter {
       }
     }
 
+    @Override
+    public void onBindViewHolder(
+        @NonNull ViewHolder holder, int position, @NonNull List<Object> payloads) {
+      if (payloads.isEmpty()) {
+        onBindViewHolder(holder, position);
+        return;
+      }
+      int changes = 0;
+      for (Object payload : payloads) {
+        changes |= (Integer) payload;
+      }
+      NavigationMenuItemView itemView = (NavigationMenuItemView) holder.itemView;
+      MenuItemImpl menuItem = ((NavigationMenuTextItem) items.get(position)).getMenuItem();
+      if ((changes & CHANGE_CHECKED) != 0) {
+        itemView.setChecked(menuItem.isChecked());
+      }
+      if ((changes & CHANGE_TITLE) != 0) {
+        itemView.setTitle(menuItem.getTitle());
+      }
+      if ((changes & CHANGE_ICON) != 0) {
+        itemView.setIcon(menuItem.getIcon());
+      }
+    }
+
     @Override
     public void onViewRecycled(ViewHolder holder) {
       if (holder instanceof NormalViewHolder) {
@@ -542,7 +609,21 @@ public class NavigationMenuPresenter implements MenuPresenter {
       }
     }
 
+    /**
+     * Rebuilds {@link #items} and notifies the rows that changed since the last update. Rows whose
+     * checked state, title or icon changed are rebound with a payload.
+     */
     public void update() {
+      if (updateSuspended) {
+        return;
+      }
+      List<NavigationMenuItem> oldItems = new ArrayList<>(items);
+      prepareMenuItems();
+      DiffUtil.calculateDiff(new ItemDiffCallback(oldItems, items)).dispatchUpdatesTo(this);
+    }
+
+    /** Rebuilds {@link #items} and rebinds every row. */
+    void updateAll() {
       prepareMenuItems();
       notifyDataSetChanged();
     }
@@ -617,6 +698,13 @@ public class NavigationMenuPresenter implements MenuPresenter {
           currentGroupId = groupId;
         }
       }
+      // Only now that the checked item is settled, capture the state the rows are bound with
+      for (int i = 0, size = items.size(); i < size; i++) {
+        NavigationMenuItem item = items.get(i);
+        if (item instanceof NavigationMenuTextItem) {
+          ((NavigationMenuTextItem) item).saveBoundState();
+        }
+      }
       updateSuspended = false;
     }
 
@@ -681,7 +769,7 @@ public class NavigationMenuPresenter implements MenuPresenter {
           }
         }
         updateSuspended = false;
-        prepareMenuItems();
+        update();
       }
       // Restore the states of the action views.
       SparseArray<ParcelableSparseArray> actionViewStates =
@@ -725,23 +813,152 @@ public class NavigationMenuPresenter implements MenuPresenter {
     }
   }
 
+  /** Computes the changes between two snapshots of {@link NavigationMenuAdapter#items}. */
+  private static class ItemDiffCallback extends DiffUtil.Callback {
+
+    private final List<NavigationMenuItem> oldItems;
+    private final List<NavigationMenuItem> newItems;
+
+    ItemDiffCallback(List<NavigationMenuItem> oldItems, List<NavigationMenuItem> newItems) {
+      this.oldItems = oldItems;
+      this.newItems = newItems;
+    }
+
+    @Override
+    public int getOldListSize() {
+      return oldItems.size();
+    }
+
+    @Override
+    public int getNewListSize() {
+      return newItems.size();
+    }
+
+    @Override
+    public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+      NavigationMenuItem oldItem = oldItems.get(oldItemPosition);
+      NavigationMenuItem newItem = newItems.get(newItemPosition);
+      if (oldItem instanceof NavigationMenuTextItem && newItem instanceof NavigationMenuTextItem) {
+        NavigationMenuTextItem oldTextItem = (NavigationMenuTextItem) oldItem;
+        NavigationMenuTextItem newTextItem = (NavigationMenuTextItem) newItem;
+        return oldTextItem.getMenuItem() == newTextItem.getMenuItem()
+            && oldTextItem.isSubheader == newTextItem.isSubheader;
+      }
+      return oldItem.getClass() == newItem.getClass();
+    }
+
+    @Override
+    public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+      NavigationMenuItem oldItem = oldItems.get(oldItemPosition);
+      NavigationMenuItem newItem = newItems.get(newItemPosition);
+      if (oldItem instanceof NavigationMenuTextItem) {
+        return ((NavigationMenuTextItem) oldItem).getChanges((NavigationMenuTextItem) newItem)
+            == 0;
+      } else if (oldItem instanceof NavigationMenuSeparatorItem) {
+        NavigationMenuSeparatorItem oldSeparator = (NavigationMenuSeparatorItem) oldItem;
+        NavigationMenuSeparatorItem newSeparator = (NavigationMenuSeparatorItem) newItem;
+        return oldSeparator.getPaddingTop() == newSeparator.getPaddingTop()
+            && oldSeparator.getPaddingBottom() == newSeparator.getPaddingBottom();
+      }
+      return true;
+    }
+
+    @Nullable
+    @Override
+    public Object getChangePayload(int oldItemPosition, int newItemPosition) {
+      NavigationMenuItem oldItem = oldItems.get(oldItemPosition);
+      NavigationMenuItem newItem = newItems.get(newItemPosition);
+      if (!(oldItem instanceof NavigationMenuTextItem)) {
+        return null;
+      }
+      NavigationMenuTextItem oldTextItem = (NavigationMenuTextItem) oldItem;
+      NavigationMenuTextItem newTextItem = (NavigationMenuTextItem) newItem;
+      int changes = oldTextItem.getChanges(newTextItem);
+      // Subheaders and items with an action view are cheap or unsafe to update partially
+      if (newTextItem.isSubheader
+          || newTextItem.actionView != null
+          || (changes & ~NavigationMenuTextItem.PARTIAL_CHANGES) != 0) {
+        return null;
+      }
+      return changes;
+    }
+  }
+
   /** Unified data model for all sorts of navigation menu items. */
   private interface NavigationMenuItem {}
 
   /** Normal or subheader items. */
   private static class NavigationMenuTextItem implements NavigationMenuItem {
 
+    private static final int PARTIAL_CHANGES =
+        NavigationMenuAdapter.CHANGE_CHECKED
+            | NavigationMenuAdapter.CHANGE_TITLE
+            | NavigationMenuAdapter.CHANGE_ICON;
+    private static final int CHANGE_OTHER = 1 << 3;
+
     private final MenuItemImpl menuItem;
+    private final boolean isSubheader;
 
     boolean needsEmptyIcon;
 
+    // The state of the menu item at the time the items were prepared
+    private boolean checked;
+    private boolean checkable;
+    private boolean enabled;
+    @Nullable private CharSequence title;
+    @Nullable private Drawable icon;
+    @Nullable private View actionView;
+    @Nullable private CharSequence contentDescription;
+    @Nullable private CharSequence tooltipText;
+
     NavigationMenuTextItem(MenuItemImpl item) {
       menuItem = item;
+      isSubheader = item.hasSubMenu();
     }
 
     public MenuItemImpl getMenuItem() {
       return menuItem;
     }
+
+    void saveBoundState() {
+      checked = menuItem.isChecked();
+      checkable = menuItem.isCheckable();
+      enabled = menuItem.isEnabled();
+      title = menuItem.getTitle();
+      icon = menuItem.getIcon();
+      actionView = menuItem.getActionView();
+      contentDescription = menuItem.getContentDescription();
+      tooltipText = menuItem.getTooltipText();
+    }
+
+    /** Returns the {@code CHANGE_*} flags of the state that differs from {@code other}. */
+    int getChanges(@NonNull NavigationMenuTextItem other) {
+      int changes = 0;
+      if (checked != other.checked) {
+        changes |= NavigationMenuAdapter.CHANGE_CHECKED;
+      }
+      if (!areTextsEqual(title, other.title)) {
+        changes |= NavigationMenuAdapter.CHANGE_TITLE;
+      }
+      if (icon != other.icon) {
+        changes |= NavigationMenuAdapter.CHANGE_ICON;
+      }
+      if (checkable != other.checkable
+          || enabled != other.enabled
+          || needsEmptyIcon != other.needsEmptyIcon
+          || actionView != other.actionView
+          || !areTextsEqual(contentDescription, other.contentDescription)
+          || !areTextsEqual(tooltipText, other.tooltipText)) {
+        changes |= CHANGE_OTHER;
+      }
+      return changes;
+    }
+
+    /** Compares the characters of two texts, and styled texts by identity. */
+    private static boolean areTextsEqual(@Nullable CharSequence a, @Nullable CharSequence b) {
+      return a == b
+          || (!(a instanceof Spanned) && !(b instanceof Spanned) && TextUtils.equals(a, b));
+    }
   }
 
   /** Separator items. */
@@ -96,7 +96,7 @@ public class TextDrawableHelper {
   }
 
   /** Returns the visual width of the {@code text} based on its current text appearance. */
-  public float getTextWidth(String text) {
+  public float getTextWidth(@Nullable CharSequence text) {
     if (!textWidthDirty) {
       return textWidth;
     }
@@ -37,6 +37,7 @@ import android.graphics.Color;
 import android.graphics.Paint;
 import android.graphics.PorterDuff;
 import android.graphics.RectF;
+import android.graphics.Typeface;
 import android.graphics.drawable.ColorDrawable;
 import android.graphics.drawable.Drawable;
 import android.graphics.drawable.GradientDrawable;
@@ -99,6 +100,7 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 
@@ -196,6 +198,12 @@ public class TabLayout extends HorizontalScrollView {
 
   private static final int ANIMATION_DURATION = 300;
 
+  /**
+   * Number of extra tabs bound on either side of the visible window when tab virtualization is
+   * enabled, so that small scrolls don't immediately require new views to be bound.
+   */
+  private static final int VIRTUALIZED_TAB_MARGIN = 2;
+
   private static final Pools.Pool<Tab> tabPool = new Pools.SynchronizedPool<>(16);
 
   /**
@@ -431,6 +439,8 @@ public class TabLayout extends HorizontalScrollView {
   boolean inlineLabel;
   boolean tabIndicatorFullWidth;
   boolean unboundedRipple;
+  private boolean tabVirtualizationEnabled;
+  private int virtualizedViewportWidth;
 
   @Nullable private OnTabSelectedListener selectedListener;
   private final ArrayList<OnTabSelectedListener> selectedListeners = new ArrayList<>();
@@ -634,7 +644,7 @@ public class TabLayout extends HorizontalScrollView {
       boolean updateSelectedText,
       boolean updateIndicatorPosition) {
     final int roundedPosition = Math.round(position + positionOffset);
-    if (roundedPosition < 0 || roundedPosition >= slidingTabIndicator.getChildCount()) {
+    if (roundedPosition < 0 || roundedPosition >= slidingTabIndicator.getTabPositionCount()) {
       return;
     }
 
@@ -853,7 +863,8 @@ public class TabLayout extends HorizontalScrollView {
   public Tab newTab() {
     Tab tab = createTabFromPool();
     tab.parent = this;
-    tab.view = createTabView(tab);
+    // Virtualized tabs are only given a view once they scroll into the visible window
+    tab.view = isTabVirtualizationActive() ? null : createTabView(tab);
     return tab;
   }
 
@@ -938,8 +949,13 @@ public class TabLayout extends HorizontalScrollView {
   /** Remove all tabs from the action bar and deselect the current tab. */
   public void removeAllTabs() {
     // Remove all the views
-    for (int i = slidingTabIndicator.getChildCount() - 1; i >= 0; i--) {
-      removeTabViewAt(i);
+    if (slidingTabIndicator.virtualized) {
+      slidingTabIndicator.unbindAllTabViews();
+      requestLayout();
+    } else {
+      for (int i = slidingTabIndicator.getChildCount() - 1; i >= 0; i--) {
+        removeTabViewAt(i);
+      }
     }
 
     for (final Iterator<Tab> i = tabs.iterator(); i.hasNext(); ) {
@@ -949,6 +965,7 @@ public class TabLayout extends HorizontalScrollView {
       releaseFromTabPool(tab);
     }
 
+    slidingTabIndicator.resetVirtualizedTabs();
     selectedTab = null;
   }
 
@@ -984,6 +1001,42 @@ public class TabLayout extends HorizontalScrollView {
     return mode;
   }
 
+  /**
+   * Sets whether tabs should be virtualized while in {@link #MODE_SCROLLABLE}.
+   *
+   * <p>When enabled, a tab view is only created for the tabs inside the visible window (plus a
+   * small margin on either side). Tab views that scroll out of that window are recycled and
+   * re-bound to the tabs that scroll into it, so memory and measure/layout cost stay bounded for
+   * very large numbers of tabs. Tabs which are not currently bound to a view will return {@code
+   * null} from {@link Tab#view}. Tabs are always laid out at their wrapped widths when virtualized,
+   * so {@link #GRAVITY_CENTER} has no effect.
+   *
+   * <p>This has no effect in {@link #MODE_FIXED} or {@link #MODE_AUTO}, which need to measure every
+   * tab.
+   *
+   * @param enabled whether scrollable tabs should be virtualized
+   * @see #isTabVirtualizationEnabled()
+   */
+  public void setTabVirtualizationEnabled(boolean enabled) {
+    if (tabVirtualizationEnabled != enabled) {
+      tabVirtualizationEnabled = enabled;
+      applyModeAndGravity();
+    }
+  }
+
+  /**
+   * Returns whether scrollable tabs are virtualized.
+   *
+   * @see #setTabVirtualizationEnabled(boolean)
+   */
+  public boolean isTabVirtualizationEnabled() {
+    return tabVirtualizationEnabled;
+  }
+
+  private boolean isTabVirtualizationActive() {
+    return tabVirtualizationEnabled && mode == MODE_SCROLLABLE;
+  }
+
   /**
    * Set the gravity to use when laying out the tabs.
    *
@@ -1057,6 +1110,7 @@ public class TabLayout extends HorizontalScrollView {
    */
   public void setTabIndicatorFullWidth(boolean tabIndicatorFullWidth) {
     this.tabIndicatorFullWidth = tabIndicatorFullWidth;
+    slidingTabIndicator.updateIndicatorPosition();
     ViewCompat.postInvalidateOnAnimation(slidingTabIndicator);
   }
 
@@ -1522,12 +1576,75 @@ public class TabLayout extends HorizontalScrollView {
   }
 
   private void addTabView(@NonNull Tab tab) {
-    final TabView tabView = tab.view;
+    if (slidingTabIndicator.virtualized) {
+      if (tab.view != null) {
+        // The tab was created before virtualization was enabled, it will be re-bound on demand
+        unbindTabView(tab);
+      }
+      slidingTabIndicator.insertVirtualizedTab(tab.getPosition());
+      return;
+    }
+    final TabView tabView = tab.view != null ? tab.view : bindTabView(tab);
     tabView.setSelected(false);
     tabView.setActivated(false);
     slidingTabIndicator.addView(tabView, tab.getPosition(), createLayoutParamsForTabs());
   }
 
+  /** Binds a (possibly recycled) {@link TabView} to the given tab. */
+  @NonNull
+  private TabView bindTabView(@NonNull Tab tab) {
+    final TabView tabView = createTabView(tab);
+    tab.view = tabView;
+    if (tab.detachedBadge != null) {
+      tabView.attachBadge(tab.detachedBadge);
+      tab.detachedBadge = null;
+    }
+    return tabView;
+  }
+
+  /**
+   * Detaches the given tab from its {@link TabView} and releases the view to the pool. Any badge
+   * is kept on the tab so that it can be re-attached when the tab is next bound.
+   */
+  private void unbindTabView(@NonNull Tab tab) {
+    final TabView tabView = tab.view;
+    if (tabView == null) {
+      return;
+    }
+    tab.detachedBadge = tabView.getBadge();
+    tabView.removeBadge();
+    tab.view = null;
+    tabView.reset();
+    tabViewPool.release(tabView);
+  }
+
+  /**
+   * Re-creates the tab views when switching between virtualized and non-virtualized tabs. Every
+   * view is unbound first; non-virtualized tabs are then all re-bound, while virtualized tabs are
+   * bound lazily during the next measure pass.
+   */
+  private void updateTabViewVirtualization() {
+    final boolean virtualize = isTabVirtualizationActive();
+    if (slidingTabIndicator.virtualized == virtualize) {
+      return;
+    }
+    slidingTabIndicator.unbindAllTabViews();
+    for (int i = 0, count = tabs.size(); i < count; i++) {
+      unbindTabView(tabs.get(i));
+    }
+    slidingTabIndicator.virtualized = virtualize;
+    slidingTabIndicator.resetVirtualizedTabs();
+    if (!virtualize) {
+      for (int i = 0, count = tabs.size(); i < count; i++) {
+        addTabView(tabs.get(i));
+      }
+      if (selectedTab != null) {
+        setSelectedTabView(selectedTab.getPosition());
+      }
+    }
+    requestLayout();
+  }
+
   @Override
   public void addView(View child) {
     addViewInternal(child);
@@ -1616,6 +1733,10 @@ public class TabLayout extends HorizontalScrollView {
     }
 
     final int specWidth = MeasureSpec.getSize(widthMeasureSpec);
+    virtualizedViewportWidth =
+        MeasureSpec.getMode(widthMeasureSpec) != MeasureSpec.UNSPECIFIED
+            ? specWidth - getPaddingLeft() - getPaddingRight()
+            : 0;
     if (MeasureSpec.getMode(widthMeasureSpec) != MeasureSpec.UNSPECIFIED) {
       // If we don't have an unspecified width spec, use the given size to calculate
       // the max tab width
@@ -1662,7 +1783,29 @@ public class TabLayout extends HorizontalScrollView {
     }
   }
 
+  @Override
+  protected void onScrollChanged(int l, int t, int oldl, int oldt) {
+    super.onScrollChanged(l, t, oldl, oldt);
+
+    // Bind views for any tabs which have been scrolled into the visible window
+    if (slidingTabIndicator.virtualized
+        && !slidingTabIndicator.isVisibleWindowBound(l, getVirtualizedViewportWidth())) {
+      slidingTabIndicator.requestLayout();
+    }
+  }
+
+  int getVirtualizedViewportWidth() {
+    return getWidth() > 0
+        ? getWidth() - getPaddingLeft() - getPaddingRight()
+        : virtualizedViewportWidth;
+  }
+
   private void removeTabViewAt(int position) {
+    if (slidingTabIndicator.virtualized) {
+      slidingTabIndicator.removeVirtualizedTab(position);
+      requestLayout();
+      return;
+    }
     final TabView view = (TabView) slidingTabIndicator.getChildAt(position);
     slidingTabIndicator.removeViewAt(position);
     if (view != null) {
@@ -1726,12 +1869,19 @@ public class TabLayout extends HorizontalScrollView {
    * @param position Position of the selected tab.
    */
   private void setSelectedTabView(int position) {
-    final int tabCount = slidingTabIndicator.getChildCount();
+    final int tabCount = slidingTabIndicator.getTabPositionCount();
     if (position < tabCount) {
-      for (int i = 0; i < tabCount; i++) {
+      // Only bound tab views need updating, virtualized tabs pick up their state when bound
+      final int firstPosition = slidingTabIndicator.getFirstBoundPosition();
+      for (int i = 0, childCount = slidingTabIndicator.getChildCount(); i < childCount; i++) {
         final View child = slidingTabIndicator.getChildAt(i);
-        child.setSelected(i == position);
-        child.setActivated(i == position);
+        final boolean selected = firstPosition + i == position;
+        // This is called on every scroll step while following a ViewPager, so skip tabs whose
+        // state is already correct to avoid refreshing their drawable state
+        if (child.isSelected() != selected || child.isActivated() != selected) {
+          child.setSelected(selected);
+          child.setActivated(selected);
+        }
       }
     }
   }
@@ -1808,16 +1958,15 @@ public class TabLayout extends HorizontalScrollView {
 
   private int calculateScrollXForTab(int position, float positionOffset) {
     if (mode == MODE_SCROLLABLE || mode == MODE_AUTO) {
-      final View selectedChild = slidingTabIndicator.getChildAt(position);
-      final View nextChild =
-          position + 1 < slidingTabIndicator.getChildCount()
-              ? slidingTabIndicator.getChildAt(position + 1)
-              : null;
-      final int selectedWidth = selectedChild != null ? selectedChild.getWidth() : 0;
-      final int nextWidth = nextChild != null ? nextChild.getWidth() : 0;
+      final int selectedWidth = slidingTabIndicator.getTabWidth(position);
+      final int nextWidth =
+          position + 1 < slidingTabIndicator.getTabPositionCount()
+              ? slidingTabIndicator.getTabWidth(position + 1)
+              : 0;
 
       // base scroll amount: places center of tab in center of parent
-      int scrollBase = selectedChild.getLeft() + (selectedWidth / 2) - (getWidth() / 2);
+      int scrollBase =
+          slidingTabIndicator.getTabLeft(position) + (selectedWidth / 2) - (getWidth() / 2);
       // offset amount: fraction of the distance between centers of tabs
       int scrollOffset = (int) ((selectedWidth + nextWidth) * 0.5f * positionOffset);
 
@@ -1846,6 +1995,7 @@ public class TabLayout extends HorizontalScrollView {
         break;
     }
 
+    updateTabViewVirtualization();
     updateTabViews(true);
   }
 
@@ -1885,7 +2035,11 @@ public class TabLayout extends HorizontalScrollView {
     // TODO(b/76413401): make package private after the widget migration is finished
     @Nullable public TabLayout parent;
     // TODO(b/76413401): make package private after the widget migration is finished
-    @NonNull public TabView view;
+    // This is null while tab virtualization is enabled and the tab is scrolled out of the bound
+    // window. See setTabVirtualizationEnabled().
+    @Nullable public TabView view;
+    // Holds the tab's badge while it is not bound to a view
+    @Nullable BadgeDrawable detachedBadge;
 
     // TODO(b/76413401): make package private constructor after the widget migration is finished
     public Tab() {
@@ -1953,8 +2107,9 @@ public class TabLayout extends HorizontalScrollView {
      */
     @NonNull
     public Tab setCustomView(@LayoutRes int resId) {
-      final LayoutInflater inflater = LayoutInflater.from(view.getContext());
-      return setCustomView(inflater.inflate(resId, view, false));
+      final ViewGroup root = view != null ? view : parent.slidingTabIndicator;
+      final LayoutInflater inflater = LayoutInflater.from(root.getContext());
+      return setCustomView(inflater.inflate(resId, root, false));
     }
 
     /**
@@ -2005,6 +2160,7 @@ public class TabLayout extends HorizontalScrollView {
       }
       updateView();
       if (BadgeUtils.USE_COMPAT_PARENT
+          && view != null
           && view.hasBadgeDrawable()
           && view.badgeDrawable.isVisible()) {
         // Invalidate the TabView if icon visibility has changed and a badge is displayed.
@@ -2036,7 +2192,7 @@ public class TabLayout extends HorizontalScrollView {
      */
     @NonNull
     public Tab setText(@Nullable CharSequence text) {
-      if (TextUtils.isEmpty(contentDesc) && !TextUtils.isEmpty(text)) {
+      if (view != null && TextUtils.isEmpty(contentDesc) && !TextUtils.isEmpty(text)) {
         // If no content description has been set, use the text as the content description of the
         // TabView. If the text is null, don't update the content description.
         view.setContentDescription(text);
@@ -2070,6 +2226,12 @@ public class TabLayout extends HorizontalScrollView {
      */
     @NonNull
     public BadgeDrawable getOrCreateBadge() {
+      if (view == null) {
+        if (detachedBadge == null) {
+          detachedBadge = BadgeDrawable.create(parent.getContext());
+        }
+        return detachedBadge;
+      }
       return view.getOrCreateBadge();
     }
 
@@ -2078,7 +2240,10 @@ public class TabLayout extends HorizontalScrollView {
      * visibility of the {@link BadgeDrawable} if you only want to hide it temporarily.
      */
     public void removeBadge() {
-      view.removeBadge();
+      detachedBadge = null;
+      if (view != null) {
+        view.removeBadge();
+      }
     }
 
     /**
@@ -2087,7 +2252,7 @@ public class TabLayout extends HorizontalScrollView {
      */
     @Nullable
     public BadgeDrawable getBadge() {
-      return view.getBadge();
+      return view != null ? view.getBadge() : detachedBadge;
     }
 
     /**
@@ -2111,6 +2276,7 @@ public class TabLayout extends HorizontalScrollView {
       }
       this.updateView();
       if (BadgeUtils.USE_COMPAT_PARENT
+          && view != null
           && view.hasBadgeDrawable()
           && view.badgeDrawable.isVisible()) {
         // Invalidate the TabView if label visibility has changed and a badge is displayed.
@@ -2191,7 +2357,14 @@ public class TabLayout extends HorizontalScrollView {
     public CharSequence getContentDescription() {
       // This returns the view's content description instead of contentDesc because if the title
       // is used as a replacement for the content description, contentDesc will be empty.
-      return (view == null) ? null : view.getContentDescription();
+      if (view == null) {
+        // Virtualized tabs without a view fall back to the same description the view would use
+        if (parent == null) {
+          return null;
+        }
+        return TextUtils.isEmpty(contentDesc) ? text : contentDesc;
+      }
+      return view.getContentDescription();
     }
 
     void updateView() {
@@ -2203,6 +2376,7 @@ public class TabLayout extends HorizontalScrollView {
     void reset() {
       parent = null;
       view = null;
+      detachedBadge = null;
       tag = null;
       icon = null;
       text = null;
@@ -2226,6 +2400,20 @@ public class TabLayout extends HorizontalScrollView {
 
     private int defaultMaxLines = 2;
 
+    // The inputs and result of the last text size resolution in onMeasure(). As long as the text,
+    // its typeface and the available width are unchanged (e.g. re-measures after a selection
+    // change), the resolved text size and max lines are re-applied without laying out the text
+    // to decide between the single and two-line text sizes again.
+    @Nullable private CharSequence measureCacheText;
+    @Nullable private Typeface measureCacheTypeface;
+    private float measureCacheTextSize = -1f;
+    private int measureCacheWidthSpec;
+    private boolean measureCacheIconVisible;
+    private int measureCacheMaxLines;
+    private int measureCacheMode;
+    private float resolvedTextSize;
+    private int resolvedMaxLines;
+
     public TabView(Context context) {
       super(context);
       updateBackgroundDrawable(context);
@@ -2393,6 +2581,19 @@ public class TabLayout extends HorizontalScrollView {
         widthMeasureSpec = origWidthMeasureSpec;
       }
 
+      final boolean iconVisible = iconView != null && iconView.getVisibility() == VISIBLE;
+      if (textView != null && isMeasureCacheValid(widthMeasureSpec, iconVisible)) {
+        // We've already resolved the text size for this text and width, apply it and measure once
+        if (textView.getTextSize() != resolvedTextSize) {
+          textView.setTextSize(TypedValue.COMPLEX_UNIT_PX, resolvedTextSize);
+        }
+        if (resolvedMaxLines >= 0 && TextViewCompat.getMaxLines(textView) != resolvedMaxLines) {
+          textView.setMaxLines(resolvedMaxLines);
+        }
+        super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+        return;
+      }
+
       // Now lets measure
       super.onMeasure(widthMeasureSpec, heightMeasureSpec);
 
@@ -2437,7 +2638,44 @@ public class TabLayout extends HorizontalScrollView {
             super.onMeasure(widthMeasureSpec, heightMeasureSpec);
           }
         }
+
+        updateMeasureCache(widthMeasureSpec, iconVisible);
+      }
+    }
+
+    private boolean isMeasureCacheValid(int widthMeasureSpec, boolean iconVisible) {
+      return measureCacheText != null
+          && measureCacheWidthSpec == widthMeasureSpec
+          && measureCacheTextSize == tabTextSize
+          && measureCacheIconVisible == iconVisible
+          && measureCacheMaxLines == defaultMaxLines
+          && measureCacheMode == mode
+          && measureCacheTypeface == textView.getTypeface()
+          && isSameMeasuredText(measureCacheText, textView.getText());
+    }
+
+    /**
+     * Returns whether {@code text} lays out like {@code cachedText}. Styled text with the same
+     * characters may still wrap differently, so it only matches the very same instance.
+     */
+    private boolean isSameMeasuredText(
+        @Nullable CharSequence cachedText, @Nullable CharSequence text) {
+      if (cachedText == text) {
+        return true;
       }
+      return cachedText instanceof String && text instanceof String && cachedText.equals(text);
+    }
+
+    private void updateMeasureCache(int widthMeasureSpec, boolean iconVisible) {
+      measureCacheText = textView.getText();
+      measureCacheWidthSpec = widthMeasureSpec;
+      measureCacheTextSize = tabTextSize;
+      measureCacheIconVisible = iconVisible;
+      measureCacheMaxLines = defaultMaxLines;
+      measureCacheMode = mode;
+      measureCacheTypeface = textView.getTypeface();
+      resolvedTextSize = textView.getTextSize();
+      resolvedMaxLines = TextViewCompat.getMaxLines(textView);
     }
 
     void setTab(@Nullable final Tab tab) {
@@ -2592,6 +2830,13 @@ public class TabLayout extends HorizontalScrollView {
       return badgeDrawable;
     }
 
+    /** Attaches an existing badge, e.g. one kept by a virtualized tab while it had no view. */
+    private void attachBadge(@NonNull BadgeDrawable badge) {
+      removeBadge();
+      badgeDrawable = badge;
+      tryUpdateBadgeAnchor();
+    }
+
     private void removeBadge() {
       if (badgeAnchorView != null) {
         tryRemoveBadgeFromAnchor();
@@ -2820,8 +3065,26 @@ public class TabLayout extends HorizontalScrollView {
     private int indicatorLeft = -1;
     private int indicatorRight = -1;
 
+    // The full and content bounds of each tab view, captured at the end of the last layout pass.
+    // Moving the indicator while scrolling reads these instead of querying the tab views, and the
+    // cache is dropped whenever a new layout is requested.
+    private static final int LAYOUT_BOUNDS_STRIDE = 4;
+    private int[] layoutTabBounds = new int[0];
+    private int layoutTabBoundsFirstPosition;
+    private int layoutTabBoundsCount;
+
     private ValueAnimator indicatorAnimator;
 
+    // When tabs are virtualized only a contiguous window of tabs, starting at firstBoundPosition,
+    // is attached as children. The width of every tab is cached (or estimated, if it has never
+    // been bound) so that tabs outside of the window can still be scrolled to and indicated.
+    boolean virtualized;
+    private int firstBoundPosition;
+    private int virtualizedTabCount;
+    private int estimatedTabWidth;
+    private int[] virtualizedTabWidths = new int[0];
+    private int[] virtualizedTabStarts = new int[1];
+
     SlidingTabIndicator(Context context) {
       super(context);
       setWillNotDraw(false);
@@ -2843,6 +3106,340 @@ public class TabLayout extends HorizontalScrollView {
       }
     }
 
+    /** Returns the number of tab positions, including virtualized tabs which have no view. */
+    int getTabPositionCount() {
+      return virtualized ? virtualizedTabCount : getChildCount();
+    }
+
+    /** Returns the tab position of the first child view. */
+    int getFirstBoundPosition() {
+      return virtualized ? firstBoundPosition : 0;
+    }
+
+    /** Returns the view for the tab at {@code position}, or null if the tab is not bound. */
+    @Nullable
+    View getTabViewAt(int position) {
+      return getChildAt(position - getFirstBoundPosition());
+    }
+
+    int getTabLeft(int position) {
+      if (virtualized) {
+        return getVirtualizedTabLeft(position);
+      }
+      final View child = getChildAt(position);
+      return child != null ? child.getLeft() : 0;
+    }
+
+    int getTabWidth(int position) {
+      if (virtualized) {
+        return getVirtualizedTabWidth(position);
+      }
+      final View child = getChildAt(position);
+      return child != null ? child.getWidth() : 0;
+    }
+
+    void resetVirtualizedTabs() {
+      virtualizedTabCount = virtualized ? tabs.size() : 0;
+      ensureVirtualizedCapacity(virtualizedTabCount);
+      Arrays.fill(virtualizedTabWidths, 0);
+      firstBoundPosition = 0;
+      estimatedTabWidth = 0;
+    }
+
+    void insertVirtualizedTab(int position) {
+      ensureVirtualizedCapacity(virtualizedTabCount + 1);
+      System.arraycopy(
+          virtualizedTabWidths,
+          position,
+          virtualizedTabWidths,
+          position + 1,
+          virtualizedTabCount - position);
+      virtualizedTabWidths[position] = 0;
+      virtualizedTabCount++;
+
+      final int childCount = getChildCount();
+      if (childCount > 0) {
+        if (position <= firstBoundPosition) {
+          firstBoundPosition++;
+        } else if (position < firstBoundPosition + childCount) {
+          // The new tab lands inside of the bound window, re-bind the window on the next measure
+          unbindAllTabViews();
+        }
+      }
+      requestLayout();
+    }
+
+    /** Called before the tab at {@code position} is removed from the list of tabs. */
+    void removeVirtualizedTab(int position) {
+      final int childCount = getChildCount();
+      if (position >= firstBoundPosition && position < firstBoundPosition + childCount) {
+        removeViewAt(position - firstBoundPosition);
+        unbindTabView(tabs.get(position));
+      } else if (position < firstBoundPosition) {
+        firstBoundPosition--;
+      }
+
+      System.arraycopy(
+          virtualizedTabWidths,
+          position + 1,
+          virtualizedTabWidths,
+          position,
+          virtualizedTabCount - position - 1);
+      virtualizedTabCount--;
+      virtualizedTabWidths[virtualizedTabCount] = 0;
+      requestLayout();
+    }
+
+    void unbindAllTabViews() {
+      for (int i = getChildCount() - 1; i >= 0; i--) {
+        unbindChildAt(i, false);
+      }
+      firstBoundPosition = 0;
+    }
+
+    /**
+     * Returns whether every tab which is at least partly visible with the given scroll position is
+     * currently bound to a view.
+     */
+    boolean isVisibleWindowBound(int scrollX, int viewportWidth) {
+      if (virtualizedTabCount == 0) {
+        return true;
+      }
+      final int visibleStart = getVisibleStart(scrollX, viewportWidth, getWidth());
+      final int first = findVirtualizedPositionAt(visibleStart);
+      final int last = findVirtualizedPositionAt(visibleStart + Math.max(viewportWidth, 1) - 1);
+      return getChildCount() > 0
+          && first >= firstBoundPosition
+          && last < firstBoundPosition + getChildCount();
+    }
+
+    private void ensureVirtualizedCapacity(int count) {
+      if (virtualizedTabWidths.length < count) {
+        final int capacity = Math.max(count, virtualizedTabWidths.length * 2);
+        virtualizedTabWidths = Arrays.copyOf(virtualizedTabWidths, capacity);
+        virtualizedTabStarts = Arrays.copyOf(virtualizedTabStarts, capacity + 1);
+      }
+    }
+
+    private int getVirtualizedTabWidth(int position) {
+      if (position < 0 || position >= virtualizedTabCount) {
+        return 0;
+      }
+      final int width = virtualizedTabWidths[position];
+      return width > 0 ? width : estimatedTabWidth;
+    }
+
+    private int getVirtualizedTabLeft(int position) {
+      if (position < 0 || position >= virtualizedTabCount) {
+        return 0;
+      }
+      final int start = virtualizedTabStarts[position];
+      return isLayoutRtl() ? getWidth() - start - getVirtualizedTabWidth(position) : start;
+    }
+
+    /** Converts a scroll position into an offset from the start edge of the tabs. */
+    private int getVisibleStart(int scrollX, int viewportWidth, int width) {
+      return isLayoutRtl() ? width - scrollX - viewportWidth : scrollX;
+    }
+
+    /** Returns the position of the tab containing the given offset from the start edge. */
+    private int findVirtualizedPositionAt(int offset) {
+      int low = 0;
+      int high = virtualizedTabCount - 1;
+      while (low < high) {
+        final int mid = (low + high + 1) >>> 1;
+        if (virtualizedTabStarts[mid] <= offset) {
+          low = mid;
+        } else {
+          high = mid - 1;
+        }
+      }
+      return low;
+    }
+
+    private boolean isLayoutRtl() {
+      return ViewCompat.getLayoutDirection(this) == ViewCompat.LAYOUT_DIRECTION_RTL;
+    }
+
+    /** Re-computes the estimated width for unbound tabs and every tab's start offset. */
+    private void updateVirtualizedTabStarts() {
+      int measuredWidth = 0;
+      int measuredCount = 0;
+      for (int i = 0; i < virtualizedTabCount; i++) {
+        if (virtualizedTabWidths[i] > 0) {
+          measuredWidth += virtualizedTabWidths[i];
+          measuredCount++;
+        }
+      }
+      estimatedTabWidth = measuredCount > 0 ? measuredWidth / measuredCount : getTabMinWidth();
+
+      int start = ViewCompat.getPaddingStart(this);
+      for (int i = 0; i < virtualizedTabCount; i++) {
+        virtualizedTabStarts[i] = start;
+        start += getVirtualizedTabWidth(i);
+      }
+      virtualizedTabStarts[virtualizedTabCount] = start;
+    }
+
+    private int getVirtualizedContentWidth() {
+      return virtualizedTabStarts[virtualizedTabCount] + ViewCompat.getPaddingEnd(this);
+    }
+
+    /**
+     * Binds views for the tabs in the visible window (plus a margin), recycling the views of tabs
+     * which are no longer in it. This is called while measuring, so views are attached and
+     * detached without requesting another layout.
+     */
+    private void bindVirtualizedWindow(int scrollX, int viewportWidth, int width) {
+      if (virtualizedTabCount == 0) {
+        for (int i = getChildCount() - 1; i >= 0; i--) {
+          unbindChildAt(i, true);
+        }
+        firstBoundPosition = 0;
+        return;
+      }
+
+      final int visibleStart = getVisibleStart(scrollX, viewportWidth, width);
+      final int first =
+          Math.max(0, findVirtualizedPositionAt(visibleStart) - VIRTUALIZED_TAB_MARGIN);
+      final int last =
+          Math.min(
+              virtualizedTabCount - 1,
+              findVirtualizedPositionAt(visibleStart + Math.max(viewportWidth, 1) - 1)
+                  + VIRTUALIZED_TAB_MARGIN);
+
+      if (getChildCount() > 0
+          && (last < firstBoundPosition || first >= firstBoundPosition + getChildCount())) {
+        // The new window doesn't overlap the old one, unbind everything
+        for (int i = getChildCount() - 1; i >= 0; i--) {
+          unbindChildAt(i, true);
+        }
+      }
+      if (getChildCount() == 0) {
+        firstBoundPosition = first;
+      }
+
+      // Recycle views which have left the window
+      while (firstBoundPosition < first) {
+        unbindChildAt(0, true);
+        firstBoundPosition++;
+      }
+      while (firstBoundPosition + getChildCount() - 1 > last) {
+        unbindChildAt(getChildCount() - 1, true);
+      }
+
+      // Then bind views for tabs which have entered it
+      while (firstBoundPosition > first) {
+        firstBoundPosition--;
+        addBoundTabView(tabs.get(firstBoundPosition), 0);
+      }
+      while (firstBoundPosition + getChildCount() <= last) {
+        addBoundTabView(tabs.get(firstBoundPosition + getChildCount()), getChildCount());
+      }
+    }
+
+    private void addBoundTabView(@NonNull Tab tab, int index) {
+      final TabView tabView = bindTabView(tab);
+      // Recycled views may carry the state of the tab they were last bound to
+      final boolean selected = tab.isSelected();
+      tabView.setSelected(selected);
+      tabView.setActivated(selected);
+      addViewInLayout(tabView, index, createLayoutParamsForTabs(), true);
+    }
+
+    private void unbindChildAt(int index, boolean inLayout) {
+      final TabView tabView = (TabView) getChildAt(index);
+      if (inLayout) {
+        removeViewInLayout(tabView);
+      } else {
+        removeViewAt(index);
+      }
+      final Tab tab = tabView.getTab();
+      if (tab != null && tab.view == tabView) {
+        unbindTabView(tab);
+      } else {
+        tabView.reset();
+        tabViewPool.release(tabView);
+      }
+    }
+
+    private void measureVirtualized(final int widthMeasureSpec, final int heightMeasureSpec) {
+      updateVirtualizedTabStarts();
+      bindVirtualizedWindow(
+          TabLayout.this.getScrollX(),
+          getVirtualizedViewportWidth(),
+          resolveSize(getVirtualizedContentWidth(), widthMeasureSpec));
+
+      final int verticalPadding = getPaddingTop() + getPaddingBottom();
+      final int childWidthMeasureSpec = MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED);
+      final int childHeightMeasureSpec =
+          getChildMeasureSpec(heightMeasureSpec, verticalPadding, LayoutParams.MATCH_PARENT);
+      int maxChildHeight = 0;
+      for (int i = 0, count = getChildCount(); i < count; i++) {
+        final View child = getChildAt(i);
+        child.measure(childWidthMeasureSpec, childHeightMeasureSpec);
+        virtualizedTabWidths[firstBoundPosition + i] = child.getMeasuredWidth();
+        maxChildHeight = Math.max(maxChildHeight, child.getMeasuredHeight());
+      }
+
+      final int height =
+          resolveSize(
+              Math.max(maxChildHeight + verticalPadding, getSuggestedMinimumHeight()),
+              heightMeasureSpec);
+      final int childHeight = height - verticalPadding;
+      for (int i = 0, count = getChildCount(); i < count; i++) {
+        // Tabs match our height, like they would in the non-virtualized LinearLayout
+        final View child = getChildAt(i);
+        if (child.getMeasuredHeight() != childHeight) {
+          child.measure(
+              MeasureSpec.makeMeasureSpec(child.getMeasuredWidth(), MeasureSpec.EXACTLY),
+              MeasureSpec.makeMeasureSpec(childHeight, MeasureSpec.EXACTLY));
+        }
+      }
+
+      updateVirtualizedTabStarts();
+      setMeasuredDimension(resolveSize(getVirtualizedContentWidth(), widthMeasureSpec), height);
+    }
+
+    private void layoutVirtualized() {
+      final int top = getPaddingTop();
+      for (int i = 0, count = getChildCount(); i < count; i++) {
+        final View child = getChildAt(i);
+        final int left = getVirtualizedTabLeft(firstBoundPosition + i);
+        child.layout(left, top, left + child.getMeasuredWidth(), top + child.getMeasuredHeight());
+      }
+    }
+
+    @Override
+    public void requestLayout() {
+      // Any layout request (including from a child tab) may move the tabs
+      layoutTabBoundsCount = 0;
+      super.requestLayout();
+    }
+
+    private void cacheLayoutTabBounds() {
+      final int count = getChildCount();
+      if (layoutTabBounds.length < count * LAYOUT_BOUNDS_STRIDE) {
+        layoutTabBounds = new int[count * LAYOUT_BOUNDS_STRIDE];
+      }
+      for (int i = 0; i < count; i++) {
+        final View child = getChildAt(i);
+        final int offset = i * LAYOUT_BOUNDS_STRIDE;
+        layoutTabBounds[offset] = child.getLeft();
+        layoutTabBounds[offset + 1] = child.getRight();
+        if (child instanceof TabView) {
+          calculateTabViewContentBounds((TabView) child, tabViewContentBounds);
+          layoutTabBounds[offset + 2] = (int) tabViewContentBounds.left;
+          layoutTabBounds[offset + 3] = (int) tabViewContentBounds.right;
+        } else {
+          layoutTabBounds[offset + 2] = child.getLeft();
+          layoutTabBounds[offset + 3] = child.getRight();
+        }
+      }
+      layoutTabBoundsFirstPosition = getFirstBoundPosition();
+      layoutTabBoundsCount = count;
+    }
+
     boolean childrenNeedLayout() {
       for (int i = 0, z = getChildCount(); i < z; i++) {
         final View child = getChildAt(i);
@@ -2883,6 +3480,11 @@ public class TabLayout extends HorizontalScrollView {
 
     @Override
     protected void onMeasure(final int widthMeasureSpec, final int heightMeasureSpec) {
+      if (virtualized) {
+        measureVirtualized(widthMeasureSpec, heightMeasureSpec);
+        return;
+      }
+
       super.onMeasure(widthMeasureSpec, heightMeasureSpec);
 
       if (MeasureSpec.getMode(widthMeasureSpec) != MeasureSpec.EXACTLY) {
@@ -2943,7 +3545,12 @@ public class TabLayout extends HorizontalScrollView {
 
     @Override
     protected void onLayout(boolean changed, int l, int t, int r, int b) {
-      super.onLayout(changed, l, t, r, b);
+      if (virtualized) {
+        layoutVirtualized();
+      } else {
+        super.onLayout(changed, l, t, r, b);
+      }
+      cacheLayoutTabBounds();
 
       if (indicatorAnimator != null && indicatorAnimator.isRunning()) {
         // If we're currently running an animation, lets cancel it and start a
@@ -2960,31 +3567,19 @@ public class TabLayout extends HorizontalScrollView {
     }
 
     private void updateIndicatorPosition() {
-      final View selectedTitle = getChildAt(selectedPosition);
       int left;
       int right;
 
-      if (selectedTitle != null && selectedTitle.getWidth() > 0) {
-        left = selectedTitle.getLeft();
-        right = selectedTitle.getRight();
+      if (calculateIndicatorBounds(selectedPosition, tabViewContentBounds)) {
+        left = (int) tabViewContentBounds.left;
+        right = (int) tabViewContentBounds.right;
 
-        if (!tabIndicatorFullWidth && selectedTitle instanceof TabView) {
-          calculateTabViewContentBounds((TabView) selectedTitle, tabViewContentBounds);
-          left = (int) tabViewContentBounds.left;
-          right = (int) tabViewContentBounds.right;
-        }
-
-        if (selectionOffset > 0f && selectedPosition < getChildCount() - 1) {
+        if (selectionOffset > 0f
+            && selectedPosition < getTabPositionCount() - 1
+            && calculateIndicatorBounds(selectedPosition + 1, tabViewContentBounds)) {
           // Draw the selection partway between the tabs
-          View nextTitle = getChildAt(selectedPosition + 1);
-          int nextTitleLeft = nextTitle.getLeft();
-          int nextTitleRight = nextTitle.getRight();
-
-          if (!tabIndicatorFullWidth && nextTitle instanceof TabView) {
-            calculateTabViewContentBounds((TabView) nextTitle, tabViewContentBounds);
-            nextTitleLeft = (int) tabViewContentBounds.left;
-            nextTitleRight = (int) tabViewContentBounds.right;
-          }
+          int nextTitleLeft = (int) tabViewContentBounds.left;
+          int nextTitleRight = (int) tabViewContentBounds.right;
 
           left = (int) (selectionOffset * nextTitleLeft + (1.0f - selectionOffset) * left);
           right = (int) (selectionOffset * nextTitleRight + (1.0f - selectionOffset) * right);
@@ -2999,10 +3594,14 @@ public class TabLayout extends HorizontalScrollView {
 
     void setIndicatorPosition(int left, int right) {
       if (left != indicatorLeft || right != indicatorRight) {
-        // If the indicator's left/right has changed, invalidate
+        // If the indicator's left/right has changed, invalidate only the area covered by the old
+        // and the new indicator. Moving the indicator never needs a measure or layout pass.
+        final int invalidateLeft = indicatorLeft >= 0 ? Math.min(indicatorLeft, left) : left;
+        final int invalidateRight = Math.max(indicatorRight, right);
         indicatorLeft = left;
         indicatorRight = right;
-        ViewCompat.postInvalidateOnAnimation(this);
+        ViewCompat.postInvalidateOnAnimation(
+            this, Math.max(0, invalidateLeft), 0, invalidateRight, getHeight());
       }
     }
 
@@ -3011,24 +3610,14 @@ public class TabLayout extends HorizontalScrollView {
         indicatorAnimator.cancel();
       }
 
-      final View targetView = getChildAt(position);
-      if (targetView == null) {
+      if (!calculateIndicatorBounds(position, tabViewContentBounds)) {
         // If we don't have a view, just update the position now and return
         updateIndicatorPosition();
         return;
       }
 
-      int targetLeft = targetView.getLeft();
-      int targetRight = targetView.getRight();
-
-      if (!tabIndicatorFullWidth && targetView instanceof TabView) {
-        calculateTabViewContentBounds((TabView) targetView, tabViewContentBounds);
-        targetLeft = (int) tabViewContentBounds.left;
-        targetRight = (int) tabViewContentBounds.right;
-      }
-
-      final int finalTargetLeft = targetLeft;
-      final int finalTargetRight = targetRight;
+      final int finalTargetLeft = (int) tabViewContentBounds.left;
+      final int finalTargetRight = (int) tabViewContentBounds.right;
 
       final int startLeft = indicatorLeft;
       final int startRight = indicatorRight;
@@ -3060,6 +3649,44 @@ public class TabLayout extends HorizontalScrollView {
       }
     }
 
+    /**
+     * Calculates the left and right bounds of the indicator for the tab at {@code position}.
+     *
+     * <p>Virtualized tabs which are not bound to a view use their cached (or estimated) bounds, so
+     * that the indicator can still move towards an off-screen tab. The indicator is corrected on
+     * the next layout, once the tab has been bound.
+     *
+     * @return whether bounds could be calculated for the tab.
+     */
+    private boolean calculateIndicatorBounds(int position, @NonNull RectF bounds) {
+      final int index = position - layoutTabBoundsFirstPosition;
+      if (index >= 0 && index < layoutTabBoundsCount) {
+        final int offset = index * LAYOUT_BOUNDS_STRIDE + (tabIndicatorFullWidth ? 0 : 2);
+        final int left = layoutTabBounds[offset];
+        final int right = layoutTabBounds[offset + 1];
+        if (right > left) {
+          bounds.set(left, 0, right, 0);
+          return true;
+        }
+      }
+
+      final View tabView = getTabViewAt(position);
+      if (tabView != null && tabView.getWidth() > 0) {
+        if (!tabIndicatorFullWidth && tabView instanceof TabView) {
+          calculateTabViewContentBounds((TabView) tabView, bounds);
+        } else {
+          bounds.set(tabView.getLeft(), 0, tabView.getRight(), 0);
+        }
+        return true;
+      }
+      if (virtualized && position >= 0 && position < virtualizedTabCount && getWidth() > 0) {
+        final int left = getVirtualizedTabLeft(position);
+        bounds.set(left, 0, left + getVirtualizedTabWidth(position), 0);
+        return true;
+      }
+      return false;
+    }
+
     /**
      * Given a {@link TabView}, calculate the left and right bounds of its content.
      *
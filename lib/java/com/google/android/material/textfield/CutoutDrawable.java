@@ -23,11 +23,12 @@ import android.graphics.Paint.Style;
 import android.graphics.PorterDuff.Mode;
 import android.graphics.PorterDuffXfermode;
 import android.graphics.RectF;
+import android.graphics.Region.Op;
 import android.os.Build.VERSION;
 import android.os.Build.VERSION_CODES;
+import android.view.View;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
-import android.view.View;
 import com.google.android.material.shape.MaterialShapeDrawable;
 import com.google.android.material.shape.ShapeAppearanceModel;
 
@@ -36,8 +37,9 @@ import com.google.android.material.shape.ShapeAppearanceModel;
  * outline mode.
  */
 class CutoutDrawable extends MaterialShapeDrawable {
-  @NonNull private final Paint cutoutPaint;
   @NonNull private final RectF cutoutBounds;
+  // Only used below API 18, where hardware canvases can't clip out a rect
+  @Nullable private Paint cutoutPaint;
   private int savedLayer;
 
   CutoutDrawable() {
@@ -46,17 +48,9 @@ class CutoutDrawable extends MaterialShapeDrawable {
 
   CutoutDrawable(@Nullable ShapeAppearanceModel shapeAppearanceModel) {
     super(shapeAppearanceModel != null ? shapeAppearanceModel : new ShapeAppearanceModel());
-    cutoutPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-    setPaintStyles();
     cutoutBounds = new RectF();
   }
 
-  private void setPaintStyles() {
-    cutoutPaint.setStyle(Style.FILL_AND_STROKE);
-    cutoutPaint.setColor(Color.WHITE);
-    cutoutPaint.setXfermode(new PorterDuffXfermode(Mode.DST_OUT));
-  }
-
   boolean hasCutout() {
     return !cutoutBounds.isEmpty();
   }
@@ -84,6 +78,36 @@ class CutoutDrawable extends MaterialShapeDrawable {
 
   @Override
   public void draw(@NonNull Canvas canvas) {
+    if (!hasCutout()) {
+      super.draw(canvas);
+      return;
+    }
+
+    if (VERSION.SDK_INT < VERSION_CODES.JELLY_BEAN_MR2) {
+      drawErasingCutout(canvas);
+      return;
+    }
+
+    // Clip the cutout out of the shape rather than erasing it afterwards, which would need an
+    // offscreen layer (or a hardware layer on the view) to erase into.
+    int saveCount = canvas.save();
+    if (VERSION.SDK_INT >= VERSION_CODES.O) {
+      canvas.clipOutRect(cutoutBounds);
+    } else {
+      canvas.clipRect(cutoutBounds, Op.DIFFERENCE);
+    }
+    super.draw(canvas);
+    canvas.restoreToCount(saveCount);
+  }
+
+  private void drawErasingCutout(@NonNull Canvas canvas) {
+    if (cutoutPaint == null) {
+      cutoutPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+      cutoutPaint.setStyle(Style.FILL_AND_STROKE);
+      cutoutPaint.setColor(Color.WHITE);
+      cutoutPaint.setXfermode(new PorterDuffXfermode(Mode.DST_OUT));
+    }
+
     preDraw(canvas);
     super.draw(canvas);
 
@@ -104,14 +128,6 @@ class CutoutDrawable extends MaterialShapeDrawable {
       }
     } else {
       // If we're not using a hardware layer, save the canvas layer.
-      saveCanvasLayer(canvas);
-    }
-  }
-
-  private void saveCanvasLayer(@NonNull Canvas canvas) {
-    if (VERSION.SDK_INT >= VERSION_CODES.LOLLIPOP) {
-      savedLayer = canvas.saveLayer(0, 0, canvas.getWidth(), canvas.getHeight(), null);
-    } else {
       savedLayer =
           canvas.saveLayer(0, 0, canvas.getWidth(), canvas.getHeight(), null, Canvas.ALL_SAVE_FLAG);
     }
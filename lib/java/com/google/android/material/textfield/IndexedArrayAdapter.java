@@ -0,0 +1,222 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.textfield;
+
+import android.content.Context;
+import androidx.annotation.LayoutRes;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import android.text.TextUtils;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.BaseAdapter;
+import android.widget.Filter;
+import android.widget.Filterable;
+import android.widget.TextView;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * An adapter for the items of an exposed dropdown menu, for menus with too many items for the
+ * linear scan of an {@link android.widget.ArrayAdapter} on every keystroke.
+ *
+ * <p>Items match a constraint the way they do in an {@link android.widget.ArrayAdapter}: when their
+ * lower case string starts with the lower case constraint, or when one of its space separated words
+ * does. Instead of comparing every item, the first time the items are filtered the adapter builds
+ * a sorted index of their words on the filter thread, and looks up each constraint in it with a
+ * binary search.
+ *
+ * <p>Stale constraints are left to {@link Filter}: it filters on a single thread, and a request made
+ * while another one is in progress replaces any request still waiting, so that only the latest
+ * constraint is filtered next. The results are published as the positions of the matching items,
+ * without copying the items.
+ *
+ * <p>The items can't be changed once the adapter is created. The layout used for the items must be
+ * a {@link TextView}, which shows the {@link Object#toString()} of its item.
+ *
+ * @param <T> the type of the items
+ */
+public class IndexedArrayAdapter<T> extends BaseAdapter implements Filterable {
+
+  private final LayoutInflater inflater;
+  @LayoutRes private final int resource;
+  private final List<T> items;
+
+  private final Object indexLock = new Object();
+  // Sorted keys, and the position of the item of each key. Built on the filter thread.
+  @Nullable private String[] indexKeys;
+  @Nullable private int[] indexPositions;
+
+  // The positions of the items shown, or null to show every item
+  @Nullable private int[] filteredPositions;
+  @Nullable private IndexFilter filter;
+
+  public IndexedArrayAdapter(
+      @NonNull Context context, @LayoutRes int resource, @NonNull Collection<? extends T> items) {
+    inflater = LayoutInflater.from(context);
+    this.resource = resource;
+    this.items = new ArrayList<>(items);
+  }
+
+  @Override
+  public int getCount() {
+    return filteredPositions != null ? filteredPositions.length : items.size();
+  }
+
+  @Override
+  public T getItem(int position) {
+    return items.get(filteredPositions != null ? filteredPositions[position] : position);
+  }
+
+  @Override
+  public long getItemId(int position) {
+    return position;
+  }
+
+  @NonNull
+  @Override
+  public View getView(int position, @Nullable View convertView, @NonNull ViewGroup parent) {
+    TextView view =
+        (TextView) (convertView != null ? convertView : inflater.inflate(resource, parent, false));
+    T item = getItem(position);
+    view.setText(item instanceof CharSequence ? (CharSequence) item : String.valueOf(item));
+    return view;
+  }
+
+  @NonNull
+  @Override
+  public Filter getFilter() {
+    if (filter == null) {
+      filter = new IndexFilter();
+    }
+    return filter;
+  }
+
+  /** Returns the positions of the items that match {@code constraint}, in ascending order. */
+  @NonNull
+  int[] findMatchingPositions(@NonNull String constraint) {
+    buildIndexIfNeeded();
+    String[] keys = indexKeys;
+    int[] positions = indexPositions;
+
+    // The keys starting with the constraint are consecutive, starting from its insertion point
+    int index = Arrays.binarySearch(keys, constraint);
+    if (index < 0) {
+      index = -index - 1;
+    }
+    // An item may have several matching words, so collect its position only once
+    BitSet matches = new BitSet(items.size());
+    for (; index < keys.length && keys[index].startsWith(constraint); index++) {
+      matches.set(positions[index]);
+    }
+
+    int[] result = new int[matches.cardinality()];
+    for (int i = 0, position = matches.nextSetBit(0);
+        position >= 0;
+        i++, position = matches.nextSetBit(position + 1)) {
+      result[i] = position;
+    }
+    return result;
+  }
+
+  private void buildIndexIfNeeded() {
+    synchronized (indexLock) {
+      if (indexKeys != null) {
+        return;
+      }
+      // Keys are the whole lower case string of each item, and each of its words but the first,
+      // which the whole string already covers.
+      List<IndexEntry> entries = new ArrayList<>(items.size());
+      for (int position = 0; position < items.size(); position++) {
+        String text = String.valueOf(items.get(position)).toLowerCase();
+        entries.add(new IndexEntry(text, position));
+        String[] words = text.split(" ");
+        for (int i = 1; i < words.length; i++) {
+          if (!words[i].isEmpty()) {
+            entries.add(new IndexEntry(words[i], position));
+          }
+        }
+      }
+      IndexEntry[] sortedEntries = entries.toArray(new IndexEntry[0]);
+      Arrays.sort(
+          sortedEntries,
+          new Comparator<IndexEntry>() {
+            @Override
+            public int compare(IndexEntry a, IndexEntry b) {
+              return a.key.compareTo(b.key);
+            }
+          });
+      String[] keys = new String[sortedEntries.length];
+      int[] positions = new int[sortedEntries.length];
+      for (int i = 0; i < sortedEntries.length; i++) {
+        keys[i] = sortedEntries[i].key;
+        positions[i] = sortedEntries[i].position;
+      }
+      indexPositions = positions;
+      indexKeys = keys;
+    }
+  }
+
+  private static class IndexEntry {
+    final String key;
+    final int position;
+
+    IndexEntry(String key, int position) {
+      this.key = key;
+      this.position = position;
+    }
+  }
+
+  private class IndexFilter extends Filter {
+
+    @NonNull
+    @Override
+    protected FilterResults performFiltering(@Nullable CharSequence constraint) {
+      FilterResults results = new FilterResults();
+      if (TextUtils.isEmpty(constraint)) {
+        results.count = items.size();
+        return results;
+      }
+      int[] positions = findMatchingPositions(constraint.toString().toLowerCase());
+      results.values = positions;
+      results.count = positions.length;
+      return results;
+    }
+
+    @Override
+    protected void publishResults(@Nullable CharSequence constraint, FilterResults results) {
+      filteredPositions = (int[]) results.values;
+      if (results.count > 0) {
+        notifyDataSetChanged();
+      } else {
+        notifyDataSetInvalidated();
+      }
+    }
+
+    @Override
+    public CharSequence convertResultToString(Object resultValue) {
+      return resultValue instanceof CharSequence
+          ? (CharSequence) resultValue
+          : String.valueOf(resultValue);
+    }
+  }
+}
@@ -23,7 +23,6 @@ import static android.view.View.VISIBLE;
 
 import android.animation.Animator;
 import android.animation.AnimatorListenerAdapter;
-import android.animation.AnimatorSet;
 import android.animation.ObjectAnimator;
 import android.content.Context;
 import android.content.res.ColorStateList;
@@ -45,11 +44,8 @@ import android.widget.LinearLayout;
 import android.widget.Space;
 import android.widget.TextView;
 import com.google.android.material.animation.AnimationUtils;
-import com.google.android.material.animation.AnimatorSetCompat;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
-import java.util.ArrayList;
-import java.util.List;
 
 /**
  * Controller for indicator views underneath the text input line in {@link
@@ -95,7 +91,6 @@ final class IndicatorViewController {
 
   private FrameLayout captionArea;
   private int captionViewsAdded;
-  @Nullable private Animator captionAnimator;
   private final float captionTranslationYPx;
   private int captionDisplayed;
   private int captionToShow;
@@ -103,12 +98,14 @@ final class IndicatorViewController {
   @Nullable private CharSequence errorText;
   private boolean errorEnabled;
   @Nullable private TextView errorView;
+  @Nullable private CaptionAnimator errorViewAnimator;
   private int errorTextAppearance;
   @Nullable private ColorStateList errorViewTextColor;
 
   private CharSequence helperText;
   private boolean helperTextEnabled;
   @Nullable private TextView helperTextView;
+  @Nullable private CaptionAnimator helperTextViewAnimator;
   private int helperTextTextAppearance;
   @Nullable private ColorStateList helperTextViewTextColor;
 
@@ -122,7 +119,7 @@ final class IndicatorViewController {
   }
 
   void showHelper(final CharSequence helperText) {
-    cancelCaptionAnimator();
+    interruptCaptionAnimators();
     this.helperText = helperText;
     helperTextView.setText(helperText);
 
@@ -135,7 +132,7 @@ final class IndicatorViewController {
   }
 
   void hideHelperText() {
-    cancelCaptionAnimator();
+    interruptCaptionAnimators();
 
     // Hide helper if it's shown.
     if (captionDisplayed == CAPTION_STATE_HELPER_TEXT) {
@@ -146,7 +143,7 @@ final class IndicatorViewController {
   }
 
   void showError(final CharSequence errorText) {
-    cancelCaptionAnimator();
+    interruptCaptionAnimators();
     this.errorText = errorText;
     errorView.setText(errorText);
 
@@ -160,7 +157,7 @@ final class IndicatorViewController {
 
   void hideError() {
     errorText = null;
-    cancelCaptionAnimator();
+    interruptCaptionAnimators();
     // Hide  error if it's shown.
     if (captionDisplayed == CAPTION_STATE_ERROR) {
       // If helper text is enabled and not empty, show helper text in place of the error.
@@ -185,70 +182,44 @@ final class IndicatorViewController {
    */
   private boolean shouldAnimateCaptionView(
       @Nullable TextView captionView, @Nullable final CharSequence captionText) {
-    return ViewCompat.isLaidOut(textInputView)
-        && textInputView.isEnabled()
+    return canAnimateCaptionViews()
         && (captionToShow != captionDisplayed
             || captionView == null
             || !TextUtils.equals(captionView.getText(), captionText));
   }
 
+  /**
+   * Prepares the caption views for a new transition. If the caption views can animate, a
+   * transition in progress is considered done, and its animators carry on from their current values
+   * towards the new targets. Otherwise the animators are ended.
+   */
+  private void interruptCaptionAnimators() {
+    if (!canAnimateCaptionViews()) {
+      cancelCaptionAnimator();
+    } else if (isCaptionAnimatorRunning(null)) {
+      captionDisplayed = captionToShow;
+    }
+  }
+
+  private boolean canAnimateCaptionViews() {
+    return ViewCompat.isLaidOut(textInputView) && textInputView.isEnabled();
+  }
+
   private void updateCaptionViewsVisibility(
       final @CaptionDisplayState int captionToHide,
       final @CaptionDisplayState int captionToShow,
       boolean animate) {
 
     if (animate) {
-      final AnimatorSet captionAnimator = new AnimatorSet();
-      this.captionAnimator = captionAnimator;
-      List<Animator> captionAnimatorList = new ArrayList<>();
-
-      createCaptionAnimators(
-          captionAnimatorList,
+      animateCaptionView(
           helperTextEnabled,
-          helperTextView,
+          helperTextViewAnimator,
           CAPTION_STATE_HELPER_TEXT,
           captionToHide,
           captionToShow);
 
-      createCaptionAnimators(
-          captionAnimatorList,
-          errorEnabled,
-          errorView,
-          CAPTION_STATE_ERROR,
-          captionToHide,
-          captionToShow);
-
-      AnimatorSetCompat.playTogether(captionAnimator, captionAnimatorList);
-      final TextView captionViewToHide = getCaptionViewFromDisplayState(captionToHide);
-      final TextView captionViewToShow = getCaptionViewFromDisplayState(captionToShow);
-
-      captionAnimator.addListener(
-          new AnimatorListenerAdapter() {
-            @Override
-            public void onAnimationEnd(Animator animator) {
-              captionDisplayed = captionToShow;
-              IndicatorViewController.this.captionAnimator = null;
-              if (captionViewToHide != null) {
-                captionViewToHide.setVisibility(View.INVISIBLE);
-                if (captionToHide == CAPTION_STATE_ERROR && errorView != null) {
-                  errorView.setText(null);
-                }
-
-                if (captionViewToShow != null) {
-                  captionViewToShow.setTranslationY(0f);
-                  captionViewToShow.setAlpha(1f);
-                }
-              }
-            }
-
-            @Override
-            public void onAnimationStart(Animator animator) {
-              if (captionViewToShow != null) {
-                captionViewToShow.setVisibility(VISIBLE);
-              }
-            }
-          });
-      captionAnimator.start();
+      animateCaptionView(
+          errorEnabled, errorViewAnimator, CAPTION_STATE_ERROR, captionToHide, captionToShow);
     } else {
       setCaptionViewVisibilities(captionToHide, captionToShow);
     }
@@ -284,46 +255,116 @@ final class IndicatorViewController {
     captionDisplayed = captionToShow;
   }
 
-  private void createCaptionAnimators(
-      @NonNull List<Animator> captionAnimatorList,
+  private void animateCaptionView(
       boolean captionEnabled,
-      @Nullable TextView captionView,
+      @Nullable CaptionAnimator captionAnimator,
       @CaptionDisplayState int captionState,
       @CaptionDisplayState int captionToHide,
       @CaptionDisplayState int captionToShow) {
     // If caption view is null or not enabled, do nothing.
-    if (captionView == null || !captionEnabled) {
+    if (captionAnimator == null || !captionEnabled) {
       return;
     }
-    // If the caption view should be shown, set alpha to 1f.
     if ((captionState == captionToShow) || (captionState == captionToHide)) {
-      captionAnimatorList.add(
-          createCaptionOpacityAnimator(captionView, captionToShow == captionState));
-      if (captionToShow == captionState) {
-        captionAnimatorList.add(createCaptionTranslationYAnimator(captionView));
-      }
+      captionAnimator.animateTo(captionToShow == captionState);
     }
   }
 
-  private ObjectAnimator createCaptionOpacityAnimator(TextView captionView, boolean display) {
-    float endValue = display ? 1f : 0f;
-    ObjectAnimator opacityAnimator = ObjectAnimator.ofFloat(captionView, View.ALPHA, endValue);
-    opacityAnimator.setDuration(CAPTION_OPACITY_FADE_ANIMATION_DURATION);
-    opacityAnimator.setInterpolator(AnimationUtils.LINEAR_INTERPOLATOR);
-    return opacityAnimator;
+  private boolean isCaptionAnimatorRunning(@Nullable CaptionAnimator ignoredAnimator) {
+    return isCaptionAnimatorRunning(errorViewAnimator, ignoredAnimator)
+        || isCaptionAnimatorRunning(helperTextViewAnimator, ignoredAnimator);
   }
 
-  private ObjectAnimator createCaptionTranslationYAnimator(TextView captionView) {
-    ObjectAnimator translationYAnimator =
-        ObjectAnimator.ofFloat(captionView, TRANSLATION_Y, -captionTranslationYPx, 0f);
-    translationYAnimator.setDuration(CAPTION_TRANSLATE_Y_ANIMATION_DURATION);
-    translationYAnimator.setInterpolator(AnimationUtils.LINEAR_OUT_SLOW_IN_INTERPOLATOR);
-    return translationYAnimator;
+  private static boolean isCaptionAnimatorRunning(
+      @Nullable CaptionAnimator captionAnimator, @Nullable CaptionAnimator ignoredAnimator) {
+    return captionAnimator != null
+        && captionAnimator != ignoredAnimator
+        && captionAnimator.isRunning();
   }
 
   void cancelCaptionAnimator() {
-    if (captionAnimator != null) {
-      captionAnimator.cancel();
+    if (errorViewAnimator != null) {
+      errorViewAnimator.end();
+    }
+    if (helperTextViewAnimator != null) {
+      helperTextViewAnimator.end();
+    }
+  }
+
+  /**
+   * Fades a caption view in or out, sliding it into place when it's shown. The animators are
+   * created once per caption view and reversed in place when the caption changes mid-transition.
+   */
+  private class CaptionAnimator extends AnimatorListenerAdapter {
+    @NonNull private final TextView captionView;
+    @NonNull private final ObjectAnimator opacityAnimator;
+    @NonNull private final ObjectAnimator translationYAnimator;
+    private boolean showing;
+
+    CaptionAnimator(@NonNull TextView captionView) {
+      this.captionView = captionView;
+      opacityAnimator = ObjectAnimator.ofFloat(captionView, View.ALPHA, 0f, 1f);
+      opacityAnimator.setDuration(CAPTION_OPACITY_FADE_ANIMATION_DURATION);
+      opacityAnimator.setInterpolator(AnimationUtils.LINEAR_INTERPOLATOR);
+      opacityAnimator.addListener(this);
+      translationYAnimator =
+          ObjectAnimator.ofFloat(captionView, TRANSLATION_Y, -captionTranslationYPx, 0f);
+      translationYAnimator.setDuration(CAPTION_TRANSLATE_Y_ANIMATION_DURATION);
+      translationYAnimator.setInterpolator(AnimationUtils.LINEAR_OUT_SLOW_IN_INTERPOLATOR);
+    }
+
+    void animateTo(boolean show) {
+      boolean reversing = false;
+      if (opacityAnimator.isRunning()) {
+        reversing = show != showing;
+        if (reversing) {
+          opacityAnimator.reverse();
+        }
+      } else if (show != (captionView.getVisibility() == VISIBLE)) {
+        if (show) {
+          captionView.setVisibility(VISIBLE);
+          opacityAnimator.start();
+        } else {
+          // Plays the opacity animator backwards, from 1 to 0.
+          opacityAnimator.reverse();
+        }
+      }
+      showing = show;
+
+      // A view turning around mid-fade is already in place, so only slide in new captions.
+      if (show && !reversing && !translationYAnimator.isRunning()) {
+        translationYAnimator.start();
+      }
+    }
+
+    /** Whether the caption view is fading. It may still be sliding into place afterwards. */
+    boolean isRunning() {
+      return opacityAnimator.isRunning();
+    }
+
+    void end() {
+      // Ending an animator that isn't running would jump the view to its end value.
+      if (opacityAnimator.isRunning()) {
+        opacityAnimator.end();
+      }
+      if (translationYAnimator.isRunning()) {
+        translationYAnimator.end();
+      }
+    }
+
+    @Override
+    public void onAnimationEnd(Animator animator) {
+      if (!showing) {
+        captionView.setVisibility(View.INVISIBLE);
+        // Only clear the caption text if it's the error.
+        if (captionView == errorView) {
+          captionView.setText(null);
+        }
+      }
+      // The animator that just ended may still report itself as running on older platforms.
+      if (!isCaptionAnimatorRunning(this)) {
+        captionDisplayed = captionToShow;
+      }
     }
   }
 
@@ -432,11 +473,14 @@ final class IndicatorViewController {
       setErrorViewTextColor(errorViewTextColor);
       errorView.setVisibility(View.INVISIBLE);
       ViewCompat.setAccessibilityLiveRegion(errorView, ViewCompat.ACCESSIBILITY_LIVE_REGION_POLITE);
+      errorViewAnimator = new CaptionAnimator(errorView);
       addIndicator(errorView, ERROR_INDEX);
     } else {
       hideError();
+      errorViewAnimator.end();
       removeIndicator(errorView, ERROR_INDEX);
       errorView = null;
+      errorViewAnimator = null;
       textInputView.updateEditTextBackground();
       textInputView.updateTextInputBoxState();
     }
@@ -471,11 +515,14 @@ final class IndicatorViewController {
           helperTextView, ViewCompat.ACCESSIBILITY_LIVE_REGION_POLITE);
       setHelperTextAppearance(helperTextTextAppearance);
       setHelperTextViewTextColor(helperTextViewTextColor);
+      helperTextViewAnimator = new CaptionAnimator(helperTextView);
       addIndicator(helperTextView, HELPER_INDEX);
     } else {
       hideHelperText();
+      helperTextViewAnimator.end();
       removeIndicator(helperTextView, HELPER_INDEX);
       helperTextView = null;
+      helperTextViewAnimator = null;
       textInputView.updateEditTextBackground();
       textInputView.updateTextInputBoxState();
     }
@@ -41,6 +41,7 @@ import androidx.annotation.ColorInt;
 import androidx.annotation.ColorRes;
 import androidx.annotation.DimenRes;
 import androidx.annotation.DrawableRes;
+import androidx.annotation.IdRes;
 import androidx.annotation.IntDef;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -180,6 +181,14 @@ public class TextInputLayout extends LinearLayout {
 
   private static final int INVALID_MAX_LENGTH = -1;
 
+  // Bits of the state the label colors and expansion are computed from
+  private static final int LABEL_STATE_ENABLED = 1;
+  private static final int LABEL_STATE_HAS_TEXT = 1 << 1;
+  private static final int LABEL_STATE_FOCUSED = 1 << 2;
+  private static final int LABEL_STATE_ERROR = 1 << 3;
+  private static final int LABEL_STATE_COUNTER_OVERFLOWED = 1 << 4;
+  private static final int LABEL_STATE_INVALID = -1;
+
   private static final String LOG_TAG = "TextInputLayout";
 
   @NonNull private final FrameLayout inputFrame;
@@ -194,6 +203,7 @@ public class TextInputLayout extends LinearLayout {
   boolean counterEnabled;
   private int counterMaxLength;
   private boolean counterOverflowed;
+  private int counterLength = -1;
   @Nullable private TextView counterView;
   private int counterOverflowTextAppearance;
   private int counterTextAppearance;
@@ -202,9 +212,13 @@ public class TextInputLayout extends LinearLayout {
   @Nullable private ColorStateList counterOverflowTextColor;
 
   @Nullable private CharSequence prefixText;
-  @NonNull private final TextView prefixTextView;
+  @Nullable private TextView prefixTextView;
+  @StyleRes private int prefixTextAppearance;
+  @Nullable private ColorStateList prefixTextColor;
   @Nullable private CharSequence suffixText;
-  @NonNull private final TextView suffixTextView;
+  @Nullable private TextView suffixTextView;
+  @StyleRes private int suffixTextAppearance;
+  @Nullable private ColorStateList suffixTextColor;
 
   private boolean hintEnabled;
   private CharSequence hint;
@@ -246,7 +260,7 @@ public class TextInputLayout extends LinearLayout {
   private final RectF tmpRectF = new RectF();
   private Typeface typeface;
 
-  @NonNull private final CheckableImageButton startIconView;
+  @Nullable private CheckableImageButton startIconView;
   private ColorStateList startIconTintList;
   private boolean hasStartIconTintList;
   private PorterDuff.Mode startIconTintMode;
@@ -254,6 +268,7 @@ public class TextInputLayout extends LinearLayout {
   @Nullable private Drawable startDummyDrawable;
   private int startDummyDrawableWidth;
   private OnLongClickListener startIconOnLongClickListener;
+  private boolean startIconCheckable = true;
 
   /**
    * Values for the end icon mode.
@@ -361,7 +376,7 @@ public class TextInputLayout extends LinearLayout {
 
   @EndIconMode private int endIconMode = END_ICON_NONE;
   private final SparseArray<EndIconDelegate> endIconDelegates = new SparseArray<>();
-  @NonNull private final CheckableImageButton endIconView;
+  @Nullable private CheckableImageButton endIconView;
   private final LinkedHashSet<OnEndIconChangedListener> endIconChangedListeners =
       new LinkedHashSet<>();
   private ColorStateList endIconTintList;
@@ -372,7 +387,10 @@ public class TextInputLayout extends LinearLayout {
   private int endDummyDrawableWidth;
   private Drawable originalEditTextEndDrawable;
   private OnLongClickListener endIconOnLongClickListener;
-  @NonNull private final CheckableImageButton errorIconView;
+  private boolean endIconCheckable = true;
+  @Nullable private CheckableImageButton errorIconView;
+  // Holds the error icon until errorIconView is created, which then holds it instead
+  @Nullable private Drawable errorIconDrawable;
   private ColorStateList errorIconTintList;
 
   private ColorStateList defaultHintTextColor;
@@ -388,9 +406,11 @@ public class TextInputLayout extends LinearLayout {
   @ColorInt private final int hoveredFilledBackgroundColor;
 
   @ColorInt private final int disabledColor;
+  @Nullable private ColorStateList disabledHintTextColor;
 
   // Only used for testing
   private boolean hintExpanded;
+  private int labelState = LABEL_STATE_INVALID;
 
   final CollapsingTextHelper collapsingTextHelper = new CollapsingTextHelper(this);
 
@@ -580,31 +600,6 @@ public class TextInputLayout extends LinearLayout {
     final int errorTextAppearance =
         a.getResourceId(R.styleable.TextInputLayout_errorTextAppearance, 0);
     final boolean errorEnabled = a.getBoolean(R.styleable.TextInputLayout_errorEnabled, false);
-    // Initialize error icon view.
-    errorIconView =
-        (CheckableImageButton)
-            LayoutInflater.from(getContext())
-                .inflate(R.layout.design_text_input_end_icon, endLayout, false);
-    errorIconView.setVisibility(GONE);
-    if (a.hasValue(R.styleable.TextInputLayout_errorIconDrawable)) {
-      setErrorIconDrawable(a.getDrawable(R.styleable.TextInputLayout_errorIconDrawable));
-    }
-    if (a.hasValue(R.styleable.TextInputLayout_errorIconTint)) {
-      setErrorIconTintList(
-          MaterialResources.getColorStateList(
-              context, a, R.styleable.TextInputLayout_errorIconTint));
-    }
-    if (a.hasValue(R.styleable.TextInputLayout_errorIconTintMode)) {
-      setErrorIconTintMode(
-          ViewUtils.parseTintMode(
-              a.getInt(R.styleable.TextInputLayout_errorIconTintMode, -1), null));
-    }
-    errorIconView.setContentDescription(
-        getResources().getText(R.string.error_icon_content_description));
-    ViewCompat.setImportantForAccessibility(
-        errorIconView, ViewCompat.IMPORTANT_FOR_ACCESSIBILITY_NO);
-    errorIconView.setClickable(false);
-    errorIconView.setFocusable(false);
 
     final int helperTextTextAppearance =
         a.getResourceId(R.styleable.TextInputLayout_helperTextTextAppearance, 0);
@@ -626,15 +621,7 @@ public class TextInputLayout extends LinearLayout {
     counterOverflowTextAppearance =
         a.getResourceId(R.styleable.TextInputLayout_counterOverflowTextAppearance, 0);
 
-    // Initialize start icon view.
-    startIconView =
-        (CheckableImageButton)
-            LayoutInflater.from(getContext())
-                .inflate(R.layout.design_text_input_start_icon, startLayout, false);
-    startIconView.setVisibility(GONE);
-    setStartIconOnClickListener(null);
-    setStartIconOnLongClickListener(null);
-    // Set up start icon if any.
+    // Set up start icon if any. The icon view is created once it's needed.
     if (a.hasValue(R.styleable.TextInputLayout_startIconDrawable)) {
       setStartIconDrawable(a.getDrawable(R.styleable.TextInputLayout_startIconDrawable));
       if (a.hasValue(R.styleable.TextInputLayout_startIconContentDescription)) {
@@ -659,19 +646,29 @@ public class TextInputLayout extends LinearLayout {
     setBoxBackgroundMode(
         a.getInt(R.styleable.TextInputLayout_boxBackgroundMode, BOX_BACKGROUND_NONE));
 
-    // Initialize end icon view.
-    endIconView =
-        (CheckableImageButton)
-            LayoutInflater.from(getContext())
-                .inflate(R.layout.design_text_input_end_icon, endIconFrame, false);
-    endIconFrame.addView(endIconView);
-    endIconView.setVisibility(GONE);
-    endIconDelegates.append(END_ICON_CUSTOM, new CustomEndIconDelegate(this));
-    endIconDelegates.append(END_ICON_NONE, new NoEndIconDelegate(this));
-    endIconDelegates.append(END_ICON_PASSWORD_TOGGLE, new PasswordToggleEndIconDelegate(this));
-    endIconDelegates.append(END_ICON_CLEAR_TEXT, new ClearTextEndIconDelegate(this));
-    endIconDelegates.append(END_ICON_DROPDOWN_MENU, new DropdownMenuEndIconDelegate(this));
-    // Set up the end icon if any.
+    // Set up the error icon. A box hides it again once the edit text is attached and there is no
+    // error, so the icon view is only created up front for fields without a box.
+    if (a.hasValue(R.styleable.TextInputLayout_errorIconDrawable)) {
+      Drawable errorIconDrawable = a.getDrawable(R.styleable.TextInputLayout_errorIconDrawable);
+      if (boxBackgroundMode == BOX_BACKGROUND_NONE) {
+        setErrorIconDrawable(errorIconDrawable);
+      } else {
+        setErrorIconDrawableInternal(errorIconDrawable);
+      }
+    }
+    if (a.hasValue(R.styleable.TextInputLayout_errorIconTint)) {
+      setErrorIconTintList(
+          MaterialResources.getColorStateList(
+              context, a, R.styleable.TextInputLayout_errorIconTint));
+    }
+    if (a.hasValue(R.styleable.TextInputLayout_errorIconTintMode)) {
+      setErrorIconTintMode(
+          ViewUtils.parseTintMode(
+              a.getInt(R.styleable.TextInputLayout_errorIconTintMode, -1), null));
+    }
+
+    // Set up the end icon if any. The icon view and the end icon delegates are created once an end
+    // icon mode needs them.
     if (a.hasValue(R.styleable.TextInputLayout_endIconMode)) {
       // Specific defaults depending on which end icon mode is set
       setEndIconMode(a.getInt(R.styleable.TextInputLayout_endIconMode, END_ICON_NONE));
@@ -719,31 +716,7 @@ public class TextInputLayout extends LinearLayout {
       }
     }
 
-    // Set up prefix view.
-    prefixTextView = new AppCompatTextView(context);
-    prefixTextView.setId(R.id.textinput_prefix_text);
-    prefixTextView.setLayoutParams(
-        new FrameLayout.LayoutParams(
-            ViewGroup.LayoutParams.WRAP_CONTENT, ViewGroup.LayoutParams.WRAP_CONTENT));
-    ViewCompat.setAccessibilityLiveRegion(
-        prefixTextView, ViewCompat.ACCESSIBILITY_LIVE_REGION_POLITE);
-
-    startLayout.addView(startIconView);
-    startLayout.addView(prefixTextView);
-
-    // Set up suffix view.
-    suffixTextView = new AppCompatTextView(context);
-    suffixTextView.setId(R.id.textinput_suffix_text);
-    suffixTextView.setLayoutParams(
-        new FrameLayout.LayoutParams(
-            ViewGroup.LayoutParams.WRAP_CONTENT,
-            ViewGroup.LayoutParams.WRAP_CONTENT,
-            Gravity.BOTTOM));
-    ViewCompat.setAccessibilityLiveRegion(
-        suffixTextView, ViewCompat.ACCESSIBILITY_LIVE_REGION_POLITE);
-
-    endLayout.addView(suffixTextView);
-    endLayout.addView(errorIconView);
+    // The prefix and suffix views are created once there is text to show in them.
     endLayout.addView(endIconFrame);
 
     setHelperTextEnabled(helperTextEnabled);
@@ -1171,7 +1144,7 @@ public class TextInputLayout extends LinearLayout {
           @Override
           public void afterTextChanged(@NonNull Editable s) {
             updateLabelState(!restoringSavedState);
-            if (counterEnabled) {
+            if (counterEnabled && s.length() != counterLength) {
               updateCounter(s.length());
             }
           }
@@ -1210,7 +1183,9 @@ public class TextInputLayout extends LinearLayout {
     startLayout.bringToFront();
     endLayout.bringToFront();
     endIconFrame.bringToFront();
-    errorIconView.bringToFront();
+    if (errorIconView != null) {
+      errorIconView.bringToFront();
+    }
     dispatchOnEditTextAttached();
     updatePrefixTextViewPadding();
     updateSuffixTextViewPadding();
@@ -1246,29 +1221,66 @@ public class TextInputLayout extends LinearLayout {
     updateLabelState(animate, false);
   }
 
+  /**
+   * Updates the label colors and expansion from the current state. Unless {@code force} is set,
+   * nothing is done when the state is the same as on the previous update, so that typing in the
+   * field doesn't recompute the label.
+   */
   private void updateLabelState(boolean animate, boolean force) {
     final boolean isEnabled = isEnabled();
     final boolean hasText = editText != null && !TextUtils.isEmpty(editText.getText());
     final boolean hasFocus = editText != null && editText.hasFocus();
     final boolean errorShouldBeShown = indicatorViewController.errorShouldBeShown();
+    final boolean showCounterOverflow = counterOverflowed && counterView != null;
 
-    // Set the expanded and collapsed labels to the default text color.
-    if (defaultHintTextColor != null) {
-      collapsingTextHelper.setCollapsedTextColor(defaultHintTextColor);
-      collapsingTextHelper.setExpandedTextColor(defaultHintTextColor);
+    int labelState = 0;
+    if (isEnabled) {
+      labelState |= LABEL_STATE_ENABLED;
+    }
+    if (hasText) {
+      labelState |= LABEL_STATE_HAS_TEXT;
+    }
+    if (hasFocus) {
+      labelState |= LABEL_STATE_FOCUSED;
     }
+    if (errorShouldBeShown) {
+      labelState |= LABEL_STATE_ERROR;
+    }
+    if (showCounterOverflow) {
+      labelState |= LABEL_STATE_COUNTER_OVERFLOWED;
+    }
+    if (!force && labelState == this.labelState) {
+      return;
+    }
+    this.labelState = labelState;
 
-    // Set the collapsed and expanded label text colors based on the current state.
+    // Start with the default text color for the expanded and collapsed labels. If it isn't set,
+    // leave the colors as they are.
+    ColorStateList collapsedTextColor = defaultHintTextColor;
+    ColorStateList expandedTextColor = defaultHintTextColor;
+
+    // Pick the collapsed and expanded label text colors based on the current state.
     if (!isEnabled) {
-      collapsingTextHelper.setCollapsedTextColor(ColorStateList.valueOf(disabledColor));
-      collapsingTextHelper.setExpandedTextColor(ColorStateList.valueOf(disabledColor));
+      if (disabledHintTextColor == null) {
+        disabledHintTextColor = ColorStateList.valueOf(disabledColor);
+      }
+      collapsedTextColor = disabledHintTextColor;
+      expandedTextColor = disabledHintTextColor;
     } else if (errorShouldBeShown) {
-      collapsingTextHelper.setCollapsedTextColor(indicatorViewController.getErrorViewTextColors());
-    } else if (counterOverflowed && counterView != null) {
-      collapsingTextHelper.setCollapsedTextColor(counterView.getTextColors());
+      collapsedTextColor = indicatorViewController.getErrorViewTextColors();
+    } else if (showCounterOverflow) {
+      collapsedTextColor = counterView.getTextColors();
     } else if (hasFocus && focusedTextColor != null) {
-      collapsingTextHelper.setCollapsedTextColor(focusedTextColor);
-    } // If none of these states apply, leave the expanded and collapsed colors as they are.
+      collapsedTextColor = focusedTextColor;
+    }
+
+    // Set each color once, so that the text helper recalculates only for actual changes
+    if (collapsedTextColor != null) {
+      collapsingTextHelper.setCollapsedTextColor(collapsedTextColor);
+    }
+    if (expandedTextColor != null) {
+      collapsingTextHelper.setExpandedTextColor(expandedTextColor);
+    }
 
     if (hasText || (isEnabled() && (hasFocus || errorShouldBeShown))) {
       // We should be showing the label so do so if it isn't already
@@ -1394,6 +1406,7 @@ public class TextInputLayout extends LinearLayout {
   public void setHintTextAppearance(@StyleRes int resId) {
     collapsingTextHelper.setCollapsedTextAppearance(resId);
     focusedTextColor = collapsingTextHelper.getCollapsedTextColor();
+    labelState = LABEL_STATE_INVALID;
 
     if (editText != null) {
       updateLabelState(false);
@@ -1413,6 +1426,7 @@ public class TextInputLayout extends LinearLayout {
       }
 
       focusedTextColor = hintTextColor;
+      labelState = LABEL_STATE_INVALID;
 
       if (editText != null) {
         updateLabelState(false);
@@ -1434,6 +1448,7 @@ public class TextInputLayout extends LinearLayout {
   public void setDefaultHintTextColor(@Nullable ColorStateList textColor) {
     defaultHintTextColor = textColor;
     focusedTextColor = textColor;
+    labelState = LABEL_STATE_INVALID;
 
     if (editText != null) {
       updateLabelState(false);
@@ -1467,11 +1482,20 @@ public class TextInputLayout extends LinearLayout {
    */
   public void setErrorTextAppearance(@StyleRes int errorTextAppearance) {
     indicatorViewController.setErrorTextAppearance(errorTextAppearance);
+    // The label may be colored with the error text color
+    labelState = LABEL_STATE_INVALID;
+    if (editText != null) {
+      updateLabelState(false);
+    }
   }
 
   /** Sets the text color used by the error message in all states. */
   public void setErrorTextColor(@Nullable ColorStateList errorTextColor) {
     indicatorViewController.setErrorViewTextColor(errorTextColor);
+    labelState = LABEL_STATE_INVALID;
+    if (editText != null) {
+      updateLabelState(false);
+    }
   }
 
   /** Returns the text color used by the error message in current state. */
@@ -1601,7 +1625,7 @@ public class TextInputLayout extends LinearLayout {
    * @attr ref com.google.android.material.R.styleable#TextInputLayout_errorIconDrawable
    */
   public void setErrorIconDrawable(@Nullable Drawable errorIconDrawable) {
-    errorIconView.setImageDrawable(errorIconDrawable);
+    setErrorIconDrawableInternal(errorIconDrawable);
     setErrorIconVisible(errorIconDrawable != null);
   }
 
@@ -1613,7 +1637,15 @@ public class TextInputLayout extends LinearLayout {
    */
   @Nullable
   public Drawable getErrorIconDrawable() {
-    return errorIconView.getDrawable();
+    return errorIconView != null ? errorIconView.getDrawable() : errorIconDrawable;
+  }
+
+  private void setErrorIconDrawableInternal(@Nullable Drawable errorIconDrawable) {
+    if (errorIconView != null) {
+      errorIconView.setImageDrawable(errorIconDrawable);
+    } else {
+      this.errorIconDrawable = errorIconDrawable;
+    }
   }
 
   /**
@@ -1624,14 +1656,14 @@ public class TextInputLayout extends LinearLayout {
    */
   public void setErrorIconTintList(@Nullable ColorStateList errorIconTintList) {
     this.errorIconTintList = errorIconTintList;
-    Drawable icon = errorIconView.getDrawable();
+    Drawable icon = getErrorIconDrawable();
     if (icon != null) {
       icon = DrawableCompat.wrap(icon).mutate();
       DrawableCompat.setTintList(icon, errorIconTintList);
     }
 
-    if (errorIconView.getDrawable() != icon) {
-      errorIconView.setImageDrawable(icon);
+    if (getErrorIconDrawable() != icon) {
+      setErrorIconDrawableInternal(icon);
     }
   }
 
@@ -1643,14 +1675,14 @@ public class TextInputLayout extends LinearLayout {
    * @attr ref com.google.android.material.R.styleable#TextInputLayout_errorIconTintMode
    */
   public void setErrorIconTintMode(@Nullable PorterDuff.Mode errorIconTintMode) {
-    Drawable icon = errorIconView.getDrawable();
+    Drawable icon = getErrorIconDrawable();
     if (icon != null) {
       icon = DrawableCompat.wrap(icon).mutate();
       DrawableCompat.setTintMode(icon, errorIconTintMode);
     }
 
-    if (errorIconView.getDrawable() != icon) {
-      errorIconView.setImageDrawable(icon);
+    if (getErrorIconDrawable() != icon) {
+      setErrorIconDrawableInternal(icon);
     }
   }
 
@@ -1800,6 +1832,7 @@ public class TextInputLayout extends LinearLayout {
 
   void updateCounter(int length) {
     boolean wasCounterOverflowed = counterOverflowed;
+    counterLength = length;
     if (counterMaxLength == INVALID_MAX_LENGTH) {
       counterView.setText(String.valueOf(length));
       counterView.setContentDescription(null);
@@ -1860,7 +1893,9 @@ public class TextInputLayout extends LinearLayout {
    */
   public void setPrefixText(@Nullable final CharSequence prefixText) {
     this.prefixText = TextUtils.isEmpty(prefixText) ? null : prefixText;
-    prefixTextView.setText(prefixText);
+    if (prefixTextView != null || this.prefixText != null) {
+      getPrefixTextView().setText(prefixText);
+    }
     updatePrefixTextVisibility();
   }
 
@@ -1885,11 +1920,28 @@ public class TextInputLayout extends LinearLayout {
    */
   @NonNull
   public TextView getPrefixTextView() {
+    if (prefixTextView == null) {
+      prefixTextView =
+          createAffixTextView(
+              R.id.textinput_prefix_text,
+              new FrameLayout.LayoutParams(
+                  ViewGroup.LayoutParams.WRAP_CONTENT, ViewGroup.LayoutParams.WRAP_CONTENT));
+      if (prefixTextAppearance != 0) {
+        TextViewCompat.setTextAppearance(prefixTextView, prefixTextAppearance);
+      }
+      if (prefixTextColor != null) {
+        prefixTextView.setTextColor(prefixTextColor);
+      }
+      startLayout.addView(prefixTextView);
+      updatePrefixTextViewPadding();
+    }
     return prefixTextView;
   }
 
   private void updatePrefixTextVisibility() {
-    prefixTextView.setVisibility((prefixText != null && !isHintExpanded()) ? VISIBLE : GONE);
+    if (prefixTextView != null) {
+      prefixTextView.setVisibility((prefixText != null && !isHintExpanded()) ? VISIBLE : GONE);
+    }
     updateDummyDrawables();
   }
 
@@ -1899,7 +1951,10 @@ public class TextInputLayout extends LinearLayout {
    * @attr ref com.google.android.material.R.styleable#TextInputLayout_prefixTextColor
    */
   public void setPrefixTextColor(@NonNull ColorStateList prefixTextColor) {
-    prefixTextView.setTextColor(prefixTextColor);
+    this.prefixTextColor = prefixTextColor;
+    if (prefixTextView != null) {
+      prefixTextView.setTextColor(prefixTextColor);
+    }
   }
 
   /**
@@ -1909,7 +1964,7 @@ public class TextInputLayout extends LinearLayout {
    */
   @Nullable
   public ColorStateList getPrefixTextColor() {
-    return prefixTextView.getTextColors();
+    return prefixTextView != null ? prefixTextView.getTextColors() : prefixTextColor;
   }
 
   /**
@@ -1918,11 +1973,14 @@ public class TextInputLayout extends LinearLayout {
    * @attr ref com.google.android.material.R.styleable#TextInputLayout_prefixTextAppearance
    */
   public void setPrefixTextAppearance(@StyleRes int prefixTextAppearance) {
-    TextViewCompat.setTextAppearance(prefixTextView, prefixTextAppearance);
+    this.prefixTextAppearance = prefixTextAppearance;
+    if (prefixTextView != null) {
+      TextViewCompat.setTextAppearance(prefixTextView, prefixTextAppearance);
+    }
   }
 
   private void updatePrefixTextViewPadding() {
-    if (editText == null) {
+    if (editText == null || prefixTextView == null) {
       return;
     }
     prefixTextView.setPadding(
@@ -1942,7 +2000,9 @@ public class TextInputLayout extends LinearLayout {
    */
   public void setSuffixText(@Nullable final CharSequence suffixText) {
     this.suffixText = TextUtils.isEmpty(suffixText) ? null : suffixText;
-    suffixTextView.setText(suffixText);
+    if (suffixTextView != null || this.suffixText != null) {
+      getSuffixTextView().setText(suffixText);
+    }
     updateSuffixTextVisibility();
   }
 
@@ -1967,15 +2027,35 @@ public class TextInputLayout extends LinearLayout {
    */
   @NonNull
   public TextView getSuffixTextView() {
+    if (suffixTextView == null) {
+      suffixTextView =
+          createAffixTextView(
+              R.id.textinput_suffix_text,
+              new FrameLayout.LayoutParams(
+                  ViewGroup.LayoutParams.WRAP_CONTENT,
+                  ViewGroup.LayoutParams.WRAP_CONTENT,
+                  Gravity.BOTTOM));
+      if (suffixTextAppearance != 0) {
+        TextViewCompat.setTextAppearance(suffixTextView, suffixTextAppearance);
+      }
+      if (suffixTextColor != null) {
+        suffixTextView.setTextColor(suffixTextColor);
+      }
+      endLayout.addView(suffixTextView, 0);
+      updateSuffixTextViewPadding();
+    }
     return suffixTextView;
   }
 
   private void updateSuffixTextVisibility() {
-    int oldSuffixVisibility = suffixTextView.getVisibility();
-    boolean visible = suffixText != null && !isHintExpanded();
-    suffixTextView.setVisibility(visible ? VISIBLE : GONE);
-    if (oldSuffixVisibility != suffixTextView.getVisibility()) {
-      getEndIconDelegate().onSuffixVisibilityChanged(visible);
+    if (suffixTextView != null) {
+      int oldSuffixVisibility = suffixTextView.getVisibility();
+      boolean visible = suffixText != null && !isHintExpanded();
+      suffixTextView.setVisibility(visible ? VISIBLE : GONE);
+      // Only end icon modes other than none react to the suffix visibility
+      if (oldSuffixVisibility != suffixTextView.getVisibility() && hasEndIcon()) {
+        getEndIconDelegate().onSuffixVisibilityChanged(visible);
+      }
     }
     updateDummyDrawables();
   }
@@ -1986,7 +2066,10 @@ public class TextInputLayout extends LinearLayout {
    * @attr ref com.google.android.material.R.styleable#TextInputLayout_suffixTextColor
    */
   public void setSuffixTextColor(@NonNull ColorStateList suffixTextColor) {
-    suffixTextView.setTextColor(suffixTextColor);
+    this.suffixTextColor = suffixTextColor;
+    if (suffixTextView != null) {
+      suffixTextView.setTextColor(suffixTextColor);
+    }
   }
 
   /**
@@ -1996,7 +2079,7 @@ public class TextInputLayout extends LinearLayout {
    */
   @Nullable
   public ColorStateList getSuffixTextColor() {
-    return suffixTextView.getTextColors();
+    return suffixTextView != null ? suffixTextView.getTextColors() : suffixTextColor;
   }
 
   /**
@@ -2005,11 +2088,26 @@ public class TextInputLayout extends LinearLayout {
    * @attr ref com.google.android.material.R.styleable#TextInputLayout_suffixTextAppearance
    */
   public void setSuffixTextAppearance(@StyleRes int suffixTextAppearance) {
-    TextViewCompat.setTextAppearance(suffixTextView, suffixTextAppearance);
+    this.suffixTextAppearance = suffixTextAppearance;
+    if (suffixTextView != null) {
+      TextViewCompat.setTextAppearance(suffixTextView, suffixTextAppearance);
+    }
+  }
+
+  @NonNull
+  private TextView createAffixTextView(
+      @IdRes int id, @NonNull FrameLayout.LayoutParams layoutParams) {
+    TextView affixTextView = new AppCompatTextView(getContext());
+    affixTextView.setId(id);
+    affixTextView.setLayoutParams(layoutParams);
+    ViewCompat.setAccessibilityLiveRegion(
+        affixTextView, ViewCompat.ACCESSIBILITY_LIVE_REGION_POLITE);
+    affixTextView.setVisibility(GONE);
+    return affixTextView;
   }
 
   private void updateSuffixTextViewPadding() {
-    if (editText == null) {
+    if (editText == null || suffixTextView == null) {
       return;
     }
     suffixTextView.setPadding(
@@ -2061,6 +2159,8 @@ public class TextInputLayout extends LinearLayout {
 
   private void updateCounterTextAppearanceAndColor() {
     if (counterView != null) {
+      // The label may be colored with the counter overflow text color
+      labelState = LABEL_STATE_INVALID;
       setTextAppearanceCompatWithErrorFallback(
           counterView, counterOverflowed ? counterOverflowTextAppearance : counterTextAppearance);
       if (!counterOverflowed && counterTextColor != null) {
@@ -2069,6 +2169,9 @@ public class TextInputLayout extends LinearLayout {
       if (counterOverflowed && counterOverflowTextColor != null) {
         counterView.setTextColor(counterOverflowTextColor);
       }
+      if (editText != null) {
+        updateLabelState(false);
+      }
     }
   }
 
@@ -2365,6 +2468,7 @@ public class TextInputLayout extends LinearLayout {
     super.onRestoreInstanceState(ss.getSuperState());
     setError(ss.error);
     if (ss.isEndIconChecked) {
+      final CheckableImageButton endIconView = getEndIconView();
       // Make sure the end icon is not clicked before the application is visible.
       endIconView.post(
           new Runnable() {
@@ -2488,7 +2592,7 @@ public class TextInputLayout extends LinearLayout {
    * @attr ref com.google.android.material.R.styleable#TextInputLayout_startIconDrawable
    */
   public void setStartIconDrawable(@Nullable Drawable startIconDrawable) {
-    startIconView.setImageDrawable(startIconDrawable);
+    getStartIconView().setImageDrawable(startIconDrawable);
     if (startIconDrawable != null) {
       setStartIconVisible(true);
       applyStartIconTint();
@@ -2509,7 +2613,7 @@ public class TextInputLayout extends LinearLayout {
    */
   @Nullable
   public Drawable getStartIconDrawable() {
-    return startIconView.getDrawable();
+    return startIconView != null ? startIconView.getDrawable() : null;
   }
 
   /**
@@ -2520,7 +2624,8 @@ public class TextInputLayout extends LinearLayout {
    *     view will have, or null to clear it.
    */
   public void setStartIconOnClickListener(@Nullable OnClickListener startIconOnClickListener) {
-    setIconOnClickListener(startIconView, startIconOnClickListener, startIconOnLongClickListener);
+    setIconOnClickListener(
+        getStartIconView(), startIconOnClickListener, startIconOnLongClickListener);
   }
 
   /**
@@ -2533,7 +2638,7 @@ public class TextInputLayout extends LinearLayout {
   public void setStartIconOnLongClickListener(
       @Nullable OnLongClickListener startIconOnLongClickListener) {
     this.startIconOnLongClickListener = startIconOnLongClickListener;
-    setIconOnLongClickListener(startIconView, startIconOnLongClickListener);
+    setIconOnLongClickListener(getStartIconView(), startIconOnLongClickListener);
   }
 
   /**
@@ -2543,7 +2648,7 @@ public class TextInputLayout extends LinearLayout {
    */
   public void setStartIconVisible(boolean visible) {
     if (isStartIconVisible() != visible) {
-      startIconView.setVisibility(visible ? View.VISIBLE : View.GONE);
+      getStartIconView().setVisibility(visible ? View.VISIBLE : View.GONE);
       updatePrefixTextViewPadding();
       updateDummyDrawables();
     }
@@ -2555,7 +2660,7 @@ public class TextInputLayout extends LinearLayout {
    * @see #setStartIconVisible(boolean)
    */
   public boolean isStartIconVisible() {
-    return startIconView.getVisibility() == View.VISIBLE;
+    return startIconView != null && startIconView.getVisibility() == View.VISIBLE;
   }
 
   /**
@@ -2569,7 +2674,10 @@ public class TextInputLayout extends LinearLayout {
    * @attr com.google.android.material.R.styleable#TextInputLayout_startIconCheckable
    */
   public void setStartIconCheckable(boolean startIconCheckable) {
-    startIconView.setCheckable(startIconCheckable);
+    this.startIconCheckable = startIconCheckable;
+    if (startIconView != null) {
+      startIconView.setCheckable(startIconCheckable);
+    }
   }
 
   /**
@@ -2578,7 +2686,7 @@ public class TextInputLayout extends LinearLayout {
    * @see #setStartIconCheckable(boolean)
    */
   public boolean isStartIconCheckable() {
-    return startIconView.isCheckable();
+    return startIconCheckable;
   }
 
   /**
@@ -2606,7 +2714,7 @@ public class TextInputLayout extends LinearLayout {
    */
   public void setStartIconContentDescription(@Nullable CharSequence startIconContentDescription) {
     if (getStartIconContentDescription() != startIconContentDescription) {
-      startIconView.setContentDescription(startIconContentDescription);
+      getStartIconView().setContentDescription(startIconContentDescription);
     }
   }
 
@@ -2618,7 +2726,7 @@ public class TextInputLayout extends LinearLayout {
    */
   @Nullable
   public CharSequence getStartIconContentDescription() {
-    return startIconView.getContentDescription();
+    return startIconView != null ? startIconView.getContentDescription() : null;
   }
 
   /**
@@ -2668,14 +2776,17 @@ public class TextInputLayout extends LinearLayout {
     int previousEndIconMode = this.endIconMode;
     this.endIconMode = endIconMode;
     setEndIconVisible(endIconMode != END_ICON_NONE);
-    if (getEndIconDelegate().isBoxBackgroundModeSupported(boxBackgroundMode)) {
-      getEndIconDelegate().initialize();
-    } else {
-      throw new IllegalStateException(
-          "The current box background mode "
-              + boxBackgroundMode
-              + " is not supported by the end icon mode "
-              + endIconMode);
+    // Without an end icon view, there is nothing for END_ICON_NONE to clear
+    if (endIconMode != END_ICON_NONE || endIconView != null) {
+      if (getEndIconDelegate().isBoxBackgroundModeSupported(boxBackgroundMode)) {
+        getEndIconDelegate().initialize();
+      } else {
+        throw new IllegalStateException(
+            "The current box background mode "
+                + boxBackgroundMode
+                + " is not supported by the end icon mode "
+                + endIconMode);
+      }
     }
     applyEndIconTint();
     dispatchOnEndIconChanged(previousEndIconMode);
@@ -2701,7 +2812,7 @@ public class TextInputLayout extends LinearLayout {
    *     will have
    */
   public void setEndIconOnClickListener(@Nullable OnClickListener endIconOnClickListener) {
-    setIconOnClickListener(endIconView, endIconOnClickListener, endIconOnLongClickListener);
+    setIconOnClickListener(getEndIconView(), endIconOnClickListener, endIconOnLongClickListener);
   }
 
   /**
@@ -2714,7 +2825,7 @@ public class TextInputLayout extends LinearLayout {
   public void setEndIconOnLongClickListener(
       @Nullable OnLongClickListener endIconOnLongClickListener) {
     this.endIconOnLongClickListener = endIconOnLongClickListener;
-    setIconOnLongClickListener(endIconView, endIconOnLongClickListener);
+    setIconOnLongClickListener(getEndIconView(), endIconOnLongClickListener);
   }
 
   /**
@@ -2724,7 +2835,7 @@ public class TextInputLayout extends LinearLayout {
    */
   public void setEndIconVisible(boolean visible) {
     if (isEndIconVisible() != visible) {
-      endIconView.setVisibility(visible ? View.VISIBLE : View.GONE);
+      getEndIconView().setVisibility(visible ? View.VISIBLE : View.GONE);
       updateSuffixTextViewPadding();
       updateDummyDrawables();
     }
@@ -2736,7 +2847,9 @@ public class TextInputLayout extends LinearLayout {
    * @see #setEndIconVisible(boolean)
    */
   public boolean isEndIconVisible() {
-    return endIconFrame.getVisibility() == VISIBLE && endIconView.getVisibility() == VISIBLE;
+    return endIconView != null
+        && endIconFrame.getVisibility() == VISIBLE
+        && endIconView.getVisibility() == VISIBLE;
   }
 
   /**
@@ -2745,7 +2858,7 @@ public class TextInputLayout extends LinearLayout {
    * @param endIconActivated whether the icon should be activated
    */
   public void setEndIconActivated(boolean endIconActivated) {
-    endIconView.setActivated(endIconActivated);
+    getEndIconView().setActivated(endIconActivated);
   }
 
   /**
@@ -2759,7 +2872,10 @@ public class TextInputLayout extends LinearLayout {
    * @attr com.google.android.material.R.styleable#TextInputLayout_endIconCheckable
    */
   public void setEndIconCheckable(boolean endIconCheckable) {
-    endIconView.setCheckable(endIconCheckable);
+    this.endIconCheckable = endIconCheckable;
+    if (endIconView != null) {
+      endIconView.setCheckable(endIconCheckable);
+    }
   }
 
   /**
@@ -2768,7 +2884,7 @@ public class TextInputLayout extends LinearLayout {
    * @see #setEndIconCheckable(boolean)
    */
   public boolean isEndIconCheckable() {
-    return endIconView.isCheckable();
+    return endIconCheckable;
   }
 
   /**
@@ -2794,7 +2910,7 @@ public class TextInputLayout extends LinearLayout {
    * @attr ref com.google.android.material.R.styleable#TextInputLayout_endIconDrawable
    */
   public void setEndIconDrawable(@Nullable Drawable endIconDrawable) {
-    endIconView.setImageDrawable(endIconDrawable);
+    getEndIconView().setImageDrawable(endIconDrawable);
   }
 
   /**
@@ -2805,7 +2921,7 @@ public class TextInputLayout extends LinearLayout {
    */
   @Nullable
   public Drawable getEndIconDrawable() {
-    return endIconView.getDrawable();
+    return endIconView != null ? endIconView.getDrawable() : null;
   }
 
   /**
@@ -2833,7 +2949,7 @@ public class TextInputLayout extends LinearLayout {
    */
   public void setEndIconContentDescription(@Nullable CharSequence endIconContentDescription) {
     if (getEndIconContentDescription() != endIconContentDescription) {
-      endIconView.setContentDescription(endIconContentDescription);
+      getEndIconView().setContentDescription(endIconContentDescription);
     }
   }
 
@@ -2845,7 +2961,7 @@ public class TextInputLayout extends LinearLayout {
    */
   @Nullable
   public CharSequence getEndIconContentDescription() {
-    return endIconView.getContentDescription();
+    return endIconView != null ? endIconView.getContentDescription() : null;
   }
 
   /**
@@ -2970,7 +3086,7 @@ public class TextInputLayout extends LinearLayout {
    */
   @Deprecated
   public void setPasswordVisibilityToggleDrawable(@Nullable Drawable icon) {
-    endIconView.setImageDrawable(icon);
+    getEndIconView().setImageDrawable(icon);
   }
 
   /**
@@ -3003,7 +3119,7 @@ public class TextInputLayout extends LinearLayout {
    */
   @Deprecated
   public void setPasswordVisibilityToggleContentDescription(@Nullable CharSequence description) {
-    endIconView.setContentDescription(description);
+    getEndIconView().setContentDescription(description);
   }
 
   /**
@@ -3016,7 +3132,7 @@ public class TextInputLayout extends LinearLayout {
   @Nullable
   @Deprecated
   public Drawable getPasswordVisibilityToggleDrawable() {
-    return endIconView.getDrawable();
+    return getEndIconDrawable();
   }
 
   /**
@@ -3030,7 +3146,7 @@ public class TextInputLayout extends LinearLayout {
   @Nullable
   @Deprecated
   public CharSequence getPasswordVisibilityToggleContentDescription() {
-    return endIconView.getContentDescription();
+    return getEndIconContentDescription();
   }
 
   /**
@@ -3114,9 +3230,9 @@ public class TextInputLayout extends LinearLayout {
   @Deprecated
   public void passwordVisibilityToggleRequested(boolean shouldSkipAnimations) {
     if (endIconMode == END_ICON_PASSWORD_TOGGLE) {
-      endIconView.performClick();
+      getEndIconView().performClick();
       if (shouldSkipAnimations) {
-        endIconView.jumpDrawablesToCurrentState();
+        getEndIconView().jumpDrawablesToCurrentState();
       }
     }
   }
@@ -3136,12 +3252,97 @@ public class TextInputLayout extends LinearLayout {
 
   @NonNull
   CheckableImageButton getEndIconView() {
+    if (endIconView == null) {
+      endIconView =
+          (CheckableImageButton)
+              LayoutInflater.from(getContext())
+                  .inflate(R.layout.design_text_input_end_icon, endIconFrame, false);
+      endIconView.setVisibility(GONE);
+      endIconView.setCheckable(endIconCheckable);
+      endIconFrame.addView(endIconView);
+    }
     return endIconView;
   }
 
   private EndIconDelegate getEndIconDelegate() {
-    EndIconDelegate endIconDelegate = endIconDelegates.get(endIconMode);
-    return endIconDelegate != null ? endIconDelegate : endIconDelegates.get(END_ICON_NONE);
+    int mode = isEndIconModeSupported(endIconMode) ? endIconMode : END_ICON_NONE;
+    EndIconDelegate endIconDelegate = endIconDelegates.get(mode);
+    if (endIconDelegate == null) {
+      endIconDelegate = createEndIconDelegate(mode);
+      endIconDelegates.put(mode, endIconDelegate);
+    }
+    return endIconDelegate;
+  }
+
+  private static boolean isEndIconModeSupported(@EndIconMode int endIconMode) {
+    switch (endIconMode) {
+      case END_ICON_CUSTOM:
+      case END_ICON_NONE:
+      case END_ICON_PASSWORD_TOGGLE:
+      case END_ICON_CLEAR_TEXT:
+      case END_ICON_DROPDOWN_MENU:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  @NonNull
+  private EndIconDelegate createEndIconDelegate(@EndIconMode int endIconMode) {
+    switch (endIconMode) {
+      case END_ICON_CUSTOM:
+        return new CustomEndIconDelegate(this);
+      case END_ICON_PASSWORD_TOGGLE:
+        return new PasswordToggleEndIconDelegate(this);
+      case END_ICON_CLEAR_TEXT:
+        return new ClearTextEndIconDelegate(this);
+      case END_ICON_DROPDOWN_MENU:
+        return new DropdownMenuEndIconDelegate(this);
+      default:
+        return new NoEndIconDelegate(this);
+    }
+  }
+
+  @NonNull
+  private CheckableImageButton getStartIconView() {
+    if (startIconView == null) {
+      startIconView =
+          (CheckableImageButton)
+              LayoutInflater.from(getContext())
+                  .inflate(R.layout.design_text_input_start_icon, startLayout, false);
+      startIconView.setVisibility(GONE);
+      startIconView.setCheckable(startIconCheckable);
+      setIconOnClickListener(startIconView, null, null);
+      setIconOnLongClickListener(startIconView, null);
+      // The start icon goes before the prefix
+      startLayout.addView(startIconView, 0);
+    }
+    return startIconView;
+  }
+
+  @NonNull
+  private CheckableImageButton getErrorIconView() {
+    if (errorIconView == null) {
+      errorIconView =
+          (CheckableImageButton)
+              LayoutInflater.from(getContext())
+                  .inflate(R.layout.design_text_input_end_icon, endLayout, false);
+      errorIconView.setVisibility(GONE);
+      errorIconView.setImageDrawable(errorIconDrawable);
+      errorIconDrawable = null;
+      errorIconView.setContentDescription(
+          getResources().getText(R.string.error_icon_content_description));
+      ViewCompat.setImportantForAccessibility(
+          errorIconView, ViewCompat.IMPORTANT_FOR_ACCESSIBILITY_NO);
+      errorIconView.setClickable(false);
+      errorIconView.setFocusable(false);
+      // The error icon goes between the suffix and the end icon frame, and after the frame once
+      // an edit text has been attached and brought both to the front
+      endLayout.addView(
+          errorIconView,
+          editText != null ? endLayout.getChildCount() : endLayout.indexOfChild(endIconFrame));
+    }
+    return errorIconView;
   }
 
   private void dispatchOnEditTextAttached() {
@@ -3176,7 +3377,7 @@ public class TextInputLayout extends LinearLayout {
       Drawable endIconDrawable = DrawableCompat.wrap(getEndIconDrawable()).mutate();
       DrawableCompat.setTint(
           endIconDrawable, indicatorViewController.getErrorViewCurrentTextColor());
-      endIconView.setImageDrawable(endIconDrawable);
+      getEndIconView().setImageDrawable(endIconDrawable);
     } else {
       applyEndIconTint();
     }
@@ -3222,7 +3423,8 @@ public class TextInputLayout extends LinearLayout {
 
     // Update end dummy drawable if needed.
     if (shouldUpdateEndDummyDrawable()) {
-      int right = suffixTextView.getMeasuredWidth() - editText.getPaddingRight();
+      int suffixWidth = suffixTextView != null ? suffixTextView.getMeasuredWidth() : 0;
+      int right = suffixWidth - editText.getPaddingRight();
       View iconView = getEndIconToUpdateDummyDrawable();
       if (iconView != null) {
         right =
@@ -3274,7 +3476,7 @@ public class TextInputLayout extends LinearLayout {
   }
 
   private boolean shouldUpdateEndDummyDrawable() {
-    return (errorIconView.getVisibility() == VISIBLE
+    return (isErrorIconVisible()
             || (hasEndIcon() && isEndIconVisible())
             || suffixText != null)
         && (endLayout.getMeasuredWidth() > 0);
@@ -3282,7 +3484,7 @@ public class TextInputLayout extends LinearLayout {
 
   @Nullable
   private CheckableImageButton getEndIconToUpdateDummyDrawable() {
-    if (errorIconView.getVisibility() == VISIBLE) {
+    if (isErrorIconVisible()) {
       return errorIconView;
     } else if (hasEndIcon() && isEndIconVisible()) {
       return endIconView;
@@ -3292,11 +3494,15 @@ public class TextInputLayout extends LinearLayout {
   }
 
   private void applyIconTint(
-      @NonNull CheckableImageButton iconView,
+      @Nullable CheckableImageButton iconView,
       boolean hasIconTintList,
       ColorStateList iconTintList,
       boolean hasIconTintMode,
       PorterDuff.Mode iconTintMode) {
+    if (iconView == null) {
+      // The tint is applied once the icon is set
+      return;
+    }
     Drawable icon = iconView.getDrawable();
     if (icon != null && (hasIconTintList || hasIconTintMode)) {
       icon = DrawableCompat.wrap(icon).mutate();
@@ -3533,7 +3739,7 @@ public class TextInputLayout extends LinearLayout {
       updateIconColorOnState(endIconView, endIconTintList);
     }
 
-    if (getEndIconDelegate().shouldTintIconOnError()) {
+    if (hasEndIcon() && getEndIconDelegate().shouldTintIconOnError()) {
       tintEndIconOnError(indicatorViewController.errorShouldBeShown());
     }
 
@@ -3560,7 +3766,9 @@ public class TextInputLayout extends LinearLayout {
   }
 
   private void setErrorIconVisible(boolean errorIconVisible) {
-    errorIconView.setVisibility(errorIconVisible ? VISIBLE : GONE);
+    if (errorIconView != null || errorIconVisible) {
+      getErrorIconView().setVisibility(errorIconVisible ? VISIBLE : GONE);
+    }
     endIconFrame.setVisibility(errorIconVisible ? GONE : VISIBLE);
     updateSuffixTextViewPadding();
     if (!hasEndIcon()) {
@@ -3569,11 +3777,14 @@ public class TextInputLayout extends LinearLayout {
   }
 
   private boolean isErrorIconVisible() {
-    return errorIconView.getVisibility() == VISIBLE;
+    return errorIconView != null && errorIconView.getVisibility() == VISIBLE;
   }
 
   private void updateIconColorOnState(
-      CheckableImageButton iconView, ColorStateList colorStateList) {
+      @Nullable CheckableImageButton iconView, ColorStateList colorStateList) {
+    if (iconView == null) {
+      return;
+    }
     Drawable icon = iconView.getDrawable();
     if (iconView.getDrawable() == null || colorStateList == null || !colorStateList.isStateful()) {
       return;
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.appbar;
+
+import com.google.android.material.R;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.os.Build.VERSION_CODES;
+import android.view.View;
+import android.widget.FrameLayout;
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.core.view.ViewCompat;
+import androidx.test.core.app.ApplicationProvider;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/** Tests for {@link com.google.android.material.appbar.AppBarLayout}. */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = VERSION_CODES.LOLLIPOP)
+@DoNotInstrument
+public class AppBarLayoutTest {
+
+  private AppCompatActivity activity;
+  private AppBarLayout appBarLayout;
+  private final List<Integer> dispatchedOffsets = new ArrayList<>();
+
+  @Before
+  public void setUpAppBarLayout() {
+    ApplicationProvider.getApplicationContext()
+        .setTheme(R.style.Theme_MaterialComponents_Light_NoActionBar_Bridge);
+    activity = Robolectric.buildActivity(AppCompatActivity.class).get();
+    appBarLayout = new AppBarLayout(activity);
+    appBarLayout.addOnOffsetChangedListener(
+        (AppBarLayout.OnOffsetChangedListener)
+            (layout, verticalOffset) -> dispatchedOffsets.add(verticalOffset));
+  }
+
+  @Test
+  public void givenUnchangedOffset_whenOffsetChanged_listenersAreNotNotifiedAgain() {
+    appBarLayout.onOffsetChanged(-10);
+    appBarLayout.onOffsetChanged(-10);
+    appBarLayout.onOffsetChanged(-20);
+
+    assertThat(dispatchedOffsets).containsExactly(-10, -20).inOrder();
+  }
+
+  @Test
+  public void givenNewListener_whenOffsetUnchanged_newListenerIsNotified() {
+    appBarLayout.onOffsetChanged(-10);
+    List<Integer> newListenerOffsets = new ArrayList<>();
+    appBarLayout.addOnOffsetChangedListener(
+        (AppBarLayout.OnOffsetChangedListener)
+            (layout, verticalOffset) -> newListenerOffsets.add(verticalOffset));
+
+    appBarLayout.onOffsetChanged(-10);
+
+    assertThat(newListenerOffsets).containsExactly(-10);
+  }
+
+  @Test
+  public void givenMissingLiftOnScrollTarget_whenParentLaidOut_targetIsLookedUpAgain() {
+    FrameLayout parent = new FrameLayout(activity);
+    parent.addView(appBarLayout);
+    int targetId = ViewCompat.generateViewId();
+    appBarLayout.setLiftOnScrollTargetViewId(targetId);
+    assertThat(appBarLayout.shouldLift(null)).isFalse();
+
+    View target = new View(activity);
+    target.setId(targetId);
+    target.scrollTo(0, 10);
+    parent.addView(target);
+    // The failed lookup is cached until the parent is laid out again
+    assertThat(appBarLayout.shouldLift(null)).isFalse();
+
+    appBarLayout.onParentLayout();
+    assertThat(appBarLayout.shouldLift(null)).isTrue();
+  }
+}
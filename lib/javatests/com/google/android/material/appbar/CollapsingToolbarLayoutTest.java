@@ -0,0 +1,179 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.appbar;
+
+import com.google.android.material.R;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.graphics.Color;
+import android.graphics.drawable.ColorDrawable;
+import android.os.Build.VERSION_CODES;
+import android.view.View;
+import android.view.View.MeasureSpec;
+import android.view.ViewGroup;
+import android.widget.ImageView;
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.appcompat.widget.Toolbar;
+import androidx.test.core.app.ApplicationProvider;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/** Tests for {@link com.google.android.material.appbar.CollapsingToolbarLayout}. */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = VERSION_CODES.LOLLIPOP)
+@DoNotInstrument
+public class CollapsingToolbarLayoutTest {
+
+  private static final int WIDTH = 400;
+  private static final int HEIGHT = 300;
+
+  private AppBarLayout appBarLayout;
+  private CollapsingToolbarLayout collapsingToolbarLayout;
+  private ImageView parallaxChild;
+  private Toolbar toolbar;
+
+  @Before
+  public void setUpCollapsingToolbarLayout() {
+    ApplicationProvider.getApplicationContext()
+        .setTheme(R.style.Theme_MaterialComponents_Light_NoActionBar_Bridge);
+    AppCompatActivity activity = Robolectric.buildActivity(AppCompatActivity.class).setup().get();
+    appBarLayout = new AppBarLayout(activity);
+    collapsingToolbarLayout = new CollapsingToolbarLayout(activity);
+
+    parallaxChild = new ImageView(activity);
+    CollapsingToolbarLayout.LayoutParams parallaxParams =
+        new CollapsingToolbarLayout.LayoutParams(
+            ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT);
+    parallaxParams.setCollapseMode(CollapsingToolbarLayout.LayoutParams.COLLAPSE_MODE_PARALLAX);
+    parallaxParams.setParallaxMultiplier(0.5f);
+    collapsingToolbarLayout.addView(parallaxChild, parallaxParams);
+
+    toolbar = new Toolbar(activity);
+    collapsingToolbarLayout.addView(
+        toolbar,
+        new CollapsingToolbarLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, 100));
+
+    appBarLayout.addView(
+        collapsingToolbarLayout,
+        new AppBarLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, HEIGHT));
+    activity.setContentView(appBarLayout);
+  }
+
+  @Test
+  public void givenScrimOverlay_scrimIsDrawnJustBeforeToolbar() {
+    collapsingToolbarLayout.setContentScrim(new ColorDrawable(Color.RED));
+    collapsingToolbarLayout.setScrimOverlayEnabled(true);
+    layout();
+
+    assertThat(collapsingToolbarLayout.getChildCount()).isEqualTo(3);
+    assertThat(collapsingToolbarLayout.getChildAt(0)).isSameInstanceAs(parallaxChild);
+    assertThat(collapsingToolbarLayout.getChildAt(1)).isSameInstanceAs(toolbar);
+    assertThat(drawingOrder()).asList().containsExactly(0, 2, 1).inOrder();
+  }
+
+  @Test
+  public void givenScrimOverlay_whenScrimsShown_onlyOverlayAlphaChanges() {
+    collapsingToolbarLayout.setContentScrim(new ColorDrawable(Color.RED));
+    collapsingToolbarLayout.setScrimOverlayEnabled(true);
+    layout();
+    View scrimView = collapsingToolbarLayout.getChildAt(2);
+
+    collapsingToolbarLayout.setScrimsShown(true, false);
+    assertThat(scrimView.getAlpha()).isEqualTo(1f);
+    assertThat(scrimView.getVisibility()).isEqualTo(View.VISIBLE);
+
+    collapsingToolbarLayout.setScrimsShown(false, false);
+    assertThat(scrimView.getVisibility()).isEqualTo(View.INVISIBLE);
+  }
+
+  @Test
+  public void givenScrimOverlay_whenOffsetChanged_overlayIsNotMoved() {
+    collapsingToolbarLayout.setContentScrim(new ColorDrawable(Color.RED));
+    collapsingToolbarLayout.setScrimOverlayEnabled(true);
+    layout();
+    View scrimView = collapsingToolbarLayout.getChildAt(2);
+
+    appBarLayout.onOffsetChanged(-100);
+
+    assertThat(scrimView.getTag(R.id.view_offset_helper)).isNull();
+    assertThat(scrimView.getTop()).isEqualTo(0);
+    assertThat(scrimView.getBottom()).isEqualTo(HEIGHT);
+    assertThat(scrimView.getTranslationY()).isEqualTo(0f);
+  }
+
+  @Test
+  public void givenScrimOverlayDisabled_overlayIsRemoved() {
+    collapsingToolbarLayout.setContentScrim(new ColorDrawable(Color.RED));
+    collapsingToolbarLayout.setScrimOverlayEnabled(true);
+    collapsingToolbarLayout.setScrimOverlayEnabled(false);
+    layout();
+
+    assertThat(collapsingToolbarLayout.getChildCount()).isEqualTo(2);
+    assertThat(drawingOrder()).asList().containsExactly(0, 1).inOrder();
+  }
+
+  @Test
+  public void givenNoContentScrim_overlayIsNotAdded() {
+    collapsingToolbarLayout.setScrimOverlayEnabled(true);
+
+    assertThat(collapsingToolbarLayout.getChildCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void givenParallaxTranslation_whenOffsetChanged_parallaxChildIsTranslated() {
+    collapsingToolbarLayout.setParallaxTranslationEnabled(true);
+    layout();
+    int top = parallaxChild.getTop();
+
+    appBarLayout.onOffsetChanged(-100);
+
+    assertThat(parallaxChild.getTranslationY()).isEqualTo(50f);
+    assertThat(parallaxChild.getTop()).isEqualTo(top);
+  }
+
+  @Test
+  public void givenParallaxTranslationDisabled_whenOffsetChanged_parallaxChildIsOffset() {
+    layout();
+    int top = parallaxChild.getTop();
+
+    appBarLayout.onOffsetChanged(-100);
+
+    assertThat(parallaxChild.getTranslationY()).isEqualTo(0f);
+    assertThat(parallaxChild.getTop()).isEqualTo(top + 50);
+  }
+
+  private void layout() {
+    appBarLayout.measure(
+        MeasureSpec.makeMeasureSpec(WIDTH, MeasureSpec.EXACTLY),
+        MeasureSpec.makeMeasureSpec(HEIGHT, MeasureSpec.EXACTLY));
+    appBarLayout.layout(0, 0, WIDTH, HEIGHT);
+  }
+
+  private int[] drawingOrder() {
+    int childCount = collapsingToolbarLayout.getChildCount();
+    int[] order = new int[childCount];
+    for (int i = 0; i < childCount; i++) {
+      order[i] = collapsingToolbarLayout.getChildDrawingOrder(childCount, i);
+    }
+    return order;
+  }
+}
@@ -21,7 +21,9 @@ import static com.google.common.truth.Truth.assertThat;
 
 import android.content.Context;
 import android.content.res.TypedArray;
+import android.graphics.drawable.Drawable;
 import android.os.Parcel;
+import androidx.annotation.NonNull;
 import androidx.annotation.StyleRes;
 import androidx.annotation.XmlRes;
 import androidx.core.content.res.ResourcesCompat;
@@ -81,6 +83,47 @@ public class BadgeDrawableTest {
     assertThat(restoredBadgeDrawable.getBadgeGravity()).isEqualTo(BadgeDrawable.TOP_START);
   }
 
+  @Test
+  public void testBatchUpdate_invalidatesOnce() {
+    BadgeDrawable badgeDrawable = BadgeDrawable.create(context);
+    InvalidationCounter invalidationCounter = new InvalidationCounter();
+    badgeDrawable.setCallback(invalidationCounter);
+
+    badgeDrawable.beginBatchUpdate();
+    badgeDrawable.setNumber(TEST_BADGE_NUMBER);
+    badgeDrawable.setMaxCharacterCount(2);
+    badgeDrawable.setVisible(false);
+    assertThat(invalidationCounter.count).isEqualTo(0);
+
+    badgeDrawable.endBatchUpdate();
+    assertThat(invalidationCounter.count).isEqualTo(1);
+    assertThat(badgeDrawable.getNumber()).isEqualTo(TEST_BADGE_NUMBER);
+    assertThat(badgeDrawable.isVisible()).isFalse();
+  }
+
+  @Test
+  public void testNestedBatchUpdate_invalidatesOnceOuterBatchEnds() {
+    BadgeDrawable badgeDrawable = BadgeDrawable.create(context);
+    InvalidationCounter invalidationCounter = new InvalidationCounter();
+    badgeDrawable.setCallback(invalidationCounter);
+
+    badgeDrawable.beginBatchUpdate();
+    badgeDrawable.setNumber(TEST_BADGE_NUMBER);
+    badgeDrawable.beginBatchUpdate();
+    badgeDrawable.setMaxCharacterCount(2);
+    badgeDrawable.endBatchUpdate();
+    badgeDrawable.setNumber(TEST_BADGE_NUMBER + 1);
+    assertThat(invalidationCounter.count).isEqualTo(0);
+
+    badgeDrawable.endBatchUpdate();
+    assertThat(invalidationCounter.count).isEqualTo(1);
+
+    // Unbalanced calls are ignored and don't suspend the badge
+    badgeDrawable.endBatchUpdate();
+    badgeDrawable.setNumber(TEST_BADGE_NUMBER);
+    assertThat(invalidationCounter.count).isEqualTo(2);
+  }
+
   // Verify that the hardcoded badge gravity attribute values match their piped Gravity counter
   // parts.
   @Test
@@ -124,4 +167,19 @@ public class BadgeDrawableTest {
     assertThat(value).isEqualTo(expectedValue);
     a.recycle();
   }
+
+  private static class InvalidationCounter implements Drawable.Callback {
+    int count;
+
+    @Override
+    public void invalidateDrawable(@NonNull Drawable who) {
+      count++;
+    }
+
+    @Override
+    public void scheduleDrawable(@NonNull Drawable who, @NonNull Runnable what, long when) {}
+
+    @Override
+    public void unscheduleDrawable(@NonNull Drawable who, @NonNull Runnable what) {}
+  }
 }
@@ -20,9 +20,14 @@ import com.google.android.material.R;
 import static com.google.common.truth.Truth.assertThat;
 
 import android.content.Context;
+import android.graphics.drawable.Drawable;
+import android.util.SparseIntArray;
 import android.view.Menu;
 import android.view.MenuItem;
+import android.view.View;
+import androidx.annotation.NonNull;
 import androidx.test.core.app.ApplicationProvider;
+import com.google.android.material.badge.BadgeDrawable;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -72,6 +77,25 @@ public final class BottomNavigationViewTest {
     assertThat(bottomNavigation.getSelectedItemId()).isEqualTo(selectedItem.getItemId());
   }
 
+  @Test
+  public void testAddAndRemoveItems_existingItemViewsAreKept() {
+    BottomNavigationView bottomNavigation = new BottomNavigationView(context);
+    Menu menu = bottomNavigation.getMenu();
+    menu.add(Menu.NONE, 123, Menu.NONE, "first item");
+    menu.add(Menu.NONE, 456, Menu.NONE, "second item");
+    View firstItemView = bottomNavigation.findViewById(123);
+
+    menu.add(Menu.NONE, 789, Menu.NONE, "third item");
+    assertThat(bottomNavigation.<View>findViewById(123)).isEqualTo(firstItemView);
+    assertThat(bottomNavigation.<View>findViewById(789)).isNotNull();
+
+    menu.removeItem(456);
+    assertThat(bottomNavigation.<View>findViewById(123)).isEqualTo(firstItemView);
+    assertThat(bottomNavigation.<View>findViewById(456)).isNull();
+    assertThat(bottomNavigation.<View>findViewById(789)).isNotNull();
+    assertThat(bottomNavigation.getSelectedItemId()).isEqualTo(123);
+  }
+
   @Test
   public void testRemoveBadgeEmptyMenu() {
     BottomNavigationView bottomNavigation = new BottomNavigationView(context);
@@ -80,4 +104,81 @@ public final class BottomNavigationViewTest {
     bottomNavigation.removeBadge(123);
     // No exception expected.
   }
+
+  @Test
+  public void testSetBadgeNumbers_createsBadges() {
+    BottomNavigationView bottomNavigation = new BottomNavigationView(context);
+    Menu menu = bottomNavigation.getMenu();
+    menu.add(Menu.NONE, 123, Menu.NONE, "first item");
+    menu.add(Menu.NONE, 456, Menu.NONE, "second item");
+    SparseIntArray badgeNumbers = new SparseIntArray();
+    badgeNumbers.put(123, 5);
+    badgeNumbers.put(456, 1000);
+
+    bottomNavigation.setBadgeNumbers(badgeNumbers);
+
+    assertThat(bottomNavigation.getBadge(123).getNumber()).isEqualTo(5);
+    assertThat(bottomNavigation.getBadge(456).getNumber()).isEqualTo(1000);
+  }
+
+  @Test
+  public void testBadgeBatchUpdate_invalidatesEachBadgeOnce() {
+    BottomNavigationView bottomNavigation = new BottomNavigationView(context);
+    Menu menu = bottomNavigation.getMenu();
+    menu.add(Menu.NONE, 123, Menu.NONE, "first item");
+    menu.add(Menu.NONE, 456, Menu.NONE, "second item");
+    BadgeDrawable firstBadge = bottomNavigation.getOrCreateBadge(123);
+    InvalidationCounter firstCounter = new InvalidationCounter();
+    firstBadge.setCallback(firstCounter);
+
+    bottomNavigation.beginBadgeBatchUpdate();
+    firstBadge.setNumber(5);
+    firstBadge.setMaxCharacterCount(2);
+    firstBadge.setVisible(false);
+    BadgeDrawable secondBadge = bottomNavigation.getOrCreateBadge(456);
+    InvalidationCounter secondCounter = new InvalidationCounter();
+    secondBadge.setCallback(secondCounter);
+    secondBadge.setNumber(1000);
+    assertThat(bottomNavigation.getOrCreateBadge(123)).isSameInstanceAs(firstBadge);
+    assertThat(firstCounter.count).isEqualTo(0);
+    assertThat(secondCounter.count).isEqualTo(0);
+
+    bottomNavigation.endBadgeBatchUpdate();
+    assertThat(firstCounter.count).isEqualTo(1);
+    assertThat(secondCounter.count).isEqualTo(1);
+    assertThat(firstBadge.isVisible()).isFalse();
+    assertThat(secondBadge.getNumber()).isEqualTo(1000);
+  }
+
+  @Test
+  public void testRemoveBadgeDuringBatchUpdate_badgeIsNotSuspended() {
+    BottomNavigationView bottomNavigation = new BottomNavigationView(context);
+    Menu menu = bottomNavigation.getMenu();
+    menu.add(Menu.NONE, 123, Menu.NONE, "first item");
+    BadgeDrawable badge = bottomNavigation.getOrCreateBadge(123);
+
+    bottomNavigation.beginBadgeBatchUpdate();
+    bottomNavigation.removeBadge(123);
+    bottomNavigation.endBadgeBatchUpdate();
+
+    InvalidationCounter counter = new InvalidationCounter();
+    badge.setCallback(counter);
+    badge.setNumber(5);
+    assertThat(counter.count).isEqualTo(1);
+  }
+
+  private static class InvalidationCounter implements Drawable.Callback {
+    int count;
+
+    @Override
+    public void invalidateDrawable(@NonNull Drawable who) {
+      count++;
+    }
+
+    @Override
+    public void scheduleDrawable(@NonNull Drawable who, @NonNull Runnable what, long when) {}
+
+    @Override
+    public void unscheduleDrawable(@NonNull Drawable who, @NonNull Runnable what) {}
+  }
 }
@@ -22,8 +22,10 @@ import static com.google.common.truth.Truth.assertThat;
 import android.content.Context;
 import android.graphics.drawable.Drawable;
 import androidx.annotation.Nullable;
+import androidx.appcompat.view.ContextThemeWrapper;
 import androidx.core.content.ContextCompat;
 import androidx.core.graphics.drawable.DrawableCompat;
+import android.util.AttributeSet;
 import android.view.View.MeasureSpec;
 import androidx.test.core.app.ApplicationProvider;
 import com.google.android.material.shape.CornerFamily;
@@ -33,7 +35,9 @@ import com.google.android.material.shape.ShapeAppearanceModel;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
 import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
 import org.robolectric.annotation.Config;
 
 /**
@@ -158,6 +162,52 @@ public class MaterialButtonTest {
     assertThat(callCount).isEqualTo(1);
   }
 
+  @Test
+  public void testButtonsOfSameStyle_shareBackgroundState() {
+    MaterialButton first = new MaterialButton(context);
+    MaterialButton second = new MaterialButton(context);
+
+    assertThat(second.getShapeAppearanceModel()).isSameInstanceAs(first.getShapeAppearanceModel());
+    assertThat(second.getRippleColor()).isSameInstanceAs(first.getRippleColor());
+  }
+
+  @Test
+  public void testButtonsWithDifferentShapeAppearanceOverlays_dontShareBackgroundState() {
+    MaterialButton first = new MaterialButton(context);
+    AttributeSet attributes =
+        Robolectric.buildAttributeSet()
+            .addAttribute(
+                R.attr.shapeAppearanceOverlay,
+                "@style/ShapeAppearanceOverlay.MaterialComponents.FloatingActionButton")
+            .build();
+    MaterialButton second = new MaterialButton(context, attributes);
+
+    assertThat(second.getShapeAppearanceModel())
+        .isNotSameInstanceAs(first.getShapeAppearanceModel());
+  }
+
+  @Test
+  public void testButtonsWithDifferentThemes_dontShareBackgroundState() {
+    MaterialButton first = new MaterialButton(context);
+    MaterialButton second =
+        new MaterialButton(
+            new ContextThemeWrapper(context, R.style.ThemeOverlay_MaterialComponents_Dark));
+
+    assertThat(second.getShapeAppearanceModel())
+        .isNotSameInstanceAs(first.getShapeAppearanceModel());
+  }
+
+  @Test
+  public void testButtonsWithDifferentConfigurations_dontShareBackgroundState() {
+    MaterialButton first = new MaterialButton(context);
+    // Changes the configuration of the context's resources in place
+    RuntimeEnvironment.setQualifiers("+land");
+    MaterialButton second = new MaterialButton(context);
+
+    assertThat(second.getShapeAppearanceModel())
+        .isNotSameInstanceAs(first.getShapeAppearanceModel());
+  }
+
   private static int makeMeasureSpec(int size) {
     return MeasureSpec.makeMeasureSpec(size, MeasureSpec.AT_MOST);
   }
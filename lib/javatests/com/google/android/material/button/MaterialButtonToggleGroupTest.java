@@ -0,0 +1,169 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.button;
+
+import com.google.android.material.R;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.content.Context;
+import android.view.View.MeasureSpec;
+import androidx.annotation.NonNull;
+import androidx.core.view.ViewCompat;
+import androidx.test.core.app.ApplicationProvider;
+import com.google.android.material.button.MaterialButtonToggleGroup.OnCheckedStateChangeListener;
+import com.google.android.material.shape.ShapeAppearanceModel;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+/** Tests for {@link com.google.android.material.button.MaterialButtonToggleGroup}. */
+@RunWith(RobolectricTestRunner.class)
+public class MaterialButtonToggleGroupTest {
+
+  private final Context context = ApplicationProvider.getApplicationContext();
+  private MaterialButtonToggleGroup toggleGroup;
+  private int callCount;
+
+  @Before
+  public void themeApplicationContext() {
+    context.setTheme(R.style.Theme_MaterialComponents_Light_NoActionBar_Bridge);
+    toggleGroup = new MaterialButtonToggleGroup(context);
+    for (int i = 0; i < 3; i++) {
+      toggleGroup.addView(new MaterialButton(context));
+    }
+  }
+
+  @Test
+  public void testCheckedButtonIdsFollowButtonState() {
+    MaterialButton first = (MaterialButton) toggleGroup.getChildAt(0);
+    MaterialButton last = (MaterialButton) toggleGroup.getChildAt(2);
+
+    last.setChecked(true);
+    toggleGroup.check(first.getId());
+
+    assertThat(toggleGroup.getCheckedButtonIds())
+        .containsExactly(first.getId(), last.getId())
+        .inOrder();
+    assertThat(toggleGroup.getCheckedButtonCount()).isEqualTo(2);
+
+    toggleGroup.removeView(first);
+    assertThat(toggleGroup.getCheckedButtonIds()).containsExactly(last.getId());
+
+    toggleGroup.clearChecked();
+    assertThat(toggleGroup.getCheckedButtonIds()).isEmpty();
+    assertThat(last.isChecked()).isFalse();
+  }
+
+  @Test
+  public void testIdAssignedAfterAdding_isCheckable() {
+    MaterialButton button = (MaterialButton) toggleGroup.getChildAt(1);
+    int id = ViewCompat.generateViewId();
+    button.setId(id);
+
+    toggleGroup.check(id);
+
+    assertThat(button.isChecked()).isTrue();
+    assertThat(toggleGroup.getCheckedButtonIds()).containsExactly(id);
+  }
+
+  @Test
+  public void testIdChangedWhileChecked_checkedIdsFollowButton() {
+    MaterialButton button = (MaterialButton) toggleGroup.getChildAt(1);
+    toggleGroup.check(button.getId());
+    int id = ViewCompat.generateViewId();
+    button.setId(id);
+
+    assertThat(toggleGroup.getCheckedButtonIds()).containsExactly(id);
+
+    toggleGroup.uncheckButtons(id);
+
+    assertThat(button.isChecked()).isFalse();
+    assertThat(toggleGroup.getCheckedButtonCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void testCheckButtons_notifiesOnce() {
+    toggleGroup.addOnCheckedStateChangeListener(
+        new OnCheckedStateChangeListener() {
+          @Override
+          public void onCheckedStateChanged(@NonNull MaterialButtonToggleGroup group) {
+            callCount++;
+          }
+        });
+    int[] ids = new int[toggleGroup.getChildCount()];
+    for (int i = 0; i < ids.length; i++) {
+      ids[i] = toggleGroup.getChildAt(i).getId();
+    }
+
+    toggleGroup.checkButtons(ids);
+    assertThat(toggleGroup.getCheckedButtonCount()).isEqualTo(ids.length);
+    assertThat(callCount).isEqualTo(1);
+
+    toggleGroup.uncheckButtons(ids);
+    assertThat(toggleGroup.getCheckedButtonCount()).isEqualTo(0);
+    assertThat(callCount).isEqualTo(2);
+  }
+
+  @Test
+  public void testSingleSelection_checkedButtonIds() {
+    toggleGroup.setSingleSelection(true);
+    int firstId = toggleGroup.getChildAt(0).getId();
+    int secondId = toggleGroup.getChildAt(1).getId();
+
+    toggleGroup.check(firstId);
+    ((MaterialButton) toggleGroup.getChildAt(1)).setChecked(true);
+
+    assertThat(toggleGroup.getCheckedButtonId()).isEqualTo(secondId);
+    assertThat(toggleGroup.getCheckedButtonIds()).containsExactly(secondId);
+  }
+
+  @Test
+  public void testMiddleChildren_shareShape() {
+    toggleGroup.addView(new MaterialButton(context));
+    measure(toggleGroup);
+
+    ShapeAppearanceModel secondShape =
+        ((MaterialButton) toggleGroup.getChildAt(1)).getShapeAppearanceModel();
+    ShapeAppearanceModel thirdShape =
+        ((MaterialButton) toggleGroup.getChildAt(2)).getShapeAppearanceModel();
+    assertThat(secondShape).isSameInstanceAs(thirdShape);
+    assertThat(secondShape.getTopLeftCorner().getCornerSize()).isEqualTo(0f);
+  }
+
+  @Test
+  public void testRemoveLastChild_onlyReshapesNewLastChild() {
+    MaterialButton first = (MaterialButton) toggleGroup.getChildAt(0);
+    MaterialButton second = (MaterialButton) toggleGroup.getChildAt(1);
+    measure(toggleGroup);
+    ShapeAppearanceModel firstShape = first.getShapeAppearanceModel();
+    float cornerSize = firstShape.getTopLeftCorner().getCornerSize();
+
+    toggleGroup.removeViewAt(2);
+
+    assertThat(first.getShapeAppearanceModel()).isSameInstanceAs(firstShape);
+    assertThat(second.getShapeAppearanceModel().getTopLeftCorner().getCornerSize()).isEqualTo(0f);
+    assertThat(second.getShapeAppearanceModel().getTopRightCorner().getCornerSize())
+        .isEqualTo(cornerSize);
+  }
+
+  private static void measure(MaterialButtonToggleGroup toggleGroup) {
+    toggleGroup.measure(
+        MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED),
+        MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED));
+  }
+}
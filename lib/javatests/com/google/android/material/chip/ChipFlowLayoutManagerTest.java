@@ -0,0 +1,269 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.chip;
+
+import com.google.android.material.R;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.content.Context;
+import android.os.Parcelable;
+import androidx.annotation.NonNull;
+import androidx.appcompat.app.AppCompatActivity;
+import android.view.View;
+import android.view.View.MeasureSpec;
+import android.view.ViewGroup;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.core.app.ApplicationProvider;
+import java.util.Arrays;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/** Tests for {@link com.google.android.material.chip.ChipFlowLayoutManager}. */
+@RunWith(RobolectricTestRunner.class)
+@DoNotInstrument
+public class ChipFlowLayoutManagerTest {
+
+  private static final int WIDTH = 100;
+  private static final int HEIGHT = 50;
+  private static final int ITEM_WIDTH = 30;
+  private static final int ITEM_HEIGHT = 10;
+
+  private AppCompatActivity activity;
+  private RecyclerView recyclerView;
+  private ChipFlowLayoutManager layoutManager;
+  private ItemAdapter adapter;
+
+  @Before
+  public void setUpRecyclerView() {
+    ApplicationProvider.getApplicationContext()
+        .setTheme(R.style.Theme_MaterialComponents_Light_NoActionBar_Bridge);
+    activity = Robolectric.buildActivity(AppCompatActivity.class).setup().get();
+    adapter = new ItemAdapter(100);
+    layoutManager = new ChipFlowLayoutManager();
+    recyclerView = createRecyclerView(layoutManager);
+  }
+
+  @Test
+  public void testItemsWrapOntoNextLine() {
+    layoutManager.setItemSpacing(10);
+    layoutManager.setLineSpacing(4);
+    layout();
+
+    // Two items and their spacing take up 70 of the 100 pixels, so the third starts a new line
+    assertItemAt(0, 0, 0);
+    assertItemAt(1, 40, 0);
+    assertItemAt(2, 0, ITEM_HEIGHT + 4);
+    assertItemAt(3, 40, ITEM_HEIGHT + 4);
+  }
+
+  @Test
+  public void testItemFillingLineExactlyStaysOnLine() {
+    layoutManager.setItemSpacing(5);
+    layout();
+
+    assertItemAt(2, 70, 0);
+    assertItemAt(3, 0, ITEM_HEIGHT);
+  }
+
+  @Test
+  public void testOnlyVisibleLinesAreLaidOut() {
+    layout();
+
+    // Three items per line, five lines fit
+    assertThat(recyclerView.getChildCount()).isEqualTo(15);
+    assertThat(recyclerView.findViewHolderForAdapterPosition(15)).isNull();
+  }
+
+  @Test
+  public void testScrollingRecyclesAndBindsWholeLines() {
+    layout();
+
+    recyclerView.scrollBy(0, 10 * ITEM_HEIGHT);
+
+    assertThat(firstPosition()).isEqualTo(30);
+    assertItemAt(30, 0, 0);
+    assertThat(recyclerView.findViewHolderForAdapterPosition(29)).isNull();
+
+    recyclerView.scrollBy(0, -5 * ITEM_HEIGHT);
+
+    assertThat(firstPosition()).isEqualTo(15);
+    assertItemAt(15, 0, 0);
+  }
+
+  @Test
+  public void testScrollToPositionAnchorsItsLine() {
+    layout();
+
+    layoutManager.scrollToPosition(50);
+    layout();
+
+    // Position 50 is on the line starting at 48
+    assertThat(firstPosition()).isEqualTo(48);
+    assertItemAt(50, 2 * ITEM_WIDTH, 0);
+  }
+
+  @Test
+  public void testSavedAnchorIsRestored() {
+    layout();
+    recyclerView.scrollBy(0, 10 * ITEM_HEIGHT + 4);
+    Parcelable state = layoutManager.onSaveInstanceState();
+
+    ChipFlowLayoutManager restoredLayoutManager = new ChipFlowLayoutManager();
+    restoredLayoutManager.onRestoreInstanceState(state);
+    recyclerView = createRecyclerView(restoredLayoutManager);
+    layout();
+
+    assertThat(firstPosition()).isEqualTo(30);
+    assertItemAt(30, 0, -4);
+  }
+
+  @Test
+  public void testAnchorRecoversWhenItemsAreRemovedPastIt() {
+    layout();
+    recyclerView.scrollBy(0, 20 * ITEM_HEIGHT);
+
+    adapter.setItemCount(12);
+    layout();
+
+    // The remaining four lines fit, so they are laid out from the top again
+    assertThat(firstPosition()).isEqualTo(0);
+    assertItemAt(0, 0, 0);
+    assertItemAt(11, 2 * ITEM_WIDTH, 3 * ITEM_HEIGHT);
+  }
+
+  @Test
+  public void testItemWideningWithoutRebindRewrapsLine() {
+    layout();
+
+    // For example, a chip showing its checked icon
+    resizeItem(1, 50);
+    layout();
+
+    assertItemAt(1, ITEM_WIDTH, 0);
+    assertItemAt(2, 0, ITEM_HEIGHT);
+    assertItemAt(3, ITEM_WIDTH, ITEM_HEIGHT);
+  }
+
+  @Test
+  public void testItemNarrowingWithoutRebindRewrapsLine() {
+    adapter.itemWidths[1] = 50;
+    layout();
+    assertItemAt(2, 0, ITEM_HEIGHT);
+
+    resizeItem(1, ITEM_WIDTH);
+    layout();
+
+    assertItemAt(2, 2 * ITEM_WIDTH, 0);
+    assertItemAt(3, 0, ITEM_HEIGHT);
+  }
+
+  @Test
+  public void testSingleLineScrollsHorizontally() {
+    layoutManager.setSingleLine(true);
+    layout();
+
+    assertThat(layoutManager.canScrollHorizontally()).isTrue();
+    assertThat(layoutManager.canScrollVertically()).isFalse();
+    assertItemAt(3, 3 * ITEM_WIDTH, 0);
+
+    recyclerView.scrollBy(2 * ITEM_WIDTH, 0);
+
+    assertThat(firstPosition()).isEqualTo(2);
+    assertItemAt(2, 0, 0);
+  }
+
+  private RecyclerView createRecyclerView(ChipFlowLayoutManager layoutManager) {
+    RecyclerView recyclerView = new RecyclerView(activity);
+    recyclerView.setLayoutManager(layoutManager);
+    recyclerView.setAdapter(adapter);
+    recyclerView.setItemAnimator(null);
+    return recyclerView;
+  }
+
+  private void layout() {
+    recyclerView.measure(
+        MeasureSpec.makeMeasureSpec(WIDTH, MeasureSpec.EXACTLY),
+        MeasureSpec.makeMeasureSpec(HEIGHT, MeasureSpec.EXACTLY));
+    recyclerView.layout(0, 0, WIDTH, HEIGHT);
+  }
+
+  private void resizeItem(int position, int width) {
+    adapter.itemWidths[position] = width;
+    SizedView view = (SizedView) recyclerView.findViewHolderForAdapterPosition(position).itemView;
+    view.itemWidth = width;
+    view.requestLayout();
+  }
+
+  private int firstPosition() {
+    return recyclerView.getChildAdapterPosition(recyclerView.getChildAt(0));
+  }
+
+  private void assertItemAt(int position, int left, int top) {
+    RecyclerView.ViewHolder holder = recyclerView.findViewHolderForAdapterPosition(position);
+    assertThat(holder).isNotNull();
+    assertThat(holder.itemView.getLeft()).isEqualTo(left);
+    assertThat(holder.itemView.getTop()).isEqualTo(top);
+  }
+
+  private static class SizedView extends View {
+    int itemWidth;
+
+    SizedView(Context context) {
+      super(context);
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+      setMeasuredDimension(itemWidth, ITEM_HEIGHT);
+    }
+  }
+
+  private static class ItemAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+    int[] itemWidths;
+
+    ItemAdapter(int itemCount) {
+      setItemCount(itemCount);
+    }
+
+    void setItemCount(int itemCount) {
+      itemWidths = new int[itemCount];
+      Arrays.fill(itemWidths, ITEM_WIDTH);
+      notifyDataSetChanged();
+    }
+
+    @NonNull
+    @Override
+    public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+      return new RecyclerView.ViewHolder(new SizedView(parent.getContext())) {};
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
+      ((SizedView) holder.itemView).itemWidth = itemWidths[position];
+    }
+
+    @Override
+    public int getItemCount() {
+      return itemWidths.length;
+    }
+  }
+}
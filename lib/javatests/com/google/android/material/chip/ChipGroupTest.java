@@ -20,6 +20,7 @@ import com.google.android.material.R;
 import static com.google.common.truth.Truth.assertThat;
 
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.core.view.ViewCompat;
 import android.view.View;
 import androidx.test.core.app.ApplicationProvider;
 import org.junit.Before;
@@ -65,4 +66,53 @@ public class ChipGroupTest {
     chipgroup.clearCheck();
     assertThat(chipgroup.getCheckedChipId()).isEqualTo(View.NO_ID);
   }
+
+  @Test
+  public void testChipIdAssignedAfterAdding_isCheckable() {
+    Chip chip = new Chip(chipgroup.getContext());
+    chip.setCheckable(true);
+    chipgroup.addView(chip);
+    int id = ViewCompat.generateViewId();
+    chip.setId(id);
+
+    chipgroup.check(id);
+
+    assertThat(chip.isChecked()).isTrue();
+    assertThat(chipgroup.getCheckedChipIds()).containsExactly(id);
+  }
+
+  @Test
+  public void testChipIdChangedWhileChecked_checkedIdsFollowChip() {
+    Chip chip = new Chip(chipgroup.getContext());
+    chip.setCheckable(true);
+    chip.setChecked(true);
+    chipgroup.addView(chip);
+    int id = ViewCompat.generateViewId();
+    chip.setId(id);
+
+    assertThat(chipgroup.getCheckedChipIds()).containsExactly(id);
+
+    chip.setChecked(false);
+
+    assertThat(chipgroup.getCheckedChipCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void testCheckedChipIds() {
+    Chip chip = new Chip(chipgroup.getContext());
+    chip.setCheckable(true);
+    chip.setChecked(true);
+    chipgroup.addView(chip);
+    int filterChipId = chipgroup.getChildAt(0).getId();
+    chipgroup.check(filterChipId);
+
+    assertThat(chipgroup.getCheckedChipIds()).containsExactly(filterChipId, chip.getId());
+    assertThat(chipgroup.getCheckedChipCount()).isEqualTo(2);
+
+    chipgroup.removeView(chip);
+    assertThat(chipgroup.getCheckedChipIds()).containsExactly(filterChipId);
+
+    chipgroup.clearCheck();
+    assertThat(chipgroup.getCheckedChipCount()).isEqualTo(0);
+  }
 }
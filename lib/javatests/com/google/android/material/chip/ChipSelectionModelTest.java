@@ -0,0 +1,127 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.android.material.chip;
+
+import com.google.android.material.R;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import androidx.annotation.NonNull;
+import androidx.appcompat.app.AppCompatActivity;
+import android.view.View.MeasureSpec;
+import android.view.ViewGroup;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.core.app.ApplicationProvider;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/** Tests for {@link com.google.android.material.chip.ChipSelectionModel}. */
+@RunWith(RobolectricTestRunner.class)
+@DoNotInstrument
+public class ChipSelectionModelTest {
+
+  private RecyclerView recyclerView;
+  private ChipAdapter adapter;
+  private ChipSelectionModel selectionModel;
+
+  @Before
+  public void setUpRecyclerView() {
+    ApplicationProvider.getApplicationContext()
+        .setTheme(R.style.Theme_MaterialComponents_Light_NoActionBar_Bridge);
+    AppCompatActivity activity = Robolectric.buildActivity(AppCompatActivity.class).setup().get();
+    recyclerView = new RecyclerView(activity);
+    recyclerView.setLayoutManager(new ChipFlowLayoutManager());
+    adapter = new ChipAdapter();
+    recyclerView.setAdapter(adapter);
+    selectionModel = new ChipSelectionModel();
+    selectionModel.attachToRecyclerView(recyclerView);
+  }
+
+  @Test
+  public void testSingleSelection() {
+    selectionModel.setSingleSelection(true);
+    selectionModel.check(3);
+    selectionModel.check(5);
+
+    assertThat(selectionModel.getCheckedPosition()).isEqualTo(5);
+    assertThat(selectionModel.getCheckedPositions()).containsExactly(5);
+  }
+
+  @Test
+  public void testCheckedPositionsFollowItems() {
+    selectionModel.check(2);
+    selectionModel.check(6);
+
+    adapter.itemCount++;
+    adapter.notifyItemInserted(4);
+    assertThat(selectionModel.getCheckedPositions()).containsExactly(2, 7).inOrder();
+
+    adapter.itemCount--;
+    adapter.notifyItemRemoved(2);
+    assertThat(selectionModel.getCheckedPositions()).containsExactly(6);
+  }
+
+  @Test
+  public void testUserCheckNotifiesAdapter() {
+    recyclerView.measure(
+        MeasureSpec.makeMeasureSpec(1000, MeasureSpec.EXACTLY),
+        MeasureSpec.makeMeasureSpec(1000, MeasureSpec.EXACTLY));
+    recyclerView.layout(0, 0, 1000, 1000);
+    final List<Integer> changedPositions = new ArrayList<>();
+    adapter.registerAdapterDataObserver(
+        new RecyclerView.AdapterDataObserver() {
+          @Override
+          public void onItemRangeChanged(int positionStart, int itemCount, Object payload) {
+            changedPositions.add(positionStart);
+          }
+        });
+
+    Chip chip = (Chip) recyclerView.findViewHolderForAdapterPosition(2).itemView;
+    chip.setChecked(true);
+
+    // The layout manager has to know, as the chip may have become wider with its checked icon
+    assertThat(selectionModel.getCheckedPositions()).containsExactly(2);
+    assertThat(changedPositions).containsExactly(2);
+  }
+
+  private class ChipAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+    int itemCount = 10;
+
+    @NonNull
+    @Override
+    public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+      Chip chip = new Chip(parent.getContext());
+      chip.setCheckable(true);
+      return new RecyclerView.ViewHolder(chip) {};
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
+      selectionModel.bindChip((Chip) holder.itemView, position);
+    }
+
+    @Override
+    public int getItemCount() {
+      return itemCount;
+    }
+  }
+}
@@ -19,8 +19,16 @@ import com.google.android.material.R;
 
 import static com.google.android.material.internal.ViewUtils.dpToPx;
 import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.ArgumentMatchers.anyFloat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
 
 import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import androidx.annotation.StyleRes;
 import androidx.core.view.AccessibilityDelegateCompat;
 import androidx.core.view.ViewCompat;
 import androidx.appcompat.app.AppCompatActivity;
@@ -35,6 +43,8 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
 import org.robolectric.Robolectric;
 import org.robolectric.RobolectricTestRunner;
 import org.robolectric.annotation.TextLayoutMode;
@@ -51,6 +61,8 @@ public class ChipTest {
   private static final int CHIP_LINES = 2;
   private static final float DELTA = 0.01f;
   private static final int MIN_SIZE_FOR_ALLY_DP = 48;
+  private static final String LONG_CHIP_TEXT = "A chip with a text too long for its bounds";
+  private static final String OTHER_LONG_CHIP_TEXT = "Another chip text, which is long as well";
 
   private Chip chip;
 
@@ -63,6 +75,20 @@ public class ChipTest {
     chip = inflated.findViewById(R.id.chip);
   }
 
+  @Test
+  public void testCreateFromPrototype_copiesAttributes() {
+    ChipDrawable prototype = (ChipDrawable) chip.getChipDrawable();
+    ChipDrawable copy = ChipDrawable.createFromPrototype(chip.getContext(), prototype);
+
+    assertThat(copy).isNotEqualTo(prototype);
+    assertThat(copy.getChipBackgroundColor()).isEqualTo(prototype.getChipBackgroundColor());
+    assertThat(copy.getShapeAppearanceModel()).isEqualTo(prototype.getShapeAppearanceModel());
+    assertThat(copy.getTextAppearance()).isEqualTo(prototype.getTextAppearance());
+    assertThat(copy.getText().toString()).isEqualTo(prototype.getText().toString());
+    assertThat(copy.getIntrinsicWidth()).isEqualTo(prototype.getIntrinsicWidth());
+    assertThat(copy.getIntrinsicHeight()).isEqualTo(prototype.getIntrinsicHeight());
+  }
+
   @Test
   public void testSetCompoundDrawablesLeftRight_throwsException() {
     thrown.expect(UnsupportedOperationException.class);
@@ -189,6 +215,59 @@ public class ChipTest {
     assertThat(accessibilityDelegate).isNull();
   }
 
+  @Test
+  public void testEllipsizedChipDrawableText_isRecomputedAfterChanges() {
+    ChipDrawable chipDrawable = createEllipsizingChipDrawable(LONG_CHIP_TEXT);
+    Rect bounds = getHalfIntrinsicBounds(chipDrawable);
+    chipDrawable.setBounds(bounds);
+    String ellipsizedText = drawChipText(chipDrawable);
+    assertThat(ellipsizedText).isNotEqualTo(LONG_CHIP_TEXT);
+    assertThat(ellipsizedText).isEqualTo(drawChipText(LONG_CHIP_TEXT, 0, bounds, TruncateAt.END));
+    // Drawing again reuses the same ellipsized text
+    assertThat(drawChipText(chipDrawable)).isEqualTo(ellipsizedText);
+
+    chipDrawable.setText(OTHER_LONG_CHIP_TEXT);
+    String textChanged = drawChipText(chipDrawable);
+    assertThat(textChanged).isNotEqualTo(ellipsizedText);
+    assertThat(textChanged)
+        .isEqualTo(drawChipText(OTHER_LONG_CHIP_TEXT, 0, bounds, TruncateAt.END));
+
+    chipDrawable.setTextAppearanceResource(R.style.TextAppearance_MaterialComponents_Headline4);
+    String textAppearanceChanged = drawChipText(chipDrawable);
+    assertThat(textAppearanceChanged).isNotEqualTo(textChanged);
+    assertThat(textAppearanceChanged)
+        .isEqualTo(
+            drawChipText(
+                OTHER_LONG_CHIP_TEXT,
+                R.style.TextAppearance_MaterialComponents_Headline4,
+                bounds,
+                TruncateAt.END));
+
+    Rect narrowerBounds = new Rect(bounds);
+    narrowerBounds.right -= bounds.width() / 4;
+    chipDrawable.setBounds(narrowerBounds);
+    String boundsChanged = drawChipText(chipDrawable);
+    assertThat(boundsChanged).isNotEqualTo(textAppearanceChanged);
+    assertThat(boundsChanged)
+        .isEqualTo(
+            drawChipText(
+                OTHER_LONG_CHIP_TEXT,
+                R.style.TextAppearance_MaterialComponents_Headline4,
+                narrowerBounds,
+                TruncateAt.END));
+
+    chipDrawable.setEllipsize(TruncateAt.START);
+    String truncateAtChanged = drawChipText(chipDrawable);
+    assertThat(truncateAtChanged).isNotEqualTo(boundsChanged);
+    assertThat(truncateAtChanged)
+        .isEqualTo(
+            drawChipText(
+                OTHER_LONG_CHIP_TEXT,
+                R.style.TextAppearance_MaterialComponents_Headline4,
+                narrowerBounds,
+                TruncateAt.START));
+  }
+
   private static float getMinTouchTargetSize() {
     return dpToPx(ApplicationProvider.getApplicationContext(), MIN_SIZE_FOR_ALLY_DP);
   }
@@ -199,4 +278,48 @@ public class ChipTest {
         MeasureSpec.makeMeasureSpec((int) (getMinTouchTargetSize() * 2), MeasureSpec.AT_MOST);
     chip.measure(measureSpec, measureSpec);
   }
+
+  private static ChipDrawable createEllipsizingChipDrawable(String text) {
+    ChipDrawable chipDrawable =
+        ChipDrawable.createFromAttributes(
+            ApplicationProvider.getApplicationContext(),
+            null,
+            0,
+            R.style.Widget_MaterialComponents_Chip_Action);
+    chipDrawable.setText(text);
+    chipDrawable.setEllipsize(TruncateAt.END);
+    return chipDrawable;
+  }
+
+  private static Rect getHalfIntrinsicBounds(ChipDrawable chipDrawable) {
+    return new Rect(
+        0, 0, chipDrawable.getIntrinsicWidth() / 2, chipDrawable.getIntrinsicHeight());
+  }
+
+  /** Returns the text drawn by a new chip drawable, which has nothing memoized. */
+  private static String drawChipText(
+      String text, @StyleRes int textAppearance, Rect bounds, TruncateAt truncateAt) {
+    ChipDrawable chipDrawable = createEllipsizingChipDrawable(text);
+    if (textAppearance != 0) {
+      chipDrawable.setTextAppearanceResource(textAppearance);
+    }
+    chipDrawable.setEllipsize(truncateAt);
+    chipDrawable.setBounds(bounds);
+    return drawChipText(chipDrawable);
+  }
+
+  private static String drawChipText(ChipDrawable chipDrawable) {
+    Canvas canvas = spy(new Canvas());
+    chipDrawable.draw(canvas);
+    ArgumentCaptor<CharSequence> text = ArgumentCaptor.forClass(CharSequence.class);
+    verify(canvas)
+        .drawText(
+            text.capture(),
+            anyInt(),
+            anyInt(),
+            anyFloat(),
+            anyFloat(),
+            ArgumentMatchers.<Paint>any());
+    return text.getValue().toString();
+  }
 }
@@ -22,13 +22,16 @@ import static android.os.Build.VERSION_CODES.LOLLIPOP;
 import static com.google.android.material.floatingactionbutton.FloatingActionButton.SIZE_MINI;
 import static com.google.android.material.internal.ViewUtils.dpToPx;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
 
 import android.content.Context;
 import androidx.appcompat.app.AppCompatActivity;
 import android.view.View.MeasureSpec;
 import androidx.test.core.app.ApplicationProvider;
+import com.google.android.material.shadow.ShadowViewDelegate;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -83,6 +86,21 @@ public class FabTest {
     assertTrue(fab.getMeasuredHeight() < minSize);
   }
 
+  @Test
+  public void stateListAnimator_isCreatedOnFirstDrawableStateChange() {
+    FloatingActionButtonImpl impl =
+        new FloatingActionButtonImpl(
+            new FloatingActionButton(activity), mock(ShadowViewDelegate.class));
+
+    assertFalse(impl.hasStateListAnimator());
+
+    impl.jumpDrawableToCurrentState();
+    assertFalse(impl.hasStateListAnimator());
+
+    impl.onDrawableStateChanged(new int[] {android.R.attr.state_enabled});
+    assertTrue(impl.hasStateListAnimator());
+  }
+
   private FloatingActionButton createFabForTest(boolean ensureMinTouchTarget) {
     FloatingActionButton fab = new FloatingActionButton(activity);
     float dimen = dpToPx(activity, MIN_SIZE_FOR_ALLY_DP);
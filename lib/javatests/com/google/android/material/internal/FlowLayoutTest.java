@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.internal;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.content.Context;
+import android.view.View;
+import android.view.View.MeasureSpec;
+import android.view.ViewGroup.LayoutParams;
+import androidx.test.core.app.ApplicationProvider;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/** Tests for {@link FlowLayout}. */
+@RunWith(RobolectricTestRunner.class)
+@DoNotInstrument
+public class FlowLayoutTest {
+
+  private static final int CHILD_COUNT = 20;
+  private static final int CHILD_WIDTH = 30;
+  private static final int CHILD_HEIGHT = 10;
+  private static final int WIDTH = 100;
+
+  private final Context context = ApplicationProvider.getApplicationContext();
+
+  @Test
+  public void testChangedChildReflowsLikeFullLayout() {
+    FlowLayout flowLayout = createFlowLayout();
+    measureAndLayout(flowLayout);
+
+    // Widening a child moves it and the children after it to other lines
+    flowLayout.getChildAt(5).setLayoutParams(new LayoutParams(CHILD_WIDTH * 2, CHILD_HEIGHT));
+    measureAndLayout(flowLayout);
+
+    FlowLayout expected = createFlowLayout();
+    expected.getChildAt(5).setLayoutParams(new LayoutParams(CHILD_WIDTH * 2, CHILD_HEIGHT));
+    measureAndLayout(expected);
+
+    assertSameLayout(flowLayout, expected);
+  }
+
+  @Test
+  public void testRemovedChildReflowsLikeFullLayout() {
+    FlowLayout flowLayout = createFlowLayout();
+    measureAndLayout(flowLayout);
+
+    flowLayout.removeViewAt(7);
+    measureAndLayout(flowLayout);
+
+    FlowLayout expected = createFlowLayout();
+    expected.removeViewAt(7);
+    measureAndLayout(expected);
+
+    assertSameLayout(flowLayout, expected);
+  }
+
+  @Test
+  public void testGoneChildDoesNotDisableIncrementalReflow() {
+    FlowLayout flowLayout = createFlowLayout();
+    flowLayout.getChildAt(2).setVisibility(View.GONE);
+    measureAndLayout(flowLayout);
+    measureAndLayout(flowLayout);
+    LayoutCountingView countingChild = (LayoutCountingView) flowLayout.getChildAt(5);
+    int layoutCount = countingChild.layoutCount;
+
+    flowLayout.getChildAt(10).setLayoutParams(new LayoutParams(CHILD_WIDTH * 2, CHILD_HEIGHT));
+    measureAndLayout(flowLayout);
+
+    // Children before the changed one, and after the gone one, are not laid out again
+    assertThat(countingChild.layoutCount).isEqualTo(layoutCount);
+
+    FlowLayout expected = createFlowLayout();
+    expected.getChildAt(2).setVisibility(View.GONE);
+    expected.getChildAt(10).setLayoutParams(new LayoutParams(CHILD_WIDTH * 2, CHILD_HEIGHT));
+    measureAndLayout(expected);
+
+    assertSameLayout(flowLayout, expected);
+  }
+
+  @Test
+  public void testChildVisibilityChangesReflowLikeFullLayout() {
+    FlowLayout flowLayout = createFlowLayout();
+    measureAndLayout(flowLayout);
+
+    flowLayout.getChildAt(4).setVisibility(View.GONE);
+    measureAndLayout(flowLayout);
+
+    FlowLayout expected = createFlowLayout();
+    expected.getChildAt(4).setVisibility(View.GONE);
+    measureAndLayout(expected);
+    assertSameLayout(flowLayout, expected);
+
+    flowLayout.getChildAt(4).setVisibility(View.VISIBLE);
+    measureAndLayout(flowLayout);
+
+    assertSameLayout(flowLayout, createAndLayoutFlowLayout());
+  }
+
+  private FlowLayout createAndLayoutFlowLayout() {
+    FlowLayout flowLayout = createFlowLayout();
+    measureAndLayout(flowLayout);
+    return flowLayout;
+  }
+
+  private FlowLayout createFlowLayout() {
+    FlowLayout flowLayout = new FlowLayout(context);
+    for (int i = 0; i < CHILD_COUNT; i++) {
+      flowLayout.addView(
+          new LayoutCountingView(context), new LayoutParams(CHILD_WIDTH, CHILD_HEIGHT));
+    }
+    return flowLayout;
+  }
+
+  private static void measureAndLayout(FlowLayout flowLayout) {
+    flowLayout.measure(
+        MeasureSpec.makeMeasureSpec(WIDTH, MeasureSpec.EXACTLY),
+        MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED));
+    flowLayout.layout(0, 0, flowLayout.getMeasuredWidth(), flowLayout.getMeasuredHeight());
+  }
+
+  private static void assertSameLayout(FlowLayout actual, FlowLayout expected) {
+    assertThat(actual.getMeasuredHeight()).isEqualTo(expected.getMeasuredHeight());
+    assertThat(actual.getChildCount()).isEqualTo(expected.getChildCount());
+    for (int i = 0; i < expected.getChildCount(); i++) {
+      View actualChild = actual.getChildAt(i);
+      View expectedChild = expected.getChildAt(i);
+      assertThat(actualChild.getLeft()).isEqualTo(expectedChild.getLeft());
+      assertThat(actualChild.getTop()).isEqualTo(expectedChild.getTop());
+      assertThat(actualChild.getRight()).isEqualTo(expectedChild.getRight());
+    }
+  }
+
+  private static class LayoutCountingView extends View {
+    int layoutCount;
+
+    LayoutCountingView(Context context) {
+      super(context);
+    }
+
+    @Override
+    public void layout(int left, int top, int right, int bottom) {
+      layoutCount++;
+      super.layout(left, top, right, bottom);
+    }
+  }
+}
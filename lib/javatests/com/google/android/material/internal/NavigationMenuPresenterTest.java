@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.internal;
+
+import com.google.android.material.R;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.content.Context;
+import android.widget.FrameLayout;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.core.app.ApplicationProvider;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/** Tests for {@link NavigationMenuPresenter}. */
+@RunWith(RobolectricTestRunner.class)
+@DoNotInstrument
+public class NavigationMenuPresenterTest {
+
+  private static final int ITEM_COUNT = 10;
+
+  private final Context context = ApplicationProvider.getApplicationContext();
+  private final List<String> changes = new ArrayList<>();
+
+  private NavigationMenu menu;
+  private RecyclerView.Adapter<?> adapter;
+
+  @Before
+  public void setUpPresenter() {
+    context.setTheme(R.style.Theme_MaterialComponents_Light_NoActionBar_Bridge);
+    menu = new NavigationMenu(context);
+    NavigationMenuPresenter presenter = new NavigationMenuPresenter();
+    menu.addMenuPresenter(presenter);
+    RecyclerView menuView = (RecyclerView) presenter.getMenuView(new FrameLayout(context));
+    for (int i = 0; i < ITEM_COUNT; i++) {
+      menu.add(0, i + 1, i, "Item " + i).setCheckable(true);
+    }
+    adapter = menuView.getAdapter();
+    adapter.registerAdapterDataObserver(
+        new RecyclerView.AdapterDataObserver() {
+          @Override
+          public void onChanged() {
+            changes.add("all");
+          }
+
+          @Override
+          public void onItemRangeChanged(
+              int positionStart, int itemCount, @Nullable Object payload) {
+            changes.add("changed " + positionStart + " " + itemCount);
+          }
+
+          @Override
+          public void onItemRangeInserted(int positionStart, int itemCount) {
+            changes.add("inserted " + positionStart + " " + itemCount);
+          }
+
+          @Override
+          public void onItemRangeRemoved(int positionStart, int itemCount) {
+            changes.add("removed " + positionStart + " " + itemCount);
+          }
+        });
+  }
+
+  @Test
+  public void testTitleChange_notifiesSingleItem() {
+    menu.findItem(4).setTitle("Updated");
+
+    // The header is at position 0
+    assertThat(changes).containsExactly("changed 4 1");
+  }
+
+  @Test
+  public void testAddItem_notifiesInsertion() {
+    long firstItemId = adapter.getItemId(1);
+
+    menu.add(0, ITEM_COUNT + 1, ITEM_COUNT, "Item");
+
+    assertThat(changes).containsExactly("inserted " + (ITEM_COUNT + 1) + " 1");
+    assertThat(adapter.getItemId(1)).isEqualTo(firstItemId);
+  }
+
+  @Test
+  public void testRemoveItem_notifiesRemoval() {
+    menu.removeItem(3);
+
+    assertThat(changes).containsExactly("removed 3 1");
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.textfield;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.RectF;
+import android.graphics.Region.Op;
+import android.os.Build.VERSION_CODES;
+import android.view.View;
+import androidx.test.core.app.ApplicationProvider;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentMatchers;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/** Tests for {@link CutoutDrawable}. */
+@RunWith(RobolectricTestRunner.class)
+@DoNotInstrument
+public class CutoutDrawableTest {
+
+  private final RectF cutoutBounds = new RectF(10, 0, 60, 8);
+
+  private CutoutDrawable cutoutDrawable;
+  private Canvas canvas;
+
+  @Before
+  public void setUp() {
+    cutoutDrawable = new CutoutDrawable();
+    cutoutDrawable.setBounds(0, 0, 100, 50);
+    canvas = spy(new Canvas());
+  }
+
+  @Test
+  @Config(sdk = VERSION_CODES.O)
+  public void oClipsOutCutoutBounds() {
+    cutoutDrawable.setCutout(cutoutBounds);
+
+    cutoutDrawable.draw(canvas);
+
+    verify(canvas).clipOutRect(eq(cutoutBounds));
+    verify(canvas, never()).drawRect(eq(cutoutBounds), ArgumentMatchers.<Paint>any());
+  }
+
+  @Test
+  @Config(sdk = VERSION_CODES.JELLY_BEAN_MR2)
+  public void jbMr2ClipsCutoutBoundsWithDifference() {
+    cutoutDrawable.setCutout(cutoutBounds);
+
+    cutoutDrawable.draw(canvas);
+
+    verify(canvas).clipRect(eq(cutoutBounds), eq(Op.DIFFERENCE));
+    verify(canvas, never()).drawRect(eq(cutoutBounds), ArgumentMatchers.<Paint>any());
+  }
+
+  @Test
+  @Config(sdk = VERSION_CODES.JELLY_BEAN)
+  public void jbErasesCutoutBounds() {
+    cutoutDrawable.setCutout(cutoutBounds);
+
+    cutoutDrawable.draw(canvas);
+
+    verify(canvas).drawRect(eq(cutoutBounds), ArgumentMatchers.<Paint>any());
+    verify(canvas, never()).clipRect(ArgumentMatchers.<RectF>any(), ArgumentMatchers.<Op>any());
+  }
+
+  @Test
+  @Config(sdk = VERSION_CODES.JELLY_BEAN)
+  public void jbErasesCutoutInHostViewHardwareLayer() {
+    View view = new View(ApplicationProvider.getApplicationContext());
+    cutoutDrawable.setCallback(view);
+    cutoutDrawable.setCutout(cutoutBounds);
+
+    cutoutDrawable.draw(canvas);
+
+    assertThat(view.getLayerType()).isEqualTo(View.LAYER_TYPE_HARDWARE);
+    verify(canvas).drawRect(eq(cutoutBounds), ArgumentMatchers.<Paint>any());
+  }
+
+  @Test
+  @Config(sdk = VERSION_CODES.JELLY_BEAN_MR2)
+  public void givenNoCutout_nothingIsClipped() {
+    cutoutDrawable.setCutout(cutoutBounds);
+    cutoutDrawable.removeCutout();
+
+    cutoutDrawable.draw(canvas);
+
+    verify(canvas, never()).clipRect(ArgumentMatchers.<RectF>any(), ArgumentMatchers.<Op>any());
+    verify(canvas, never()).drawRect(eq(cutoutBounds), ArgumentMatchers.<Paint>any());
+  }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.textfield;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.fail;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.content.Context;
+import android.os.Looper;
+import android.widget.Filter;
+import androidx.test.core.app.ApplicationProvider;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.LooperMode;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/** Tests for {@link IndexedArrayAdapter}. */
+@RunWith(RobolectricTestRunner.class)
+@LooperMode(LooperMode.Mode.PAUSED)
+@DoNotInstrument
+public class IndexedArrayAdapterTest {
+
+  private static final long TIMEOUT_MILLIS = 5000;
+
+  private final Context context = ApplicationProvider.getApplicationContext();
+
+  private final IndexedArrayAdapter<String> adapter =
+      new IndexedArrayAdapter<>(
+          context,
+          android.R.layout.simple_list_item_1,
+          Arrays.asList("New York", "Newark", "York", "Boston", "New New Haven"));
+
+  @Test
+  public void testMatchesStartOfItemOrOfWord() {
+    assertThat(adapter.findMatchingPositions("york")).asList().containsExactly(0, 2).inOrder();
+    assertThat(adapter.findMatchingPositions("new")).asList().containsExactly(0, 1, 4).inOrder();
+    assertThat(adapter.findMatchingPositions("new y")).asList().containsExactly(0);
+    assertThat(adapter.findMatchingPositions("chicago")).isEmpty();
+  }
+
+  @Test
+  public void testFilterPublishesMatchingItems() throws InterruptedException {
+    CountingListener listener = new CountingListener();
+    adapter.getFilter().filter("new", listener);
+    listener.await();
+
+    assertThat(listener.count).isEqualTo(3);
+    assertThat(adapter.getCount()).isEqualTo(3);
+    assertThat(adapter.getItem(0)).isEqualTo("New York");
+    assertThat(adapter.getItem(1)).isEqualTo("Newark");
+    assertThat(adapter.getItem(2)).isEqualTo("New New Haven");
+
+    listener = new CountingListener();
+    adapter.getFilter().filter("", listener);
+    listener.await();
+
+    assertThat(adapter.getCount()).isEqualTo(5);
+    assertThat(adapter.getItem(3)).isEqualTo("Boston");
+  }
+
+  @Test
+  public void testConstraintsRequestedDuringFilteringAreCoalesced() throws InterruptedException {
+    BlockingItem blockingItem = new BlockingItem("Bostonia");
+    IndexedArrayAdapter<Object> blockingAdapter =
+        new IndexedArrayAdapter<>(
+            context,
+            android.R.layout.simple_list_item_1,
+            Arrays.<Object>asList("New York", "Boston", blockingItem, "York"));
+
+    CountingListener firstListener = new CountingListener();
+    blockingAdapter.getFilter().filter("new", firstListener);
+    // The first filtering is now building the index on the filter thread
+    assertThat(blockingItem.entered.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)).isTrue();
+
+    CountingListener replacedListener = new CountingListener();
+    blockingAdapter.getFilter().filter("bos", replacedListener);
+    CountingListener lastListener = new CountingListener();
+    blockingAdapter.getFilter().filter("york", lastListener);
+    blockingItem.release.countDown();
+    firstListener.await();
+    lastListener.await();
+
+    // The request waiting behind the first filtering was replaced by the latest one
+    assertThat(firstListener.count).isEqualTo(1);
+    assertThat(replacedListener.complete).isFalse();
+    assertThat(lastListener.count).isEqualTo(2);
+    assertThat(blockingAdapter.getCount()).isEqualTo(2);
+    assertThat(blockingAdapter.getItem(0)).isEqualTo("New York");
+    assertThat(blockingAdapter.getItem(1)).isEqualTo("York");
+  }
+
+  /** Records the count of a filtering, whose results are published on the main looper. */
+  private static class CountingListener implements Filter.FilterListener {
+    private boolean complete;
+    private int count;
+
+    @Override
+    public void onFilterComplete(int count) {
+      this.count = count;
+      complete = true;
+    }
+
+    void await() throws InterruptedException {
+      long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+      while (!complete) {
+        if (System.currentTimeMillis() > deadline) {
+          fail("Filtering didn't complete");
+        }
+        Thread.sleep(10);
+        shadowOf(Looper.getMainLooper()).idle();
+      }
+    }
+  }
+
+  /** An item whose {@link #toString()} blocks until it's released. */
+  private static class BlockingItem {
+    final CountDownLatch entered = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    private final String text;
+
+    BlockingItem(String text) {
+      this.text = text;
+    }
+
+    @Override
+    public String toString() {
+      entered.countDown();
+      try {
+        release.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return text;
+    }
+  }
+}
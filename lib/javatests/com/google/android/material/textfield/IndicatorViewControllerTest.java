@@ -0,0 +1,153 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.textfield;
+
+import com.google.android.material.R;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.os.Looper;
+import android.view.View;
+import android.widget.TextView;
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.test.core.app.ApplicationProvider;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.LooperMode;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/** Tests for the caption animations of {@link IndicatorViewController}. */
+@RunWith(RobolectricTestRunner.class)
+@LooperMode(LooperMode.Mode.PAUSED)
+@DoNotInstrument
+public class IndicatorViewControllerTest {
+
+  // Shorter than the caption animations, so that the next change interrupts them
+  private static final long MID_ANIMATION_MILLIS = 50;
+  // Longer than the caption animations, so that they all end
+  private static final long ANIMATION_END_MILLIS = 500;
+
+  private IndicatorViewController indicatorViewController;
+  private TextView errorView;
+  private TextView helperTextView;
+
+  @Before
+  public void createIndicatorViewController() {
+    ApplicationProvider.getApplicationContext()
+        .setTheme(R.style.Theme_MaterialComponents_Light_NoActionBar_Bridge);
+    AppCompatActivity activity = Robolectric.buildActivity(AppCompatActivity.class).setup().get();
+    TextInputLayout textInputLayout = new TextInputLayout(activity);
+    textInputLayout.addView(new TextInputEditText(activity));
+    activity.setContentView(textInputLayout);
+    // The captions only animate once the layout is laid out
+    shadowOf(Looper.getMainLooper()).idle();
+
+    indicatorViewController = new IndicatorViewController(textInputLayout);
+    indicatorViewController.setErrorEnabled(true);
+    indicatorViewController.setHelperTextEnabled(true);
+    errorView = textInputLayout.findViewById(R.id.textinput_error);
+    helperTextView = textInputLayout.findViewById(R.id.textinput_helper_text);
+  }
+
+  @Test
+  public void testShowErrorAgainWhileHiding_errorIsShown() {
+    indicatorViewController.showError("First error");
+    advanceAnimations(MID_ANIMATION_MILLIS);
+    indicatorViewController.hideError();
+    advanceAnimations(MID_ANIMATION_MILLIS);
+    indicatorViewController.showError("Second error");
+    advanceAnimations(ANIMATION_END_MILLIS);
+
+    assertCaptionShown(errorView, "Second error");
+    assertThat(indicatorViewController.errorIsDisplayed()).isTrue();
+  }
+
+  @Test
+  public void testHideErrorWhileShowing_errorIsHidden() {
+    indicatorViewController.showError("Error");
+    advanceAnimations(MID_ANIMATION_MILLIS);
+    indicatorViewController.hideError();
+    advanceAnimations(ANIMATION_END_MILLIS);
+
+    assertThat(errorView.getVisibility()).isEqualTo(View.INVISIBLE);
+    assertThat(errorView.getText().toString()).isEmpty();
+    assertThat(indicatorViewController.errorIsDisplayed()).isFalse();
+    assertThat(indicatorViewController.errorShouldBeShown()).isFalse();
+  }
+
+  @Test
+  public void testHideErrorWhileShowing_helperTextIsShownAgain() {
+    indicatorViewController.showHelper("Helper");
+    advanceAnimations(ANIMATION_END_MILLIS);
+    indicatorViewController.showError("Error");
+    advanceAnimations(MID_ANIMATION_MILLIS);
+    indicatorViewController.hideError();
+    advanceAnimations(ANIMATION_END_MILLIS);
+
+    assertCaptionShown(helperTextView, "Helper");
+    assertThat(errorView.getVisibility()).isEqualTo(View.INVISIBLE);
+    assertThat(indicatorViewController.helperTextIsDisplayed()).isTrue();
+    assertThat(indicatorViewController.errorIsDisplayed()).isFalse();
+  }
+
+  @Test
+  public void testRapidCaptionChanges_lastCaptionIsShown() {
+    indicatorViewController.showError("First error");
+    indicatorViewController.hideError();
+    indicatorViewController.showHelper("Helper");
+    indicatorViewController.showError("Last error");
+    advanceAnimations(ANIMATION_END_MILLIS);
+
+    assertCaptionShown(errorView, "Last error");
+    assertThat(helperTextView.getVisibility()).isEqualTo(View.INVISIBLE);
+    assertThat(indicatorViewController.errorIsDisplayed()).isTrue();
+    assertThat(indicatorViewController.helperTextIsDisplayed()).isFalse();
+  }
+
+  @Test
+  public void testRapidCaptionChanges_lastHelperTextIsShown() {
+    indicatorViewController.showHelper("First helper");
+    advanceAnimations(MID_ANIMATION_MILLIS);
+    indicatorViewController.showError("Error");
+    advanceAnimations(MID_ANIMATION_MILLIS);
+    indicatorViewController.showHelper("Last helper");
+    indicatorViewController.hideError();
+    advanceAnimations(ANIMATION_END_MILLIS);
+
+    assertCaptionShown(helperTextView, "Last helper");
+    assertThat(errorView.getVisibility()).isEqualTo(View.INVISIBLE);
+    assertThat(errorView.getText().toString()).isEmpty();
+    assertThat(indicatorViewController.helperTextIsDisplayed()).isTrue();
+    assertThat(indicatorViewController.errorIsDisplayed()).isFalse();
+  }
+
+  private static void advanceAnimations(long millis) {
+    shadowOf(Looper.getMainLooper()).idleFor(millis, TimeUnit.MILLISECONDS);
+  }
+
+  private static void assertCaptionShown(TextView captionView, String text) {
+    assertThat(captionView.getVisibility()).isEqualTo(View.VISIBLE);
+    assertThat(captionView.getAlpha()).isEqualTo(1f);
+    assertThat(captionView.getTranslationY()).isEqualTo(0f);
+    assertThat(captionView.getText().toString()).isEqualTo(text);
+  }
+}
@@ -0,0 +1,311 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.textfield;
+
+import com.google.android.material.R;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.content.res.ColorStateList;
+import android.graphics.Color;
+import android.graphics.drawable.ColorDrawable;
+import android.graphics.drawable.Drawable;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.EditText;
+import android.widget.TextView;
+import androidx.annotation.Nullable;
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.core.widget.TextViewCompat;
+import androidx.test.core.app.ApplicationProvider;
+import com.google.android.material.internal.CheckableImageButton;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/** Tests for {@link com.google.android.material.textfield.TextInputLayout}. */
+@RunWith(RobolectricTestRunner.class)
+@DoNotInstrument
+public class TextInputLayoutTest {
+
+  private static final ColorStateList STATEFUL_TINT =
+      new ColorStateList(
+          new int[][] {new int[] {android.R.attr.state_enabled}, new int[] {}},
+          new int[] {Color.RED, Color.GRAY});
+
+  private AppCompatActivity activity;
+  private TextInputLayout textInputLayout;
+
+  @Before
+  public void createTextInputLayout() {
+    ApplicationProvider.getApplicationContext()
+        .setTheme(R.style.Theme_MaterialComponents_Light_NoActionBar_Bridge);
+    activity = Robolectric.buildActivity(AppCompatActivity.class).setup().get();
+    textInputLayout = new TextInputLayout(activity);
+  }
+
+  @Test
+  public void testPrefixTextViewPicksUpAppearanceAndColorSetBeforeIt() {
+    ColorStateList prefixTextColor = ColorStateList.valueOf(Color.RED);
+    textInputLayout.setPrefixTextAppearance(R.style.TextAppearance_MaterialComponents_Headline1);
+    textInputLayout.setPrefixTextColor(prefixTextColor);
+
+    assertThat(textInputLayout.getPrefixTextColor()).isSameInstanceAs(prefixTextColor);
+    assertThat(textInputLayout.findViewById(R.id.textinput_prefix_text)).isNull();
+
+    textInputLayout.setPrefixText("$");
+
+    TextView prefixTextView = textInputLayout.findViewById(R.id.textinput_prefix_text);
+    assertThat(prefixTextView.getText().toString()).isEqualTo("$");
+    assertThat(prefixTextView.getTextSize()).isEqualTo(headline1TextSize());
+    assertThat(prefixTextView.getTextColors()).isSameInstanceAs(prefixTextColor);
+  }
+
+  @Test
+  public void testSuffixTextViewPicksUpAppearanceAndColorSetBeforeIt() {
+    ColorStateList suffixTextColor = ColorStateList.valueOf(Color.RED);
+    textInputLayout.setSuffixTextAppearance(R.style.TextAppearance_MaterialComponents_Headline1);
+    textInputLayout.setSuffixTextColor(suffixTextColor);
+
+    assertThat(textInputLayout.getSuffixTextColor()).isSameInstanceAs(suffixTextColor);
+    assertThat(textInputLayout.findViewById(R.id.textinput_suffix_text)).isNull();
+
+    textInputLayout.setSuffixText("kg");
+
+    TextView suffixTextView = textInputLayout.findViewById(R.id.textinput_suffix_text);
+    assertThat(suffixTextView.getText().toString()).isEqualTo("kg");
+    assertThat(suffixTextView.getTextSize()).isEqualTo(headline1TextSize());
+    assertThat(suffixTextView.getTextColors()).isSameInstanceAs(suffixTextColor);
+  }
+
+  @Test
+  public void testAffixTextViewsPickUpColorsFromStyle() {
+    ColorStateList prefixTextColor = textInputLayout.getPrefixTextColor();
+    ColorStateList suffixTextColor = textInputLayout.getSuffixTextColor();
+    assertThat(prefixTextColor).isNotNull();
+    assertThat(suffixTextColor).isNotNull();
+
+    textInputLayout.setPrefixText("$");
+    textInputLayout.setSuffixText("kg");
+
+    assertThat(textInputLayout.getPrefixTextView().getTextColors())
+        .isSameInstanceAs(prefixTextColor);
+    assertThat(textInputLayout.getSuffixTextView().getTextColors())
+        .isSameInstanceAs(suffixTextColor);
+  }
+
+  @Test
+  public void testStartIconPicksUpTintAndCheckableSetBeforeIt() {
+    textInputLayout.setStartIconTintList(STATEFUL_TINT);
+    textInputLayout.setStartIconCheckable(false);
+
+    assertThat(textInputLayout.isStartIconCheckable()).isFalse();
+    assertThat(textInputLayout.findViewById(R.id.text_input_start_icon)).isNull();
+
+    Drawable startIcon = new ColorDrawable(Color.BLACK);
+    textInputLayout.setStartIconDrawable(startIcon);
+
+    CheckableImageButton startIconView = textInputLayout.findViewById(R.id.text_input_start_icon);
+    assertThat(startIconView.getVisibility()).isEqualTo(View.VISIBLE);
+    assertThat(startIconView.isCheckable()).isFalse();
+    assertThat(startIconView.getDrawable().isStateful()).isTrue();
+  }
+
+  @Test
+  public void testEndIconPicksUpTintAndCheckableSetBeforeIt() {
+    textInputLayout.setEndIconTintList(STATEFUL_TINT);
+    textInputLayout.setEndIconCheckable(false);
+
+    assertThat(textInputLayout.isEndIconCheckable()).isFalse();
+    assertThat(textInputLayout.findViewById(R.id.text_input_end_icon)).isNull();
+
+    textInputLayout.setEndIconDrawable(new ColorDrawable(Color.BLACK));
+    textInputLayout.setEndIconMode(TextInputLayout.END_ICON_CUSTOM);
+
+    CheckableImageButton endIconView = textInputLayout.getEndIconView();
+    assertThat(textInputLayout.isEndIconVisible()).isTrue();
+    assertThat(endIconView.isCheckable()).isFalse();
+    assertThat(endIconView.getDrawable().isStateful()).isTrue();
+  }
+
+  @Test
+  public void testEndIconModeCreatesEndIconWhenSet() {
+    textInputLayout.setEndIconMode(TextInputLayout.END_ICON_NONE);
+    assertThat(textInputLayout.findViewById(R.id.text_input_end_icon)).isNull();
+    assertThat(textInputLayout.isEndIconCheckable()).isTrue();
+
+    textInputLayout.setEndIconMode(TextInputLayout.END_ICON_PASSWORD_TOGGLE);
+
+    assertThat(textInputLayout.isEndIconVisible()).isTrue();
+    assertThat(textInputLayout.getEndIconDrawable()).isNotNull();
+    assertThat(textInputLayout.getEndIconContentDescription().toString())
+        .isEqualTo(activity.getString(R.string.password_toggle_content_description));
+    assertThat(textInputLayout.getEndIconView().isCheckable()).isTrue();
+  }
+
+  @Test
+  public void testErrorIconPicksUpTintSetBeforeIt() {
+    textInputLayout.addView(new TextInputEditText(textInputLayout.getContext()));
+    textInputLayout.setErrorIconTintList(STATEFUL_TINT);
+
+    Drawable errorIcon = textInputLayout.getErrorIconDrawable();
+
+    // The default style has a box and an error icon, which stays hidden until there is an error
+    assertThat(errorIcon).isNotNull();
+    assertThat(findErrorIconView()).isNull();
+
+    textInputLayout.setError("Invalid");
+
+    CheckableImageButton errorIconView = findErrorIconView();
+    assertThat(errorIconView.getVisibility()).isEqualTo(View.VISIBLE);
+    assertThat(errorIconView.getDrawable()).isSameInstanceAs(errorIcon);
+    assertThat(errorIconView.getDrawable().isStateful()).isTrue();
+  }
+
+  @Test
+  public void testErrorIconDrawableShowsErrorIconBeforeEndIconFrame() {
+    textInputLayout.setBoxBackgroundMode(TextInputLayout.BOX_BACKGROUND_NONE);
+    textInputLayout.setSuffixText("kg");
+
+    textInputLayout.setErrorIconDrawable(new ColorDrawable(Color.BLACK));
+
+    CheckableImageButton errorIconView = findErrorIconView();
+    ViewGroup endLayout = (ViewGroup) errorIconView.getParent();
+    View endIconFrame = (View) textInputLayout.getEndIconView().getParent();
+    assertThat(errorIconView.getVisibility()).isEqualTo(View.VISIBLE);
+    assertThat(endLayout.indexOfChild(textInputLayout.getSuffixTextView())).isEqualTo(0);
+    assertThat(endLayout.indexOfChild(errorIconView)).isEqualTo(1);
+    assertThat(endLayout.indexOfChild(endIconFrame)).isEqualTo(2);
+  }
+
+  @Test
+  public void testErrorIconDrawableShowsErrorIconAfterEndIconFrameWithEditText() {
+    textInputLayout.setBoxBackgroundMode(TextInputLayout.BOX_BACKGROUND_NONE);
+    textInputLayout.addView(new TextInputEditText(textInputLayout.getContext()));
+
+    textInputLayout.setErrorIconDrawable(new ColorDrawable(Color.BLACK));
+
+    CheckableImageButton errorIconView = findErrorIconView();
+    ViewGroup endLayout = (ViewGroup) errorIconView.getParent();
+    View endIconFrame = (View) textInputLayout.getEndIconView().getParent();
+    assertThat(errorIconView.getVisibility()).isEqualTo(View.VISIBLE);
+    assertThat(endLayout.indexOfChild(errorIconView))
+        .isEqualTo(endLayout.indexOfChild(endIconFrame) + 1);
+  }
+
+  @Test
+  public void testTypingDoesNotRecolorLabelWhenLabelStateIsUnchanged() {
+    EditText editText = addEditTextToWindow();
+    textInputLayout.setError("Invalid");
+    textInputLayout.setErrorTextColor(ColorStateList.valueOf(Color.RED));
+    editText.setText("a");
+    assertThat(textInputLayout.getHintCurrentCollapsedTextColor()).isEqualTo(Color.RED);
+
+    // Recolor the error view behind the layout's back, so only a full label update picks it up
+    TextView errorView = textInputLayout.findViewById(R.id.textinput_error);
+    errorView.setTextColor(Color.BLUE);
+    editText.append("b");
+    editText.append("c");
+
+    assertThat(textInputLayout.getHintCurrentCollapsedTextColor()).isEqualTo(Color.RED);
+  }
+
+  @Test
+  public void testSetErrorTextColorRecolorsLabel() {
+    EditText editText = addEditTextToWindow();
+    textInputLayout.setError("Invalid");
+    editText.setText("a");
+
+    textInputLayout.setErrorTextColor(ColorStateList.valueOf(Color.RED));
+    assertThat(textInputLayout.getHintCurrentCollapsedTextColor()).isEqualTo(Color.RED);
+
+    textInputLayout.setErrorTextColor(ColorStateList.valueOf(Color.BLUE));
+    assertThat(textInputLayout.getHintCurrentCollapsedTextColor()).isEqualTo(Color.BLUE);
+  }
+
+  @Test
+  public void testSetHintTextColorRecolorsFocusedLabel() {
+    EditText editText = addEditTextToWindow();
+    editText.requestFocus();
+    editText.setText("a");
+
+    textInputLayout.setHintTextColor(ColorStateList.valueOf(Color.RED));
+    assertThat(textInputLayout.getHintCurrentCollapsedTextColor()).isEqualTo(Color.RED);
+
+    textInputLayout.setHintTextColor(ColorStateList.valueOf(Color.BLUE));
+    assertThat(textInputLayout.getHintCurrentCollapsedTextColor()).isEqualTo(Color.BLUE);
+  }
+
+  @Test
+  public void testCounterOverflowRecolorsLabel() {
+    EditText editText = addEditTextToWindow();
+    textInputLayout.setCounterEnabled(true);
+    textInputLayout.setCounterMaxLength(2);
+    textInputLayout.setCounterOverflowTextColor(ColorStateList.valueOf(Color.RED));
+    editText.setText("a");
+    assertThat(textInputLayout.getHintCurrentCollapsedTextColor()).isNotEqualTo(Color.RED);
+
+    editText.setText("abc");
+    assertThat(textInputLayout.getHintCurrentCollapsedTextColor()).isEqualTo(Color.RED);
+
+    textInputLayout.setCounterOverflowTextColor(ColorStateList.valueOf(Color.BLUE));
+    assertThat(textInputLayout.getHintCurrentCollapsedTextColor()).isEqualTo(Color.BLUE);
+  }
+
+  private EditText addEditTextToWindow() {
+    EditText editText = new TextInputEditText(textInputLayout.getContext());
+    textInputLayout.setHint("Hint");
+    textInputLayout.addView(editText);
+    activity.setContentView(textInputLayout);
+    return editText;
+  }
+
+  private float headline1TextSize() {
+    TextView textView = new TextView(activity);
+    TextViewCompat.setTextAppearance(textView, R.style.TextAppearance_MaterialComponents_Headline1);
+    return textView.getTextSize();
+  }
+
+  @Nullable
+  private CheckableImageButton findErrorIconView() {
+    return findErrorIconView(
+        textInputLayout, activity.getText(R.string.error_icon_content_description));
+  }
+
+  @Nullable
+  private static CheckableImageButton findErrorIconView(
+      ViewGroup viewGroup, CharSequence contentDescription) {
+    for (int i = 0; i < viewGroup.getChildCount(); i++) {
+      View child = viewGroup.getChildAt(i);
+      if (child instanceof CheckableImageButton
+          && contentDescription.equals(child.getContentDescription())) {
+        return (CheckableImageButton) child;
+      }
+      if (child instanceof ViewGroup) {
+        CheckableImageButton errorIconView =
+            findErrorIconView((ViewGroup) child, contentDescription);
+        if (errorIconView != null) {
+          return errorIconView;
+        }
+      }
+    }
+    return null;
+  }
+}
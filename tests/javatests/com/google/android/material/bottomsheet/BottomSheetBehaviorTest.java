@@ -37,6 +37,7 @@ import android.view.MotionEvent;
 import android.view.View;
 import android.view.ViewConfiguration;
 import android.view.ViewGroup;
+import android.widget.FrameLayout;
 import androidx.coordinatorlayout.widget.CoordinatorLayout;
 import androidx.test.espresso.Espresso;
 import androidx.test.espresso.IdlingResource;
@@ -61,6 +62,9 @@ import com.google.android.material.testapp.BottomSheetBehaviorActivity;
 import com.google.android.material.testapp.R;
 import com.google.android.material.testutils.CoordinatorLayoutUtils;
 import com.google.android.material.testutils.DesignViewActions;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import org.hamcrest.Matcher;
 import org.hamcrest.Matchers;
 import org.junit.Rule;
@@ -779,6 +783,240 @@ public class BottomSheetBehaviorTest {
     assertThat(scrollingChild, is((View) enabledChild));
   }
 
+  @Test
+  @SmallTest
+  public void testExplicitNestedScrollingChildKeptAcrossLayout() throws Throwable {
+    final NestedScrollView explicitChild = new NestedScrollView(activityTestRule.getActivity());
+    activityTestRule.runOnUiThread(
+        () -> {
+          BottomSheetBehavior behavior = getBehavior();
+          behavior.setNestedScrollingChild(explicitChild);
+          behavior.onLayoutChild(
+              getCoordinatorLayout(), getBottomSheet(), ViewCompat.LAYOUT_DIRECTION_LTR);
+          assertThat(behavior.nestedScrollingChildRef.get(), is((View) explicitChild));
+        });
+  }
+
+  @Test
+  @SmallTest
+  public void testNestedScrollingChildAddedBeforeCurrentIsFound() throws Throwable {
+    final NestedScrollView first = new NestedScrollView(activityTestRule.getActivity());
+    final NestedScrollView second = new NestedScrollView(activityTestRule.getActivity());
+    activityTestRule.runOnUiThread(
+        () -> {
+          BottomSheetBehavior behavior = getBehavior();
+          behavior.onLayoutChild(
+              getCoordinatorLayout(), getBottomSheet(), ViewCompat.LAYOUT_DIRECTION_LTR);
+          assertThat(behavior.nestedScrollingChildRef.get(), is((View) null));
+
+          getBottomSheet().addView(second);
+          behavior.onLayoutChild(
+              getCoordinatorLayout(), getBottomSheet(), ViewCompat.LAYOUT_DIRECTION_LTR);
+          assertThat(behavior.nestedScrollingChildRef.get(), is((View) second));
+
+          getBottomSheet().addView(first, 0);
+          behavior.onLayoutChild(
+              getCoordinatorLayout(), getBottomSheet(), ViewCompat.LAYOUT_DIRECTION_LTR);
+          assertThat(behavior.nestedScrollingChildRef.get(), is((View) first));
+        });
+  }
+
+  @Test
+  @SmallTest
+  public void testNestedScrollingChildNotSearchedAgainWithoutHierarchyChange() throws Throwable {
+    if (VERSION.SDK_INT < 21) {
+      // Nested scrolling can't be checked through an overridden method before Lollipop
+      return;
+    }
+    final int[] lookups = new int[1];
+    final View child =
+        new View(activityTestRule.getActivity()) {
+          @Override
+          public boolean isNestedScrollingEnabled() {
+            lookups[0]++;
+            return false;
+          }
+        };
+    activityTestRule.runOnUiThread(
+        () -> {
+          BottomSheetBehavior behavior = getBehavior();
+          getBottomSheet().addView(child);
+          behavior.onLayoutChild(
+              getCoordinatorLayout(), getBottomSheet(), ViewCompat.LAYOUT_DIRECTION_LTR);
+          int lookupsAfterSearch = lookups[0];
+          assertThat(lookupsAfterSearch, is(greaterThanOrEqualTo(1)));
+
+          // The sheet has no scrolling child, which is kept until something in it requests a layout
+          behavior.onLayoutChild(
+              getCoordinatorLayout(), getBottomSheet(), ViewCompat.LAYOUT_DIRECTION_LTR);
+          assertThat(lookups[0], is(lookupsAfterSearch));
+
+          getBottomSheet().removeView(child);
+          getBottomSheet().addView(child);
+          behavior.onLayoutChild(
+              getCoordinatorLayout(), getBottomSheet(), ViewCompat.LAYOUT_DIRECTION_LTR);
+          assertThat(lookups[0], is(greaterThanOrEqualTo(lookupsAfterSearch + 1)));
+        });
+  }
+
+  @Test
+  @SmallTest
+  public void testHierarchyChangeListenersInSheetStillFire() throws Throwable {
+    final FrameLayout container = new FrameLayout(activityTestRule.getActivity());
+    final View inContainer = new View(activityTestRule.getActivity());
+    final View inSheet = new View(activityTestRule.getActivity());
+    final List<View> addedViews = new ArrayList<>();
+    final ViewGroup.OnHierarchyChangeListener listener =
+        new ViewGroup.OnHierarchyChangeListener() {
+          @Override
+          public void onChildViewAdded(View parent, View child) {
+            addedViews.add(child);
+          }
+
+          @Override
+          public void onChildViewRemoved(View parent, View child) {}
+        };
+    activityTestRule.runOnUiThread(
+        () -> {
+          BottomSheetBehavior behavior = getBehavior();
+          getBottomSheet().setOnHierarchyChangeListener(listener);
+          container.setOnHierarchyChangeListener(listener);
+          getBottomSheet().addView(container);
+          behavior.onLayoutChild(
+              getCoordinatorLayout(), getBottomSheet(), ViewCompat.LAYOUT_DIRECTION_LTR);
+
+          container.addView(inContainer);
+          getBottomSheet().addView(inSheet);
+          behavior.onLayoutChild(
+              getCoordinatorLayout(), getBottomSheet(), ViewCompat.LAYOUT_DIRECTION_LTR);
+
+          assertThat(addedViews, is(Arrays.asList(container, inContainer, inSheet)));
+        });
+  }
+
+  @Test
+  @SmallTest
+  public void testCoalescedSlideDispatchedBeforeStateChange() throws Throwable {
+    final List<String> events = new ArrayList<>();
+    activityTestRule.runOnUiThread(
+        () -> {
+          BottomSheetBehavior behavior = getBehavior();
+          behavior.setSlideCoalescingEnabled(true);
+          behavior.setBottomSheetCallback(
+              new BottomSheetBehavior.BottomSheetCallback() {
+                @Override
+                public void onStateChanged(@NonNull View bottomSheet, int newState) {
+                  events.add("state");
+                }
+
+                @Override
+                public void onSlide(@NonNull View bottomSheet, float slideOffset) {
+                  events.add("slide");
+                }
+              });
+          int top = getBottomSheet().getTop();
+          behavior.dispatchOnSlide(top - 1);
+          behavior.dispatchOnSlide(top - 2);
+          behavior.dispatchOnSlide(top - 3);
+          // Nothing is dispatched until the next frame...
+          assertThat(events.size(), is(0));
+          // ...unless the state changes, in which case the latest slide is delivered first
+          behavior.setStateInternal(BottomSheetBehavior.STATE_DRAGGING);
+          assertThat(events, is(Arrays.asList("slide", "state")));
+          behavior.setSlideCoalescingEnabled(false);
+        });
+  }
+
+  @Test
+  @MediumTest
+  public void testSpringSettleToState() throws Throwable {
+    getBehavior().setSpringSettlingEnabled(true);
+    try {
+      checkSetState(BottomSheetBehavior.STATE_EXPANDED, ViewMatchers.isDisplayed());
+      checkSetState(BottomSheetBehavior.STATE_COLLAPSED, ViewMatchers.isDisplayed());
+      assertThat(
+          getBottomSheet().getTop(),
+          is(getCoordinatorLayout().getHeight() - getBehavior().getPeekHeight()));
+    } finally {
+      getBehavior().setSpringSettlingEnabled(false);
+    }
+  }
+
+  @Test
+  @MediumTest
+  public void testSpringSettleRetargetedMidFlight() throws Throwable {
+    getBehavior().setSpringSettlingEnabled(true);
+    try {
+      checkSetState(BottomSheetBehavior.STATE_EXPANDED, ViewMatchers.isDisplayed());
+      final int expandedTop = getBottomSheet().getTop();
+      activityTestRule.runOnUiThread(
+          () -> {
+            getBehavior().settleToState(getBottomSheet(), BottomSheetBehavior.STATE_COLLAPSED);
+            // Turn around once the sheet has started moving towards the collapsed state
+            ViewCompat.postOnAnimation(
+                getBottomSheet(),
+                () -> {
+                  assertThat(getBehavior().getState(), is(BottomSheetBehavior.STATE_SETTLING));
+                  getBehavior()
+                      .settleToState(getBottomSheet(), BottomSheetBehavior.STATE_EXPANDED);
+                });
+          });
+      registerIdlingResourceCallback();
+      try {
+        Espresso.onView(ViewMatchers.withId(R.id.bottom_sheet))
+            .check(ViewAssertions.matches(ViewMatchers.isDisplayed()));
+        assertThat(getBehavior().getState(), is(BottomSheetBehavior.STATE_EXPANDED));
+        assertThat(getBottomSheet().getTop(), is(expandedTop));
+      } finally {
+        unregisterIdlingResourceCallback();
+      }
+    } finally {
+      getBehavior().setSpringSettlingEnabled(false);
+    }
+  }
+
+  @Test
+  @MediumTest
+  public void testSpringSettleAfterInterruptionStartsFromCurrentPosition() throws Throwable {
+    getBehavior().setSpringSettlingEnabled(true);
+    try {
+      activityTestRule.runOnUiThread(
+          () -> {
+            BottomSheetBehavior behavior = getBehavior();
+            behavior.settleToState(getBottomSheet(), BottomSheetBehavior.STATE_EXPANDED);
+            assertThat(behavior.getState(), is(BottomSheetBehavior.STATE_SETTLING));
+            // A drag interrupts the settle before its first frame and moves the sheet
+            behavior.setStateInternal(BottomSheetBehavior.STATE_DRAGGING);
+            ViewCompat.offsetTopAndBottom(getBottomSheet(), -10);
+            final int draggedTop = getBottomSheet().getTop();
+            final int collapsedTop = draggedTop + 10;
+            behavior.settleToState(getBottomSheet(), BottomSheetBehavior.STATE_COLLAPSED);
+            // The first frame continues from the dragged position instead of jumping back to where
+            // the interrupted spring left off
+            ViewCompat.postOnAnimation(
+                getBottomSheet(),
+                () -> {
+                  int top = getBottomSheet().getTop();
+                  assertThat(top, is(greaterThanOrEqualTo(draggedTop)));
+                  assertThat(top, is(lessThanOrEqualTo(collapsedTop - 1)));
+                });
+          });
+      registerIdlingResourceCallback();
+      try {
+        Espresso.onView(ViewMatchers.withId(R.id.bottom_sheet))
+            .check(ViewAssertions.matches(ViewMatchers.isDisplayed()));
+        assertThat(getBehavior().getState(), is(BottomSheetBehavior.STATE_COLLAPSED));
+        assertThat(
+            getBottomSheet().getTop(),
+            is(getCoordinatorLayout().getHeight() - getBehavior().getPeekHeight()));
+      } finally {
+        unregisterIdlingResourceCallback();
+      }
+    } finally {
+      getBehavior().setSpringSettlingEnabled(false);
+    }
+  }
+
   private void checkSetState(final int state, Matcher<View> matcher) throws Throwable {
     registerIdlingResourceCallback();
     try {
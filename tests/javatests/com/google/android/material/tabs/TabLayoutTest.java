@@ -23,6 +23,7 @@ import static com.google.android.material.testutils.TabLayoutActions.setScrollPo
 import static com.google.android.material.testutils.TabLayoutActions.setTabMode;
 import static com.google.android.material.testutils.TestUtilsActions.setLayoutDirection;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
@@ -36,14 +37,23 @@ import static org.mockito.Mockito.verifyNoMoreInteractions;
 import android.animation.Animator;
 import android.animation.AnimatorListenerAdapter;
 import android.annotation.TargetApi;
+import android.graphics.Typeface;
 import android.os.Build;
+import android.text.SpannableString;
+import android.text.Spanned;
+import android.text.style.RelativeSizeSpan;
+import android.util.TypedValue;
 import androidx.core.view.ViewCompat;
+import androidx.core.widget.TextViewCompat;
 import androidx.appcompat.app.AppCompatActivity;
 import android.view.InflateException;
 import android.view.LayoutInflater;
 import android.view.MotionEvent;
 import android.view.PointerIcon;
 import android.view.View;
+import android.view.View.MeasureSpec;
+import android.view.ViewGroup;
+import android.widget.TextView;
 import androidx.test.annotation.UiThreadTest;
 import androidx.test.espresso.Espresso;
 import androidx.test.espresso.IdlingRegistry;
@@ -222,6 +232,209 @@ public class TabLayoutTest {
     }
   }
 
+  @Test
+  @UiThreadTest
+  public void testVirtualizedTabsOnlyBindVisibleWindow() {
+    final LayoutInflater inflater = LayoutInflater.from(activityTestRule.getActivity());
+    final TabLayout tabLayout = (TabLayout) inflater.inflate(R.layout.design_tabs, null);
+    tabLayout.setTabMode(TabLayout.MODE_SCROLLABLE);
+    tabLayout.setTabVirtualizationEnabled(true);
+    for (int i = 0; i < 500; i++) {
+      tabLayout.addTab(tabLayout.newTab().setText("Tab " + i));
+    }
+    layoutTabs(tabLayout);
+
+    final ViewGroup tabStrip = (ViewGroup) tabLayout.getChildAt(0);
+    assertTrue(tabStrip.getChildCount() < 500);
+    assertNotNull(tabLayout.getTabAt(0).view);
+    assertNull(tabLayout.getTabAt(499).view);
+
+    // Selecting an off-screen tab scrolls to it and binds it
+    tabLayout.getTabAt(499).select();
+    layoutTabs(tabLayout);
+    assertEquals(499, tabLayout.getSelectedTabPosition());
+    assertNotNull(tabLayout.getTabAt(499).view);
+    assertTrue(tabLayout.getTabAt(499).view.isSelected());
+    assertNull(tabLayout.getTabAt(0).view);
+
+    // Disabling virtualization binds every tab again
+    tabLayout.setTabVirtualizationEnabled(false);
+    assertEquals(500, tabStrip.getChildCount());
+    assertNotNull(tabLayout.getTabAt(0).view);
+  }
+
+  @Test
+  @UiThreadTest
+  public void testSetScrollPositionDoesNotRequestLayout() {
+    final LayoutInflater inflater = LayoutInflater.from(activityTestRule.getActivity());
+    final TabLayout tabLayout = (TabLayout) inflater.inflate(R.layout.design_tabs, null);
+    tabLayout.setTabMode(TabLayout.MODE_SCROLLABLE);
+    for (int i = 0; i < 10; i++) {
+      tabLayout.addTab(tabLayout.newTab().setText("Tab " + i));
+    }
+    layoutTabs(tabLayout);
+
+    // Following a ViewPager swipe should only move and redraw the indicator
+    for (float offset = 0f; offset < 1f; offset += 0.1f) {
+      tabLayout.setScrollPosition(1, offset, true);
+      assertFalse(tabLayout.isLayoutRequested());
+      for (int i = 0; i < tabLayout.getTabCount(); i++) {
+        assertFalse(tabLayout.getTabAt(i).view.isLayoutRequested());
+      }
+    }
+  }
+
+  @Test
+  @UiThreadTest
+  public void testVirtualizedTabsSyncSelectionStateWhenBound() {
+    final LayoutInflater inflater = LayoutInflater.from(activityTestRule.getActivity());
+    final TabLayout tabLayout = (TabLayout) inflater.inflate(R.layout.design_tabs, null);
+    tabLayout.setTabMode(TabLayout.MODE_SCROLLABLE);
+    tabLayout.setTabVirtualizationEnabled(true);
+    for (int i = 0; i < 500; i++) {
+      tabLayout.addTab(tabLayout.newTab().setText("Tab " + i));
+    }
+    tabLayout.getTabAt(1).select();
+    layoutTabs(tabLayout);
+    assertTrue(tabLayout.getTabAt(1).view.isActivated());
+
+    // Scroll the selected tab out of the bound window, so that its view is recycled
+    tabLayout.scrollTo(tabLayout.getChildAt(0).getWidth(), 0);
+    layoutTabs(tabLayout);
+    assertNull(tabLayout.getTabAt(1).view);
+    for (int i = 0, count = tabLayout.getTabCount(); i < count; i++) {
+      final TabLayout.TabView tabView = tabLayout.getTabAt(i).view;
+      if (tabView != null) {
+        assertFalse(tabView.isSelected());
+        assertFalse(tabView.isActivated());
+      }
+    }
+
+    // Scrolling back re-binds the selected tab with its selection state
+    tabLayout.scrollTo(0, 0);
+    layoutTabs(tabLayout);
+    final TabLayout.TabView selectedView = tabLayout.getTabAt(1).view;
+    assertNotNull(selectedView);
+    assertTrue(selectedView.isSelected());
+    assertTrue(selectedView.isActivated());
+    assertFalse(tabLayout.getTabAt(0).view.isActivated());
+  }
+
+  @Test
+  @UiThreadTest
+  public void testWrappingLabelKeepsMultiLineSizeAfterRemeasure() {
+    final TabLayout tabLayout = createTabLayoutForMeasure();
+    final TabLayout.TabView tabView = tabLayout.getTabAt(0).view;
+    final TextView textView = findTextView(tabView);
+    final int widthMeasureSpec = getSingleLineWidthMeasureSpec(tabView, textView, "Tab one");
+
+    tabLayout.getTabAt(0).setText("Tab one tab two tab three");
+    measureTabView(tabView, widthMeasureSpec);
+    assertEquals(tabLayout.tabTextMultiLineSize, textView.getTextSize(), 0f);
+    assertEquals(2, TextViewCompat.getMaxLines(textView));
+
+    // A re-measure with the same inputs re-applies the resolved size
+    textView.setTextSize(TypedValue.COMPLEX_UNIT_PX, tabLayout.tabTextSize);
+    textView.setMaxLines(1);
+    measureTabView(tabView, widthMeasureSpec);
+    assertEquals(tabLayout.tabTextMultiLineSize, textView.getTextSize(), 0f);
+    assertEquals(2, TextViewCompat.getMaxLines(textView));
+  }
+
+  @Test
+  @UiThreadTest
+  public void testLabelSizeIsResolvedAgainAfterTextChange() {
+    final TabLayout tabLayout = createTabLayoutForMeasure();
+    final TabLayout.TabView tabView = tabLayout.getTabAt(0).view;
+    final TextView textView = findTextView(tabView);
+    final int widthMeasureSpec = getSingleLineWidthMeasureSpec(tabView, textView, "Tab one");
+
+    tabLayout.getTabAt(0).setText("Tab one tab two tab three");
+    measureTabView(tabView, widthMeasureSpec);
+    assertEquals(tabLayout.tabTextMultiLineSize, textView.getTextSize(), 0f);
+
+    tabLayout.getTabAt(0).setText("Tab one");
+    measureTabView(tabView, widthMeasureSpec);
+    assertEquals(tabLayout.tabTextSize, textView.getTextSize(), 0f);
+
+    // Styled text with the same characters may wrap differently
+    final SpannableString styledText = new SpannableString("Tab one");
+    styledText.setSpan(
+        new RelativeSizeSpan(3f), 0, styledText.length(), Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+    tabLayout.getTabAt(0).setText(styledText);
+    measureTabView(tabView, widthMeasureSpec);
+    assertEquals(tabLayout.tabTextMultiLineSize, textView.getTextSize(), 0f);
+    assertEquals(2, TextViewCompat.getMaxLines(textView));
+  }
+
+  @Test
+  @UiThreadTest
+  public void testLabelSizeIsResolvedAgainAfterTypefaceChange() {
+    final TabLayout tabLayout = createTabLayoutForMeasure();
+    final TabLayout.TabView tabView = tabLayout.getTabAt(0).view;
+    final TextView textView = findTextView(tabView);
+    final String text = "Bold tab label";
+    final int widthMeasureSpec = getSingleLineWidthMeasureSpec(tabView, textView, text);
+
+    tabLayout.getTabAt(0).setText(text);
+    measureTabView(tabView, widthMeasureSpec);
+    assertEquals(tabLayout.tabTextSize, textView.getTextSize(), 0f);
+
+    // The bold typeface is wider, so the label no longer fits on a single line
+    textView.setTypeface(Typeface.DEFAULT_BOLD);
+    measureTabView(tabView, widthMeasureSpec);
+    assertEquals(tabLayout.tabTextMultiLineSize, textView.getTextSize(), 0f);
+    assertEquals(2, TextViewCompat.getMaxLines(textView));
+  }
+
+  private TabLayout createTabLayoutForMeasure() {
+    final LayoutInflater inflater = LayoutInflater.from(activityTestRule.getActivity());
+    final TabLayout tabLayout = (TabLayout) inflater.inflate(R.layout.design_tabs, null);
+    // Scrollable tabs resolve the text size without the fixed mode's recursion guard
+    tabLayout.setTabMode(TabLayout.MODE_SCROLLABLE);
+    tabLayout.addTab(tabLayout.newTab().setText("Tab one"));
+    return tabLayout;
+  }
+
+  /** Returns a width spec that fits {@code text} on a single line at the default text size. */
+  private static int getSingleLineWidthMeasureSpec(
+      TabLayout.TabView tabView, TextView textView, CharSequence text) {
+    textView.setText(text);
+    tabView.measure(
+        MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED),
+        MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED));
+    return MeasureSpec.makeMeasureSpec(
+        textView.getMeasuredWidth() + tabView.getPaddingLeft() + tabView.getPaddingRight() + 1,
+        MeasureSpec.EXACTLY);
+  }
+
+  private static void measureTabView(TabLayout.TabView tabView, int widthMeasureSpec) {
+    tabView.measure(widthMeasureSpec, MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED));
+  }
+
+  private static TextView findTextView(ViewGroup viewGroup) {
+    for (int i = 0; i < viewGroup.getChildCount(); i++) {
+      final View child = viewGroup.getChildAt(i);
+      if (child instanceof TextView) {
+        return (TextView) child;
+      }
+      if (child instanceof ViewGroup) {
+        final TextView textView = findTextView((ViewGroup) child);
+        if (textView != null) {
+          return textView;
+        }
+      }
+    }
+    return null;
+  }
+
+  private static void layoutTabs(final TabLayout tabLayout) {
+    tabLayout.measure(
+        MeasureSpec.makeMeasureSpec(1000, MeasureSpec.EXACTLY),
+        MeasureSpec.makeMeasureSpec(200, MeasureSpec.EXACTLY));
+    tabLayout.layout(0, 0, 1000, 200);
+  }
+
   private static void assertTabCustomViewSelected(final TabLayout tabLayout) {
     for (int i = 0, count = tabLayout.getTabCount(); i < count; i++) {
       final TabLayout.Tab tab = tabLayout.getTabAt(i);